@@ -21,13 +21,27 @@ public class ApiGatewayApplication {
 		SpringApplication.run(ApiGatewayApplication.class, args);
 	}
 
+	// "Students in course X" lives under /api/courses but is served by student-service, which owns the
+	// enrollments. Ordered ahead of the configured routes so the broader /api/courses/** route does not win.
+	@Bean
+	public RouteLocator courseEnrollmentRoutes(RouteLocatorBuilder builder) {
+		return builder.routes()
+				.route("course-students-route", r -> r.order(-1)
+						.path("/api/courses/{courseId}/students", "/api/courses/{courseId}/students/**")
+						.filters(f -> f.addResponseHeader("X-Gateway-Trace", "student-route"))
+						.uri("lb://STUDENT-SERVICE"))
+				.build();
+	}
+
 	@Bean
 	public CorsWebFilter corsWebFilter() {
 		CorsConfiguration corsConfig = new CorsConfiguration();
 		corsConfig.setAllowedOrigins(Collections.singletonList("http://localhost:3000"));
 		corsConfig.setMaxAge(3600L);
 		corsConfig.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-		corsConfig.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type"));
+		corsConfig.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "If-None-Match"));
+		// ETag is not readable by browser scripts unless exposed; conditional GETs rely on it
+		corsConfig.setExposedHeaders(Collections.singletonList("ETag"));
 		corsConfig.setAllowCredentials(true);
 
 		UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
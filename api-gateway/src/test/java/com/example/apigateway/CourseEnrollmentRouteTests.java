@@ -0,0 +1,46 @@
+package com.example.apigateway;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+		"eureka.client.enabled=false",
+		"spring.cloud.config.enabled=false",
+		"spring.cloud.config.discovery.enabled=false"
+})
+public class CourseEnrollmentRouteTests {
+
+	@Autowired
+	private RouteLocator routeLocator;
+
+	@Test
+	void courseStudentsPathsRouteToStudentService() {
+		Route route = routeLocator.getRoutes()
+				.filter(r -> r.getId().equals("course-students-route"))
+				.blockFirst();
+
+		assertThat(route).isNotNull();
+		assertThat(route.getUri()).isEqualTo(URI.create("lb://STUDENT-SERVICE"));
+		assertThat(route.getOrder()).isNegative();
+		assertThat(matches(route, "/api/courses/7/students")).isTrue();
+		assertThat(matches(route, "/api/courses/7/students/count")).isTrue();
+		assertThat(matches(route, "/api/courses/7")).isFalse();
+	}
+
+	private static boolean matches(Route route, String path) {
+		ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path).build());
+		return Boolean.TRUE.equals(Mono.from(route.getPredicate().apply(exchange)).block());
+	}
+}
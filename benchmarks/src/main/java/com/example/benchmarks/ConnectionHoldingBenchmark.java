@@ -0,0 +1,188 @@
+package com.example.benchmarks;
+
+import com.example.studentservice.StudentServiceApplication;
+import com.example.studentservice.model.Student;
+import com.example.studentservice.repository.StudentRepository;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+/**
+ * Shows how long GET /api/students/{id}?expand=courses holds a pooled database connection while
+ * COURSE-SERVICE answers every lookup after a delay: once with {@code spring.jpa.open-in-view=true},
+ * where the connection stays bound to the request until the response is written, and once with the
+ * service's setting ({@code false}), where it is returned before the course lookup. Reports Hikari's
+ * connection usage and acquire times and the peak of active and waiting connections.
+ * <p>
+ * Not a JMH benchmark, since it drives a running service over HTTP; run it from this module with
+ * {@code mvn compile exec:java -Dexec.mainClass=com.example.benchmarks.ConnectionHoldingBenchmark}.
+ * Tunables (system properties): {@code benchmark.concurrency} (default 50),
+ * {@code benchmark.duration} (seconds, default 10), {@code benchmark.warmup} (seconds, default 5),
+ * {@code benchmark.poolSize} (default 10) and {@code benchmark.courseDelayMs} (default 200).
+ */
+public class ConnectionHoldingBenchmark {
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 50);
+    private static final int DURATION_SECONDS = Integer.getInteger("benchmark.duration", 10);
+    private static final int WARMUP_SECONDS = Integer.getInteger("benchmark.warmup", 5);
+    private static final int POOL_SIZE = Integer.getInteger("benchmark.poolSize", 10);
+    private static final int COURSE_DELAY_MS = Integer.getInteger("benchmark.courseDelayMs", 200);
+    private static final int STUDENTS = 100;
+
+    private final WireMockServer courseService;
+
+    private ConnectionHoldingBenchmark(WireMockServer courseService) {
+        this.courseService = courseService;
+    }
+
+    public static void main(String[] args) throws Exception {
+        WireMockServer courseService = new WireMockServer(wireMockConfig().dynamicPort().containerThreads(CONCURRENCY + 50));
+        courseService.start();
+        try {
+            new ConnectionHoldingBenchmark(courseService).compareWithSlowCourseService();
+        } finally {
+            courseService.stop();
+        }
+    }
+
+    private void compareWithSlowCourseService() throws Exception {
+        courseService.stubFor(post(urlEqualTo("/api/courses/byIds"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withFixedDelay(COURSE_DELAY_MS)
+                        .withBody("[{\"id\":1,\"title\":\"Math\",\"description\":\"Calculus\"},"
+                                + "{\"id\":2,\"title\":\"Physics\",\"description\":\"Mechanics\"}]")));
+
+        Result openInView = run("open-in-view", true);
+        Result released = run("released", false);
+
+        System.out.printf("%n%-14s %8s %14s %16s %12s %12s %8s%n", "mode", "req/s", "usage mean ms",
+                "acquire mean ms", "max active", "max pending", "errors");
+        for (Result result : List.of(openInView, released)) {
+            System.out.printf("%-14s %8.1f %14.1f %16.2f %12d %12d %8d%n", result.name, result.throughput,
+                    result.usageMeanMillis, result.acquireMeanMillis,
+                    result.maxActive, result.maxPending, result.errors);
+        }
+    }
+
+    private Result run(String name, boolean openInView) throws Exception {
+        // Command-line arguments, since they take precedence over application.properties
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(StudentServiceApplication.class).run(
+                "--server.port=0",
+                "--server.tomcat.threads.max=" + (CONCURRENCY + 10),
+                "--spring.jpa.open-in-view=" + openInView,
+                "--spring.datasource.url=jdbc:h2:mem:connections-" + name + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                "--spring.datasource.hikari.connection-timeout=30000",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--eureka.client.enabled=false",
+                // The jar's bootstrap.properties imports the config server; use a name nothing ships
+                "--spring.cloud.bootstrap.name=benchmark-bootstrap",
+                "--spring.cloud.config.enabled=false",
+                "--spring.cloud.discovery.client.simple.instances.COURSE-SERVICE[0].uri=" + courseService.baseUrl(),
+                // Every request should reach the (slow) course service
+                "--student-service.course-client.cache.enabled=false",
+                "--resilience4j.bulkhead.instances.courseService.max-concurrent-calls=" + CONCURRENCY,
+                "--resilience4j.circuitbreaker.instances.courseService.slow-call-duration-threshold=10s",
+                "--logging.level.root=WARN")) {
+
+            StudentRepository studentRepository = context.getBean(StudentRepository.class);
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < STUDENTS; i++) {
+                // Distinct courses per student, so lookups cannot join another request's in-flight call
+                long course = 2L * i + 1;
+                ids.add(studentRepository.save(new Student("First" + i, "Last" + i, name + i + "@example.com", Set.of(course, course + 1))).getId());
+            }
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+            String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            drive(baseUrl, ids, WARMUP_SECONDS); // let the JIT and the connection pools settle
+            // Usage and acquire timers so far cover the seeding and the warmup
+            Timer usage = meterRegistry.get("hikaricp.connections.usage").timer();
+            Timer acquire = meterRegistry.get("hikaricp.connections.acquire").timer();
+            long usageCountBefore = usage.count();
+            double usageTotalBefore = usage.totalTime(TimeUnit.MILLISECONDS);
+            long acquireCountBefore = acquire.count();
+            double acquireTotalBefore = acquire.totalTime(TimeUnit.MILLISECONDS);
+
+            AtomicLong maxActive = new AtomicLong();
+            AtomicLong maxPending = new AtomicLong();
+            ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+            sampler.scheduleAtFixedRate(() -> {
+                maxActive.accumulateAndGet((long) meterRegistry.get("hikaricp.connections.active").gauge().value(), Math::max);
+                maxPending.accumulateAndGet((long) meterRegistry.get("hikaricp.connections.pending").gauge().value(), Math::max);
+            }, 0, 10, TimeUnit.MILLISECONDS);
+            long[] outcome;
+            try {
+                outcome = drive(baseUrl, ids, DURATION_SECONDS);
+            } finally {
+                sampler.shutdownNow();
+            }
+
+            long usageCount = usage.count() - usageCountBefore;
+            long acquireCount = acquire.count() - acquireCountBefore;
+            return new Result(name, outcome[0], outcome[0] / (double) DURATION_SECONDS,
+                    usageCount == 0 ? 0 : (usage.totalTime(TimeUnit.MILLISECONDS) - usageTotalBefore) / usageCount,
+                    acquireCount == 0 ? 0 : (acquire.totalTime(TimeUnit.MILLISECONDS) - acquireTotalBefore) / acquireCount,
+                    maxActive.get(), maxPending.get(), outcome[1]);
+        }
+    }
+
+    // Closed loop; returns the number of requests and of errors
+    private long[] drive(String baseUrl, List<Long> ids, int seconds) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        AtomicLong requests = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < CONCURRENCY; user++) {
+                int userIndex = user;
+                users.submit(() -> {
+                    int i = userIndex;
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = HttpRequest.newBuilder(
+                                        URI.create(baseUrl + "/api/students/" + ids.get(i++ % ids.size()) + "?expand=courses"))
+                                .timeout(Duration.ofSeconds(30))
+                                .build();
+                        try {
+                            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                            // A degraded response skipped the course lookup, so it would flatter the numbers
+                            if (response.statusCode() != 200 || response.body().contains("coursesUnavailable")) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        requests.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+        }
+        return new long[]{requests.get(), errors.get()};
+    }
+
+    private record Result(String name, long requests, double throughput, double usageMeanMillis,
+                          double acquireMeanMillis, long maxActive, long maxPending, long errors) {
+    }
+}
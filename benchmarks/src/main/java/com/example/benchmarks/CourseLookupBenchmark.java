@@ -0,0 +1,58 @@
+package com.example.benchmarks;
+
+import com.example.courseservice.dto.CourseResponse;
+import com.example.courseservice.mapper.CourseMapperImpl;
+import com.example.courseservice.model.Course;
+import com.example.courseservice.repository.CourseChangeCounterRepository;
+import com.example.courseservice.repository.CourseChangeRepository;
+import com.example.courseservice.repository.CourseRepository;
+import com.example.courseservice.service.CourseChangeLog;
+import com.example.courseservice.service.CourseServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code CourseServiceImpl.getCoursesByIds()}, the endpoint behind every student-service course
+ * lookup, with the repository answering from memory so only the entity-to-DTO mapping is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CourseLookupBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int ids;
+
+    private CourseServiceImpl courseService;
+    private Set<Long> courseIds;
+
+    @Setup
+    public void setUp() {
+        List<Course> courses = new ArrayList<>(ids);
+        courseIds = new HashSet<>();
+        for (long id = 1; id <= ids; id++) {
+            courses.add(new Course(id, "Course " + id, "Description of course " + id));
+            courseIds.add(id);
+        }
+        CourseRepository repository = Stubs.repository(CourseRepository.class, Map.of("findAllById", args -> courses));
+        CourseChangeLog changeLog = new CourseChangeLog(Stubs.repository(CourseChangeRepository.class, Map.of()),
+                Stubs.repository(CourseChangeCounterRepository.class, Map.of()), 1, 500);
+        courseService = new CourseServiceImpl(repository, new CourseMapperImpl(), event -> { }, changeLog,
+                Stubs.repository(EntityManager.class, Map.of()));
+    }
+
+    @Benchmark
+    public List<CourseResponse> getCoursesByIds() {
+        return courseService.getCoursesByIds(courseIds);
+    }
+}
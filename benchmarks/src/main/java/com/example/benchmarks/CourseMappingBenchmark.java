@@ -0,0 +1,86 @@
+package com.example.benchmarks;
+
+import com.example.courseservice.dto.CourseRequest;
+import com.example.courseservice.dto.CourseResponse;
+import com.example.courseservice.mapper.CourseMapper;
+import com.example.courseservice.mapper.CourseMapperImpl;
+import com.example.courseservice.model.Course;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of the generated {@link CourseMapper} against the reflective ModelMapper it
+ * replaced: entity to response for a batch of courses (list and byIds endpoints), request to
+ * entity (create) and request onto an existing entity (update). Run with -prof gc to compare
+ * allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CourseMappingBenchmark {
+
+    @Param({"100"})
+    public int courses;
+
+    private ModelMapper modelMapper;
+    private CourseMapper courseMapper;
+    private List<Course> batch;
+    private CourseRequest request;
+    private Course existing;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        courseMapper = new CourseMapperImpl();
+        batch = new ArrayList<>(courses);
+        for (long i = 0; i < courses; i++) {
+            batch.add(new Course(i, "Course " + i, "Description of course " + i));
+        }
+        request = new CourseRequest("Updated Course", "Updated description");
+        existing = new Course(1L, "Old Title", "Old Description");
+    }
+
+    @Benchmark
+    public void toResponse_modelMapper(Blackhole blackhole) {
+        for (Course course : batch) {
+            blackhole.consume(modelMapper.map(course, CourseResponse.class));
+        }
+    }
+
+    @Benchmark
+    public void toResponse_generated(Blackhole blackhole) {
+        for (Course course : batch) {
+            blackhole.consume(courseMapper.toResponse(course));
+        }
+    }
+
+    @Benchmark
+    public Course toEntity_modelMapper() {
+        return modelMapper.map(request, Course.class);
+    }
+
+    @Benchmark
+    public Course toEntity_generated() {
+        return courseMapper.toEntity(request);
+    }
+
+    @Benchmark
+    public Course updateEntity_modelMapper() {
+        modelMapper.map(request, existing);
+        return existing;
+    }
+
+    @Benchmark
+    public Course updateEntity_generated() {
+        courseMapper.updateEntity(request, existing);
+        return existing;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.benchmarks;
+
+import com.example.courseservice.dto.CourseValidationRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Jackson deserialization of the {@code CourseValidationRequest} body that course-service reads on
+ * every POST /api/courses/byIds, at the id counts student-service sends (up to one batch of 500).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CourseValidationRequestBenchmark {
+
+    @Param({"10", "100", "500"})
+    public int ids;
+
+    private ObjectReader reader;
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        reader = objectMapper.readerFor(CourseValidationRequest.class);
+        body = LongStream.rangeClosed(1, ids)
+                .mapToObj(Long::toString)
+                .collect(Collectors.joining(",", "{\"courseIds\":[", "]}"))
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public CourseValidationRequest deserialize() throws IOException {
+        return reader.readValue(body);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.benchmarks;
+
+import com.example.courseservice.dto.CourseResponse;
+import com.example.studentservice.dto.CourseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The POST /api/courses/byIds exchange in each encoding student-service can use: JSON or CBOR, with
+ * or without gzip on the response. {@code encode} is the CPU both sides spend writing (student-service
+ * the {@code CourseValidationRequest}, course-service the courses), {@code decode} the CPU they spend
+ * reading. The bytes each encoding puts on the wire are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CourseWireFormatBenchmark {
+
+    @Param({"10", "1000"})
+    public int ids;
+
+    @Param({"json", "cbor", "json+gzip", "cbor+gzip"})
+    public String encoding;
+
+    private boolean gzip;
+    private ObjectWriter requestWriter;
+    private ObjectReader requestReader;
+    private ObjectWriter responseWriter;
+    private ObjectReader responseReader;
+    private com.example.studentservice.dto.CourseValidationRequest request;
+    private List<CourseResponse> response;
+    private byte[] requestBytes;
+    private byte[] responseBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        // The same builders Spring uses for its JSON and CBOR message converters
+        ObjectMapper mapper = encoding.startsWith("cbor") ? Jackson2ObjectMapperBuilder.cbor().build()
+                : Jackson2ObjectMapperBuilder.json().build();
+        gzip = encoding.endsWith("+gzip");
+        requestWriter = mapper.writerFor(com.example.studentservice.dto.CourseValidationRequest.class);
+        requestReader = mapper.readerFor(com.example.courseservice.dto.CourseValidationRequest.class);
+        responseWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, CourseResponse.class));
+        responseReader = mapper.readerFor(CourseDto[].class);
+
+        // Ids and text shaped like the generated catalog (see CourseDatasetGenerator)
+        Set<Long> courseIds = new LinkedHashSet<>();
+        response = new ArrayList<>(ids);
+        for (long id = 1; id <= ids; id++) {
+            long courseId = 10_000 + id * 7;
+            courseIds.add(courseId);
+            response.add(new CourseResponse(courseId, "Intermediate Distributed Systems #" + courseId,
+                    "Covers the core ideas of intermediate distributed systems through lectures, readings and a project. Course " + courseId + "."));
+        }
+        request = new com.example.studentservice.dto.CourseValidationRequest(courseIds);
+
+        requestBytes = encodeRequest().toByteArray();
+        responseBytes = encodeResponse().toByteArray();
+        System.out.printf("%n%s, %d ids: request %d bytes, response %d bytes%n", encoding, ids, requestBytes.length, responseBytes.length);
+    }
+
+    @Benchmark
+    public int encode() throws IOException {
+        return encodeRequest().size() + encodeResponse().size();
+    }
+
+    @Benchmark
+    public CourseDto[] decode() throws IOException {
+        com.example.courseservice.dto.CourseValidationRequest received = requestReader.readValue(requestBytes);
+        if (received.getCourseIds().size() != ids) {
+            throw new IllegalStateException("Decoded " + received.getCourseIds().size() + " ids");
+        }
+        InputStream body = new ByteArrayInputStream(responseBytes);
+        return responseReader.readValue(gzip ? new GZIPInputStream(body) : body);
+    }
+
+    private ByteArrayOutputStream encodeRequest() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        requestWriter.writeValue(bytes, request);
+        return bytes;
+    }
+
+    private ByteArrayOutputStream encodeResponse() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        // writeValue closes the stream, which finishes the gzip trailer
+        OutputStream body = gzip ? new GZIPOutputStream(bytes) : bytes;
+        responseWriter.writeValue(body, response);
+        return bytes;
+    }
+}
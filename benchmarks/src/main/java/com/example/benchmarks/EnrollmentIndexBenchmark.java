@@ -0,0 +1,98 @@
+package com.example.benchmarks;
+
+import com.example.studentservice.dataset.StudentDatasetGenerator;
+import com.example.studentservice.dataset.StudentDatasetProperties;
+import com.example.studentservice.service.EnrollmentIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code EnrollmentIndex} set queries and its full rebuild over a generated dataset in an in-memory
+ * H2 database, with Zipf-skewed enrollments so "popular" and "long tail" courses behave as they
+ * would in production. Use {@code -p students=1000000 -p courses=10000} for production sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnrollmentIndexBenchmark {
+
+    @Param({"100000"})
+    public int students;
+
+    @Param({"1000"})
+    public int courses;
+
+    @Param({"1.0"})
+    public double zipfExponent;
+
+    private JdbcTemplate jdbcTemplate;
+    private EnrollmentIndex index;
+    private List<Long> popular;
+    private List<Long> tail;
+
+    @Setup
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:enrollment-index-benchmark;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // The tables Hibernate creates for Student
+        jdbcTemplate.execute("create sequence students_seq start with 1 increment by 50");
+        jdbcTemplate.execute("create table students (id bigint primary key, first_name varchar(255) not null,"
+                + " last_name varchar(255) not null, email varchar(255) not null unique)");
+        jdbcTemplate.execute("create table student_course_enrollments (student_id bigint not null, course_id bigint)");
+        jdbcTemplate.execute("create index idx_enrollments_course_student on student_course_enrollments (course_id, student_id)");
+
+        StudentDatasetProperties spec = new StudentDatasetProperties();
+        spec.setStudents(students);
+        spec.setCourses(courses);
+        spec.setZipfExponent(zipfExponent);
+        new StudentDatasetGenerator(dataSource).generate(spec);
+
+        index = new EnrollmentIndex(jdbcTemplate, new SimpleMeterRegistry(), Duration.ZERO);
+        index.rebuild();
+        List<Long> byPopularity = jdbcTemplate.queryForList(
+                "select course_id from student_course_enrollments group by course_id order by count(*) desc", Long.class);
+        popular = byPopularity.subList(0, 2);
+        tail = byPopularity.subList(byPopularity.size() - 10, byPopularity.size());
+    }
+
+    @TearDown
+    public void tearDown() {
+        jdbcTemplate.execute("drop all objects");
+    }
+
+    // Students in both of the two largest courses
+    @Benchmark
+    public Roaring64Bitmap popularAndPopular() {
+        return index.select(popular, null, null);
+    }
+
+    // Students in the largest course but not the second largest
+    @Benchmark
+    public Roaring64Bitmap popularExceptPopular() {
+        return index.select(Set.of(popular.get(0)), null, Set.of(popular.get(1)));
+    }
+
+    // Students in any of the ten smallest courses
+    @Benchmark
+    public Roaring64Bitmap anyOfTail() {
+        return index.select(null, tail, null);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public EnrollmentIndex rebuild() {
+        index.rebuild();
+        return index;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.benchmarks;
+
+import com.example.studentservice.client.CourseCatalogReplica;
+import com.example.studentservice.client.CourseClientProperties;
+import com.example.studentservice.client.CourseServiceClient;
+import com.example.studentservice.dto.CourseChangeEvent;
+import com.example.studentservice.dto.CourseChangeFeed;
+import com.example.studentservice.dto.CourseDto;
+import com.example.studentservice.dto.StudentResponse;
+import com.example.studentservice.dto.StudentView;
+import com.example.studentservice.mapper.StudentMapperImpl;
+import com.example.studentservice.repository.StudentRepository;
+import com.example.studentservice.service.EnrollmentIndex;
+import com.example.studentservice.service.StudentServiceImpl;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code StudentServiceImpl.getAllStudents(view)} for GET /api/students?expand=courses: collect the
+ * enrolled course ids of every student, resolve them in one lookup and join the course details back
+ * onto each response.
+ * <p>
+ * The course lookup is answered by a fully loaded {@link CourseCatalogReplica} (the steady state
+ * with the replica enabled), so no HTTP is involved and the benchmark isolates the service's own
+ * collect/lookup/join/map work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentEnrichmentBenchmark {
+
+    private static final int CATALOG_SIZE = 1_000;
+    private static final StudentView EXPANDED = StudentView.parse(null, Set.of(StudentView.EXPAND_COURSES));
+
+    @Param({"100", "1000"})
+    public int students;
+
+    @Param({"5"})
+    public int coursesPerStudent;
+
+    private StudentServiceImpl studentService;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Long> ids = new ArrayList<>(students);
+        List<StudentResponse> rows = new ArrayList<>(students);
+        for (long id = 1; id <= students; id++) {
+            Set<Long> courseIds = new HashSet<>();
+            while (courseIds.size() < coursesPerStudent) {
+                courseIds.add(random.nextLong(1, CATALOG_SIZE + 1));
+            }
+            ids.add(id);
+            rows.add(new StudentResponse(id, "First" + id, "Last" + id, "student" + id + "@example.com", courseIds, null, null));
+        }
+        // One page of ids, then none; the projection read returns the rows as they are
+        StudentRepository repository = Stubs.repository(StudentRepository.class, Map.of(
+                "findIdsAfter", args -> (Long) args[0] == 0L ? ids : List.of(),
+                "findProjections", args -> rows));
+        PlatformTransactionManager transactionManager = Stubs.repository(PlatformTransactionManager.class, Map.of(
+                "getTransaction", args -> new SimpleTransactionStatus(),
+                "commit", args -> null,
+                "rollback", args -> null));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CourseCatalogReplica replica = new CourseCatalogReplica(meterRegistry);
+        List<CourseChangeEvent> snapshot = new ArrayList<>(CATALOG_SIZE);
+        for (long id = 1; id <= CATALOG_SIZE; id++) {
+            snapshot.add(new CourseChangeEvent(1L, CourseChangeEvent.Type.CREATED, id,
+                    new CourseDto(id, "Course " + id, "Description of course " + id)));
+        }
+        replica.apply(new CourseChangeFeed("benchmark", 1L, true, snapshot));
+
+        CourseServiceClient courseServiceClient = new CourseServiceClient(new RestTemplate(), new CourseClientProperties(),
+                replica, meterRegistry, CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults());
+        // Reads never touch the enrollment index or publish events
+        studentService = new StudentServiceImpl(repository, new StudentMapperImpl(), courseServiceClient, transactionManager,
+                new EnrollmentIndex(new JdbcTemplate(), meterRegistry, Duration.ZERO), event -> { });
+    }
+
+    @Benchmark
+    public List<StudentResponse> getAllStudents() {
+        return studentService.getAllStudents(EXPANDED);
+    }
+}
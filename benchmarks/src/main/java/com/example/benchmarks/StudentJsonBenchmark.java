@@ -0,0 +1,54 @@
+package com.example.benchmarks;
+
+import com.example.studentservice.dto.CourseDto;
+import com.example.studentservice.dto.StudentResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a {@code List<StudentResponse>} response body, as written by
+ * GET /api/students. The output goes straight to a discarding stream, the way the message
+ * converter streams into the servlet response, so buffer copies are not measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentJsonBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int students;
+
+    private ObjectWriter writer;
+    private List<StudentResponse> body;
+
+    @Setup
+    public void setUp() {
+        // Same defaults Spring Boot applies to its ObjectMapper
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, StudentResponse.class));
+        body = new ArrayList<>(students);
+        for (long id = 1; id <= students; id++) {
+            body.add(new StudentResponse(id, "First" + id, "Last" + id, "student" + id + "@example.com", Set.of(
+                    new CourseDto(101L, "Math Basics", "Introductory math course"),
+                    new CourseDto(102L, "Physics Fun", "Fun with physics"),
+                    new CourseDto(103L, "Chemistry", "Reactions and the periodic table"))));
+        }
+    }
+
+    @Benchmark
+    public void serialize() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), body);
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.benchmarks;
+
+import com.example.studentservice.StudentServiceApplication;
+import com.example.studentservice.model.Student;
+import com.example.studentservice.repository.StudentRepository;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+/**
+ * Compares GET /api/students/{id}?expand=courses throughput and latency on platform threads (default
+ * Tomcat pool) and on virtual threads, while COURSE-SERVICE answers every lookup after a delay.
+ * <p>
+ * Not a JMH benchmark, since it drives a running service over HTTP; run it from this module with
+ * {@code mvn compile exec:java -Dexec.mainClass=com.example.benchmarks.VirtualThreadsBenchmark}.
+ * Tunables (system properties): {@code benchmark.concurrency} (default 400),
+ * {@code benchmark.duration} (seconds, default 10), {@code benchmark.warmup} (seconds, default 5),
+ * {@code benchmark.courseDelayMs} (default 200) and {@code benchmark.platformThreads}
+ * (Tomcat's {@code server.tomcat.threads.max} in platform mode, default 200).
+ */
+public class VirtualThreadsBenchmark {
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 400);
+    private static final int DURATION_SECONDS = Integer.getInteger("benchmark.duration", 10);
+    private static final int WARMUP_SECONDS = Integer.getInteger("benchmark.warmup", 5);
+    private static final int PLATFORM_THREADS = Integer.getInteger("benchmark.platformThreads", 200);
+    private static final int COURSE_DELAY_MS = Integer.getInteger("benchmark.courseDelayMs", 200);
+    private static final int STUDENTS = 100;
+
+    private final WireMockServer courseService;
+
+    private VirtualThreadsBenchmark(WireMockServer courseService) {
+        this.courseService = courseService;
+    }
+
+    public static void main(String[] args) throws Exception {
+        WireMockServer courseService = new WireMockServer(wireMockConfig().dynamicPort()
+                .containerThreads(CONCURRENCY + 50)
+                .asynchronousResponseEnabled(true)
+                .asynchronousResponseThreads(50));
+        courseService.start();
+        try {
+            new VirtualThreadsBenchmark(courseService).compareWithSlowCourseService();
+        } finally {
+            courseService.stop();
+        }
+    }
+
+    private void compareWithSlowCourseService() throws Exception {
+        courseService.stubFor(post(urlEqualTo("/api/courses/byIds"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withFixedDelay(COURSE_DELAY_MS)
+                        .withBody("[{\"id\":1,\"title\":\"Math\",\"description\":\"Calculus\"},"
+                                + "{\"id\":2,\"title\":\"Physics\",\"description\":\"Mechanics\"}]")));
+
+        Result platform = run("platform", false);
+        Result virtual = run("virtual", true);
+
+        System.out.printf("%n%-10s %12s %10s %10s %8s%n", "threads", "req/s", "p50 ms", "p99 ms", "errors");
+        for (Result result : List.of(platform, virtual)) {
+            System.out.printf("%-10s %12.1f %10.1f %10.1f %8d%n",
+                    result.name, result.throughput, result.p50Millis, result.p99Millis, result.errors);
+        }
+    }
+
+    private Result run(String name, boolean virtualThreads) throws Exception {
+        // Command-line arguments, since they take precedence over application.properties
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(StudentServiceApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--server.tomcat.threads.max=" + PLATFORM_THREADS,
+                "--spring.datasource.url=jdbc:h2:mem:benchmark-" + name + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                // Keep the connection pool out of the way of the thread comparison
+                "--spring.datasource.hikari.maximum-pool-size=" + (CONCURRENCY + 10),
+                "--eureka.client.enabled=false",
+                // The jar's bootstrap.properties imports the config server; use a name nothing ships
+                "--spring.cloud.bootstrap.name=benchmark-bootstrap",
+                "--spring.cloud.config.enabled=false",
+                "--spring.cloud.discovery.client.simple.instances.COURSE-SERVICE[0].uri=" + courseService.baseUrl(),
+                // Every request should reach the (slow) course service
+                "--student-service.course-client.cache.enabled=false",
+                "--resilience4j.bulkhead.instances.courseService.max-concurrent-calls=" + CONCURRENCY,
+                "--resilience4j.circuitbreaker.instances.courseService.slow-call-duration-threshold=10s",
+                "--logging.level.root=WARN")) {
+
+            StudentRepository studentRepository = context.getBean(StudentRepository.class);
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < STUDENTS; i++) {
+                // Distinct courses per student, so lookups cannot join another request's in-flight call
+                long course = 2L * i + 1;
+                ids.add(studentRepository.save(new Student("First" + i, "Last" + i, name + i + "@example.com", Set.of(course, course + 1))).getId());
+            }
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String baseUrl = "http://localhost:" + port;
+            drive(name, baseUrl, ids, WARMUP_SECONDS); // let the JIT and the connection pools settle
+            return drive(name, baseUrl, ids, DURATION_SECONDS);
+        }
+    }
+
+    private Result drive(String name, String baseUrl, List<Long> ids, int seconds) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        long[][] latencies = new long[CONCURRENCY][];
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+
+        // Closed loop: each virtual user sends its next request as soon as the previous one completes
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < CONCURRENCY; user++) {
+                int userIndex = user;
+                users.submit(() -> {
+                    long[] samples = new long[1024];
+                    int count = 0;
+                    int i = userIndex;
+                    while (System.nanoTime() < deadline) {
+                        // Course details are opt-in; without expand=courses the read never calls COURSE-SERVICE
+                        HttpRequest request = HttpRequest.newBuilder(
+                                        URI.create(baseUrl + "/api/students/" + ids.get(i++ % ids.size()) + "?expand=courses"))
+                                .timeout(Duration.ofSeconds(30))
+                                .build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                            // A degraded response skipped the course lookup, so it would flatter the numbers
+                            if (response.statusCode() != 200 || response.body().contains("coursesUnavailable")) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        samples[count++] = System.nanoTime() - start;
+                    }
+                    latencies[userIndex] = Arrays.copyOf(samples, count);
+                    return null;
+                });
+            }
+        }
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(name, all.length, all.length / (double) seconds,
+                percentile(all, 0.50), percentile(all, 0.99), errors.get());
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private record Result(String name, long requests, double throughput, double p50Millis, double p99Millis, long errors) {
+    }
+}
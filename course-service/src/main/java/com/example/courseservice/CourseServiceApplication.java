@@ -1,9 +1,7 @@
 package com.example.courseservice;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 
 @SpringBootApplication
@@ -15,8 +13,4 @@ public class CourseServiceApplication
 	{
 		SpringApplication.run(CourseServiceApplication.class, args);
 	}
-	@Bean
-	public ModelMapper modelMapper() {
-		return new ModelMapper();
-	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+package com.example.courseservice.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+
+/**
+ * Makes {@code server.compression.min-response-size} effective for POST /api/courses/byIds.
+ * <p>
+ * Tomcat only compares the threshold with a known Content-Length; bodies streamed by the Jackson
+ * converters have none and would be gzipped however small. The lookup's response (at most one
+ * batch of courses) is therefore buffered and sent with its length.
+ */
+@Configuration(proxyBeanMethods = false)
+public class CompressionConfig {
+
+    @Bean
+    public FilterRegistrationBean<OncePerRequestFilter> courseLookupContentLengthFilter() {
+        FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                    throws ServletException, IOException {
+                ContentCachingResponseWrapper buffered = new ContentCachingResponseWrapper(response);
+                try {
+                    chain.doFilter(request, buffered);
+                } finally {
+                    buffered.copyBodyToResponse();
+                }
+            }
+        });
+        registration.addUrlPatterns("/api/courses/byIds");
+        return registration;
+    }
+}
@@ -1,38 +1,115 @@
 package com.example.courseservice.controller;
 
+import com.example.courseservice.dto.CourseChangeFeed;
 import com.example.courseservice.dto.CourseRequest;
 import com.example.courseservice.dto.CourseResponse;
 import com.example.courseservice.dto.CourseValidationRequest; // NEW IMPORT
+import com.example.courseservice.service.CourseChangeLog;
 import com.example.courseservice.service.CourseService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/courses")
 public class CourseController {
 
+    private static final long MAX_CHANGES_WAIT_MS = 60_000;
+
     private final CourseService courseService;
+    private final CourseChangeLog changeLog;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter exportWriter;
 
-    public CourseController(CourseService courseService) {
+    public CourseController(CourseService courseService, CourseChangeLog changeLog, ObjectMapper objectMapper) {
         this.courseService = courseService;
+        this.changeLog = changeLog;
+        this.objectMapper = objectMapper;
+        // The generator's buffer is flushed when full, not after every course
+        this.exportWriter = objectMapper.writerFor(CourseResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
+    // Conditional GETs: Spring compares If-None-Match with the ETag of the fresh response and answers a
+    // match with 304 before serializing
     @GetMapping
     public ResponseEntity<List<CourseResponse>> getAllCourses() {
-        return ResponseEntity.ok(courseService.getAllCourses());
+        List<CourseResponse> courses = courseService.getAllCourses();
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(CourseETags.of(courses))
+                .body(courses);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<CourseResponse> getCourseById(@PathVariable Long id) {
-        return ResponseEntity.ok(courseService.getCourseById(id));
+        CourseResponse course = courseService.getCourseById(id);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(CourseETags.of(course))
+                .body(course);
+    }
+
+    // Full catalog for bulk consumers, one course per line (NDJSON, id order). Each course is written as
+    // its row is read, so neither the catalog nor the response body is held in memory.
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportCourses(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        try (JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream())) {
+            courseService.exportCourses(course -> {
+                try {
+                    exportWriter.writeValue(generator, course);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    // Change feed: returns the committed changes after version 'since'. With waitMs > 0 the request is
+    // held (without blocking a servlet thread) until a change arrives or the wait elapses.
+    @GetMapping("/changes")
+    public DeferredResult<CourseChangeFeed> getChanges(@RequestParam(required = false) String epoch,
+                                                       @RequestParam(defaultValue = "0") long since,
+                                                       @RequestParam(defaultValue = "0") long waitMs) {
+        CourseChangeFeed feed = courseService.getChanges(epoch, since);
+        if (waitMs <= 0 || feed.isSnapshot() || !feed.getEvents().isEmpty()) {
+            DeferredResult<CourseChangeFeed> result = new DeferredResult<>();
+            result.setResult(feed);
+            return result;
+        }
+
+        DeferredResult<CourseChangeFeed> result = new DeferredResult<>(Math.min(waitMs, MAX_CHANGES_WAIT_MS), feed);
+        CompletableFuture<Long> change = changeLog.awaitChangeAfter(since);
+        // Timed-out and disconnected polls stop waiting, so they do not pile up until the next change
+        result.onCompletion(() -> change.cancel(false));
+        change.whenCompleteAsync((version, error) -> {
+            if (error == null) {
+                result.setResult(courseService.getChanges(epoch, since));
+            }
+        });
+        return result;
     }
 
-    @PostMapping("/byIds")
+    // Internal lookup for student-service, in JSON or (with Content-Type/Accept: application/cbor) CBOR
+    @PostMapping(value = "/byIds", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     public ResponseEntity<List<CourseResponse>> getCoursesByIds(@RequestBody CourseValidationRequest request) { // MODIFIED LINE
         List<CourseResponse> courses = courseService.getCoursesByIds(request.getCourseIds()); // MODIFIED LINE
         return new ResponseEntity<>(courses, HttpStatus.OK);
@@ -0,0 +1,48 @@
+package com.example.courseservice.controller;
+
+import com.example.courseservice.dto.CourseResponse;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Strong ETags of course representations: an MD5 hash over the response fields, so every instance
+ * computes the same tag for the same content. Tags are always computed from the rows just read, never
+ * cached, so a write made through another instance (or behind the service's back) is seen at once.
+ */
+final class CourseETags {
+
+    private CourseETags() {
+    }
+
+    static String of(CourseResponse course) {
+        StringBuilder content = new StringBuilder();
+        append(content, course);
+        return hash(content);
+    }
+
+    static String of(List<CourseResponse> courses) {
+        StringBuilder content = new StringBuilder();
+        for (CourseResponse course : courses) {
+            append(content, course);
+        }
+        return hash(content);
+    }
+
+    // Each field prefixed with its length (or '-' for null), so different field splits never collide
+    private static void append(StringBuilder content, CourseResponse course) {
+        for (Object field : new Object[]{course.getId(), course.getTitle(), course.getDescription()}) {
+            if (field == null) {
+                content.append('-');
+            } else {
+                String value = field.toString();
+                content.append(value.length()).append(':').append(value);
+            }
+        }
+    }
+
+    private static String hash(StringBuilder content) {
+        return "\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
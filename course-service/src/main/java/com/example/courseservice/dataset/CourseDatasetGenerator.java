@@ -0,0 +1,74 @@
+package com.example.courseservice.dataset;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Fills {@code courses} with a synthetic catalog at production sizes, for benchmarks, load tests and
+ * integration tests.
+ * <p>
+ * Rows are written with plain batched JDBC, one transaction per {@code batchSize} courses, instead of
+ * through JPA or the REST API; ids come from the table's identity column as usual. Titles are unique
+ * (they end with a running number). Meant for databases no service instance is writing to at the
+ * same time; the generated courses do not appear in the change feed of a running service.
+ */
+public class CourseDatasetGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseDatasetGenerator.class);
+
+    private static final String[] LEVELS = {"Introduction to", "Foundations of", "Applied", "Intermediate",
+            "Advanced", "Topics in", "Seminar in", "Research Methods in"};
+    private static final String[] SUBJECTS = {"Mathematics", "Physics", "Chemistry", "Biology", "Computer Science",
+            "Economics", "History", "Philosophy", "Linguistics", "Statistics", "Psychology", "Sociology",
+            "Architecture", "Music Theory", "Astronomy", "Geology", "Law", "Literature", "Data Engineering",
+            "Machine Learning"};
+    private static final String[] FOCUS = {"core concepts and worked examples", "weekly problem sets and a final project",
+            "lectures, labs and a written exam", "case studies from industry and research",
+            "reading groups and short essays", "hands-on assignments in small teams"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public CourseDatasetGenerator(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    /**
+     * Inserts {@code spec.courses} courses and returns their ids in ascending order.
+     */
+    public List<Long> generate(CourseDatasetProperties spec) {
+        if (spec.getCourses() < 0) {
+            throw new IllegalArgumentException("Number of courses must not be negative.");
+        }
+
+        long started = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(spec.getSeed());
+        int batchSize = Math.max(1, spec.getBatchSize());
+        long maxIdBefore = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from courses", Long.class);
+        for (int from = 0; from < spec.getCourses(); from += batchSize) {
+            List<Object[]> courses = new ArrayList<>();
+            for (int i = from; i < Math.min(from + batchSize, spec.getCourses()); i++) {
+                String subject = SUBJECTS[random.nextInt(SUBJECTS.length)];
+                String title = LEVELS[random.nextInt(LEVELS.length)] + " " + subject + " #" + (maxIdBefore + i + 1);
+                String description = "A course in " + subject.toLowerCase(Locale.ROOT) + " with " + FOCUS[random.nextInt(FOCUS.length)] + ".";
+                courses.add(new Object[]{title, description});
+            }
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate("insert into courses (title, description) values (?, ?)", courses));
+        }
+
+        List<Long> ids = jdbcTemplate.queryForList("select id from courses where id > ? order by id", Long.class, maxIdBefore);
+        log.info("Generated {} courses in {} ms", ids.size(), (System.nanoTime() - started) / 1_000_000);
+        return ids;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.courseservice.dataset;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * With the {@code dataset} profile active, appends a synthetic catalog shaped by
+ * {@code course-service.dataset.*} on startup, e.g.
+ * {@code --spring.profiles.active=dataset --course-service.dataset.courses=10000}.
+ * Every start with the profile adds another batch of courses, so start with it once.
+ */
+@Component
+@Profile("dataset")
+@EnableConfigurationProperties(CourseDatasetProperties.class)
+public class CourseDatasetLoader implements ApplicationRunner {
+
+    private final DataSource dataSource;
+    private final CourseDatasetProperties properties;
+
+    public CourseDatasetLoader(DataSource dataSource, CourseDatasetProperties properties) {
+        this.dataSource = dataSource;
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        new CourseDatasetGenerator(dataSource).generate(properties);
+    }
+}
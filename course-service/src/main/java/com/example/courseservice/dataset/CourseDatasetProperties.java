@@ -0,0 +1,30 @@
+package com.example.courseservice.dataset;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Shape of the synthetic catalog written by {@link CourseDatasetGenerator}. Bound from
+ * {@code course-service.dataset.*} when the {@code dataset} profile is active; tests and benchmarks
+ * create it directly.
+ */
+@Data
+@ConfigurationProperties(prefix = "course-service.dataset")
+public class CourseDatasetProperties {
+
+    /**
+     * Number of courses to insert. On an empty database they get the ids 1..courses, which is what
+     * student-service's generator draws enrollments from by default.
+     */
+    private int courses = 10_000;
+
+    /**
+     * Courses inserted per JDBC batch and transaction.
+     */
+    private int batchSize = 5_000;
+
+    /**
+     * Seed for titles and descriptions, so the same settings give the same data.
+     */
+    private long seed = 42;
+}
@@ -0,0 +1,22 @@
+package com.example.courseservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A committed change to one course. {@code course} carries the full state after the change
+ * and is {@code null} for deletions, so replaying events in version order is idempotent.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseChangeEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private long version;
+    private Type type;
+    private Long courseId;
+    private CourseResponse course;
+}
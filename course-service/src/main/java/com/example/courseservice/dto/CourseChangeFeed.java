@@ -0,0 +1,25 @@
+package com.example.courseservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response of GET /api/courses/changes.
+ * <p>
+ * {@code epoch} identifies the change log in course-service's database, which all instances share;
+ * versions are only comparable within one epoch. When {@code snapshot} is true the subscriber's version was unknown
+ * or too old, and {@code events} holds one CREATED event per existing course that replaces the
+ * subscriber's whole copy of the catalog.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseChangeFeed {
+    private String epoch;
+    private long version;
+    private boolean snapshot;
+    private List<CourseChangeEvent> events;
+}
@@ -0,0 +1,28 @@
+package com.example.courseservice.mapper;
+
+import com.example.courseservice.dto.CourseRequest;
+import com.example.courseservice.dto.CourseResponse;
+import com.example.courseservice.model.Course;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Maps between {@link Course} and its DTOs. The implementation is generated at compile time
+ * (plain getter/setter calls, no reflection); an unmapped target property fails the build.
+ */
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface CourseMapper {
+
+    // The id is generated on insert
+    @Mapping(target = "id", ignore = true)
+    Course toEntity(CourseRequest request);
+
+    CourseResponse toResponse(Course course);
+
+    // Copies the request onto a managed entity; the entity keeps its id
+    @Mapping(target = "id", ignore = true)
+    void updateEntity(CourseRequest request, @MappingTarget Course course);
+}
@@ -0,0 +1,33 @@
+package com.example.courseservice.model;
+
+import com.example.courseservice.dto.CourseChangeEvent;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One committed course write, as served by the change feed. Versions are taken from
+ * {@link CourseChangeCounter}, so every instance numbers and serves the same changes. Title and
+ * description hold the course after the change and are null for deletions.
+ */
+@Entity
+@Table(name = "course_changes")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseChange {
+    @Id
+    private Long version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CourseChangeEvent.Type type;
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    private String title;
+
+    private String description;
+}
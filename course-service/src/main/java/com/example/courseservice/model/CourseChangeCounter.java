@@ -0,0 +1,30 @@
+package com.example.courseservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The single row holding the change feed's epoch and the last version handed out. Each write
+ * increments it and holds the row lock until it commits, so versions become visible in order and
+ * without gaps, whichever instance made the write.
+ */
+@Entity
+@Table(name = "course_change_counter")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseChangeCounter {
+    public static final long ID = 1L;
+
+    @Id
+    private Long id;
+
+    // Identifies this database's change log; a new one (e.g. a recreated schema) restarts the versions
+    @Column(nullable = false)
+    private String epoch;
+
+    @Column(nullable = false)
+    private long version;
+}
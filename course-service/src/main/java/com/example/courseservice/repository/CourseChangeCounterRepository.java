@@ -0,0 +1,32 @@
+package com.example.courseservice.repository;
+
+import com.example.courseservice.model.CourseChangeCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface CourseChangeCounterRepository extends JpaRepository<CourseChangeCounter, Long> {
+
+    // The row lock taken by the update is held until the writing transaction ends, which serializes
+    // course writes across instances. Returns 0 if the counter row does not exist yet.
+    @Modifying
+    @Query("update CourseChangeCounter c set c.version = c.version + 1 where c.id = :id")
+    int increment(@Param("id") Long id);
+
+    // A plain insert, never a merge: an instance racing to create the row must fail, not reset it
+    @Modifying
+    @Transactional
+    @Query(value = "insert into course_change_counter (id, epoch, version) values (:id, :epoch, 0)", nativeQuery = true)
+    void insert(@Param("id") Long id, @Param("epoch") String epoch);
+
+    // The current version (in a writing transaction, including its own increment), read without
+    // loading (and caching) the entity
+    @Query("select c.version from CourseChangeCounter c where c.id = :id")
+    Optional<Long> findVersion(@Param("id") Long id);
+}
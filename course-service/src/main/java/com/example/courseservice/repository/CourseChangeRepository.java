@@ -0,0 +1,21 @@
+package com.example.courseservice.repository;
+
+import com.example.courseservice.model.CourseChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CourseChangeRepository extends JpaRepository<CourseChange, Long> {
+
+    List<CourseChange> findByVersionGreaterThanOrderByVersion(long version);
+
+    // Drops the changes older than the change log's retention
+    @Modifying
+    @Query("delete from CourseChange c where c.version <= :version")
+    int deleteUpTo(@Param("version") long version);
+}
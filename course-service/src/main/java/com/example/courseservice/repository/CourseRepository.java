@@ -1,12 +1,32 @@
 package com.example.courseservice.repository;
 
 import com.example.courseservice.model.Course;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CourseRepository extends JpaRepository<Course, Long> {
+    int EXPORT_FETCH_SIZE = 500;
+
     Optional<Course> findByTitle(String title);
-}
\ No newline at end of file
+
+    /**
+     * The whole catalog in id order, read from a scrollable result set instead of a list. The rows are
+     * loaded read-only (no snapshots for dirty checking) and fetched from the driver {@value #EXPORT_FETCH_SIZE}
+     * at a time. Must be consumed and closed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select c from Course c order by c.id")
+    Stream<Course> streamAll();
+}
@@ -0,0 +1,196 @@
+package com.example.courseservice.service;
+
+import com.example.courseservice.dto.CourseChangeEvent;
+import com.example.courseservice.dto.CourseResponse;
+import com.example.courseservice.model.CourseChange;
+import com.example.courseservice.model.CourseChangeCounter;
+import com.example.courseservice.repository.CourseChangeCounterRepository;
+import com.example.courseservice.repository.CourseChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Versioned log of committed course changes, stored in the database and read through
+ * GET /api/courses/changes.
+ * <p>
+ * Every write gets the next version from {@link CourseChangeCounter} inside its own transaction, so
+ * versions are global: all instances share one sequence of changes, and a subscriber can poll any
+ * of them. Only the most recent {@code course-service.change-log.retention} changes are kept;
+ * subscribers that fall further behind (or that saw a different {@link #getEpoch() epoch}, i.e. a
+ * recreated database) are answered with a full snapshot instead.
+ * <p>
+ * Long-polls are woken at once by writes through this instance. Writes through other instances are
+ * noticed by re-reading the version every {@code course-service.change-log.watch-interval-ms}, and
+ * only while some poll is waiting.
+ */
+@Component
+public class CourseChangeLog implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseChangeLog.class);
+
+    private final CourseChangeRepository changeRepository;
+    private final CourseChangeCounterRepository counterRepository;
+    private final int retention;
+    private final long watchIntervalMs;
+    // Long-polls waiting for a change, each with the version it has already seen
+    private final Map<CompletableFuture<Long>, Long> waiters = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private Thread watcher;
+
+    public CourseChangeLog(CourseChangeRepository changeRepository, CourseChangeCounterRepository counterRepository,
+                           @Value("${course-service.change-log.retention:10000}") int retention,
+                           @Value("${course-service.change-log.watch-interval-ms:500}") long watchIntervalMs) {
+        this.changeRepository = changeRepository;
+        this.counterRepository = counterRepository;
+        this.retention = retention;
+        this.watchIntervalMs = watchIntervalMs;
+    }
+
+    // Runs inside the writing transaction, so the change is stored exactly when the write commits.
+    // The counter stays locked until then, which orders concurrent writes of all instances.
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onCourseChanged(CourseChangedEvent event) {
+        if (counterRepository.increment(CourseChangeCounter.ID) == 0) {
+            createCounter();
+            counterRepository.increment(CourseChangeCounter.ID);
+        }
+        // Our own, still uncommitted increment
+        long version = counterRepository.findVersion(CourseChangeCounter.ID).orElseThrow();
+        CourseResponse course = event.getCourse();
+        changeRepository.save(new CourseChange(version, event.getType(), event.getCourseId(),
+                course != null ? course.getTitle() : null, course != null ? course.getDescription() : null));
+        changeRepository.deleteUpTo(version - retention);
+    }
+
+    // Wakes up long-polling subscribers once the change is visible to their reads
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChangeCommitted(CourseChangedEvent event) {
+        wakeWaiters(getVersion());
+    }
+
+    public String getEpoch() {
+        return counterRepository.findById(CourseChangeCounter.ID).orElseGet(this::createCounter).getEpoch();
+    }
+
+    public long getVersion() {
+        return counterRepository.findVersion(CourseChangeCounter.ID).orElseGet(() -> createCounter().getVersion());
+    }
+
+    /**
+     * Returns the events after {@code since}, or {@code null} if some of them are no longer
+     * retained (or {@code since} is ahead of this log) and the caller needs a snapshot.
+     */
+    public List<CourseChangeEvent> eventsSince(long since) {
+        long version = getVersion();
+        if (since > version) {
+            return null;
+        }
+        List<CourseChange> changes = changeRepository.findByVersionGreaterThanOrderByVersion(since);
+        // Versions have no gaps, so a missing first one was dropped by retention
+        if (since < version && (changes.isEmpty() || changes.get(0).getVersion() != since + 1)) {
+            return null;
+        }
+        List<CourseChangeEvent> result = new ArrayList<>(changes.size());
+        for (CourseChange change : changes) {
+            CourseResponse course = change.getType() == CourseChangeEvent.Type.DELETED ? null
+                    : new CourseResponse(change.getCourseId(), change.getTitle(), change.getDescription());
+            result.add(new CourseChangeEvent(change.getVersion(), change.getType(), change.getCourseId(), course));
+        }
+        return result;
+    }
+
+    /**
+     * Completes with the new version as soon as a change after {@code since} is committed. A caller
+     * that stops waiting first must cancel the future, which unregisters it.
+     */
+    public CompletableFuture<Long> awaitChangeAfter(long since) {
+        CompletableFuture<Long> change = new CompletableFuture<>();
+        waiters.put(change, since);
+        change.whenComplete((changedVersion, error) -> waiters.remove(change));
+        // A change committed just before the waiter was registered would not wake it
+        long current = getVersion();
+        if (current > since) {
+            change.complete(current);
+        }
+        return change;
+    }
+
+    int waiterCount() {
+        return waiters.size();
+    }
+
+    @Override
+    public synchronized void start() {
+        // Created up front, so writes do not race to create it
+        getEpoch();
+        running = true;
+        watcher = new Thread(this::watchLoop, "course-change-watch");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (watcher != null) {
+            watcher.interrupt();
+            watcher = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void watchLoop() {
+        while (running) {
+            try {
+                Thread.sleep(watchIntervalMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (waiters.isEmpty()) {
+                continue;
+            }
+            try {
+                wakeWaiters(getVersion());
+            } catch (RuntimeException e) {
+                log.warn("Could not read the course change version: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void wakeWaiters(long version) {
+        waiters.forEach((waiter, since) -> {
+            if (since < version) {
+                waiter.complete(version);
+            }
+        });
+    }
+
+    // The first instance to need the counter creates it; one racing with it reads the winner's row
+    private CourseChangeCounter createCounter() {
+        try {
+            counterRepository.insert(CourseChangeCounter.ID, UUID.randomUUID().toString());
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Course change counter was created concurrently: {}", e.getMessage());
+        }
+        return counterRepository.findById(CourseChangeCounter.ID).orElseThrow();
+    }
+}
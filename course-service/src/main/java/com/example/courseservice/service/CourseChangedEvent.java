@@ -0,0 +1,26 @@
+package com.example.courseservice.service;
+
+import com.example.courseservice.dto.CourseChangeEvent;
+import com.example.courseservice.dto.CourseResponse;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Application event published by {@link CourseServiceImpl} for every course write.
+ * <p>
+ * The {@link CourseChangeLog} handles it twice. Just before the writing transaction commits, still
+ * inside it, the log locks and increments the shared change counter row and stores the change, so
+ * both commit or roll back atomically with the write. After the commit, it wakes the long-polls
+ * waiting for changes.
+ * <p>
+ * The counter row stays locked from the increment until commit, so course writes are serialized
+ * across all instances. This is intended: writes are rare next to reads, and one gap-free version
+ * order is what subscribers need to resume from any instance.
+ */
+@Data
+@AllArgsConstructor
+public class CourseChangedEvent {
+    private CourseChangeEvent.Type type;
+    private Long courseId;
+    private CourseResponse course;
+}
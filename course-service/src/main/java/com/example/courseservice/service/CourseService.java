@@ -1,16 +1,20 @@
 package com.example.courseservice.service;
 
+import com.example.courseservice.dto.CourseChangeFeed;
 import com.example.courseservice.dto.CourseRequest;
 import com.example.courseservice.dto.CourseResponse;
 
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 public interface CourseService {
     List<CourseResponse> getAllCourses();
     CourseResponse getCourseById(Long id);
     List<CourseResponse> getCoursesByIds(Set<Long> courseIds);
+    void exportCourses(Consumer<CourseResponse> sink);
     CourseResponse createCourse(CourseRequest courseRequest);
     CourseResponse updateCourse(Long id, CourseRequest courseRequest);
     void deleteCourse(Long id);
+    CourseChangeFeed getChanges(String epoch, long since);
 }
\ No newline at end of file
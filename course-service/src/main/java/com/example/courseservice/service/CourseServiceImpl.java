@@ -1,27 +1,41 @@
 package com.example.courseservice.service;
 
+import com.example.courseservice.dto.CourseChangeEvent;
+import com.example.courseservice.dto.CourseChangeFeed;
 import com.example.courseservice.dto.CourseRequest;
 import com.example.courseservice.dto.CourseResponse;
 import com.example.courseservice.exception.ResourceNotFoundException;
+import com.example.courseservice.mapper.CourseMapper;
 import com.example.courseservice.model.Course;
 import com.example.courseservice.repository.CourseRepository;
-import org.modelmapper.ModelMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class CourseServiceImpl implements CourseService {
 
     private final CourseRepository courseRepository;
-    private final ModelMapper modelMapper;
+    private final CourseMapper courseMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CourseChangeLog changeLog;
+    private final EntityManager entityManager;
 
-    public CourseServiceImpl(CourseRepository courseRepository, ModelMapper modelMapper) {
+    public CourseServiceImpl(CourseRepository courseRepository, CourseMapper courseMapper,
+                             ApplicationEventPublisher eventPublisher, CourseChangeLog changeLog,
+                             EntityManager entityManager) {
         this.courseRepository = courseRepository;
-        this.modelMapper = modelMapper;
+        this.courseMapper = courseMapper;
+        this.eventPublisher = eventPublisher;
+        this.changeLog = changeLog;
+        this.entityManager = entityManager;
     }
 
     @Override
@@ -29,7 +43,7 @@ public class CourseServiceImpl implements CourseService {
     public List<CourseResponse> getAllCourses() {
         List<Course> courses = courseRepository.findAll();
         return courses.stream()
-                .map(course -> modelMapper.map(course, CourseResponse.class))
+                .map(course -> courseMapper.toResponse(course))
                 .collect(Collectors.toList());
     }
 
@@ -38,7 +52,7 @@ public class CourseServiceImpl implements CourseService {
     public CourseResponse getCourseById(Long id) {
         Course course = courseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
-        return modelMapper.map(course, CourseResponse.class);
+        return courseMapper.toResponse(course);
     }
 
     @Override
@@ -49,16 +63,32 @@ public class CourseServiceImpl implements CourseService {
         }
         List<Course> courses = courseRepository.findAllById(courseIds);
         return courses.stream()
-                .map(course -> modelMapper.map(course, CourseResponse.class))
+                .map(course -> courseMapper.toResponse(course))
                 .collect(Collectors.toList());
     }
 
+    // Hands the catalog to the sink one course at a time, in id order. Each entity is detached once it
+    // is mapped, so the persistence context stays empty and memory does not grow with the catalog.
+    @Override
+    @Transactional(readOnly = true)
+    public void exportCourses(Consumer<CourseResponse> sink) {
+        try (Stream<Course> courses = courseRepository.streamAll()) {
+            courses.forEach(course -> {
+                CourseResponse response = courseMapper.toResponse(course);
+                entityManager.detach(course);
+                sink.accept(response);
+            });
+        }
+    }
+
     @Override
     @Transactional
     public CourseResponse createCourse(CourseRequest courseRequest) {
-        Course course = modelMapper.map(courseRequest, Course.class);
+        Course course = courseMapper.toEntity(courseRequest);
         Course savedCourse = courseRepository.save(course);
-        return modelMapper.map(savedCourse, CourseResponse.class);
+        CourseResponse response = courseMapper.toResponse(savedCourse);
+        eventPublisher.publishEvent(new CourseChangedEvent(CourseChangeEvent.Type.CREATED, savedCourse.getId(), response));
+        return response;
     }
 
     @Override
@@ -67,12 +97,13 @@ public class CourseServiceImpl implements CourseService {
         Course existingCourse = courseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
 
-
-        modelMapper.map(courseRequest, existingCourse);
-        existingCourse.setId(id); // Ensure the ID remains the same for the update
+        // The mapper never writes the id, so the update cannot change it
+        courseMapper.updateEntity(courseRequest, existingCourse);
 
         Course updatedCourse = courseRepository.save(existingCourse);
-        return modelMapper.map(updatedCourse, CourseResponse.class);
+        CourseResponse response = courseMapper.toResponse(updatedCourse);
+        eventPublisher.publishEvent(new CourseChangedEvent(CourseChangeEvent.Type.UPDATED, id, response));
+        return response;
     }
 
     @Override
@@ -82,5 +113,28 @@ public class CourseServiceImpl implements CourseService {
             throw new ResourceNotFoundException("Course not found with id: " + id);
         }
         courseRepository.deleteById(id);
+        eventPublisher.publishEvent(new CourseChangedEvent(CourseChangeEvent.Type.DELETED, id, null));
+    }
+
+    // Not transactional on purpose: it is also called from the change log's wake-up callback,
+    // and only the snapshot branch touches the database (findAll runs in its own transaction).
+    @Override
+    public CourseChangeFeed getChanges(String epoch, long since) {
+        if (changeLog.getEpoch().equals(epoch)) {
+            List<CourseChangeEvent> events = changeLog.eventsSince(since);
+            if (events != null) {
+                long version = events.isEmpty() ? since : events.get(events.size() - 1).getVersion();
+                return new CourseChangeFeed(epoch, version, false, events);
+            }
+        }
+
+        // Unknown epoch or a gap in the retained events: send the whole catalog. The version is read
+        // before the courses, so changes committed in between are replayed on the next poll.
+        long version = changeLog.getVersion();
+        List<CourseChangeEvent> snapshot = courseRepository.findAll().stream()
+                .map(course -> new CourseChangeEvent(version, CourseChangeEvent.Type.CREATED, course.getId(),
+                        courseMapper.toResponse(course)))
+                .collect(Collectors.toList());
+        return new CourseChangeFeed(changeLog.getEpoch(), version, true, snapshot);
     }
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.example.courseservice.controller;
+
+import com.example.courseservice.dto.CourseResponse;
+import com.example.courseservice.dto.CourseValidationRequest;
+import com.example.courseservice.model.Course;
+import com.example.courseservice.repository.CourseRepository;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Compression is done by the embedded Tomcat, so these requests go over a real socket
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class CourseCompressionIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final CBORMapper cborMapper = new CBORMapper();
+
+    @BeforeEach
+    void setUp() {
+        courseRepository.deleteAll();
+    }
+
+    @Test
+    void getCoursesByIds_shouldGzipCborResponse_aboveThreshold() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            ids.add(courseRepository.save(new Course(null, "Course " + i, "A description long enough to matter, number " + i)).getId());
+        }
+
+        HttpResponse<byte[]> response = postByIds(ids);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).contains("gzip");
+        try (GZIPInputStream body = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            assertThat(cborMapper.readValue(body, CourseResponse[].class)).hasSize(100);
+        }
+    }
+
+    @Test
+    void getCoursesByIds_shouldNotCompressSmallResponse() throws Exception {
+        Long id = courseRepository.save(new Course(null, "Small", "Below the compression threshold.")).getId();
+
+        HttpResponse<byte[]> response = postByIds(List.of(id));
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).isEmpty();
+        assertThat(cborMapper.readValue(response.body(), CourseResponse[].class)).hasSize(1);
+    }
+
+    private HttpResponse<byte[]> postByIds(List<Long> ids) throws IOException, InterruptedException {
+        byte[] body = cborMapper.writeValueAsBytes(new CourseValidationRequest(new HashSet<>(ids)));
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/courses/byIds"))
+                .header("Content-Type", "application/cbor")
+                .header("Accept", "application/cbor")
+                .header("Accept-Encoding", "gzip")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
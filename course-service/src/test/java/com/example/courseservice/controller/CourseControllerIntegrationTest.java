@@ -1,9 +1,13 @@
 package com.example.courseservice.controller;
 
 import com.example.courseservice.dto.CourseRequest;
+import com.example.courseservice.dto.CourseResponse;
+import com.example.courseservice.dto.CourseValidationRequest;
 import com.example.courseservice.model.Course;
 import com.example.courseservice.repository.CourseRepository;
+import com.example.courseservice.service.CourseChangeLog;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,8 +16,14 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -31,6 +41,9 @@ public class CourseControllerIntegrationTest {
     @Autowired
     private CourseRepository courseRepository;
 
+    @Autowired
+    private CourseChangeLog changeLog;
+
     @BeforeEach
     void setUp() {
         // Ensure a clean state before each test method
@@ -101,6 +114,119 @@ public class CourseControllerIntegrationTest {
                 .andExpect(jsonPath("$.message").value("Course not found with id: " + nonExistentId));
     }
 
+    @Test
+    void getCourseById_shouldReturnNotModified_untilCourseChanges() throws Exception {
+        Course savedCourse = courseRepository.save(new Course(null, "HTTP Caching", "Validators and conditional requests."));
+
+        String etag = mockMvc.perform(get("/api/courses/{id}", savedCourse.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).startsWith("\"");
+
+        mockMvc.perform(get("/api/courses/{id}", savedCourse.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        CourseRequest courseRequest = new CourseRequest("HTTP Caching", "Validators, revalidation and 304s.");
+        mockMvc.perform(put("/api/courses/{id}", savedCourse.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(courseRequest)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/courses/{id}", savedCourse.getId()).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)))
+                .andExpect(jsonPath("$.description").value("Validators, revalidation and 304s."));
+    }
+
+    @Test
+    void getCourseById_shouldNotAnswerNotModified_afterChangeMadeBehindTheService() throws Exception {
+        Course savedCourse = courseRepository.save(new Course(null, "Shared Course", "Also changed by other instances."));
+        String etag = mockMvc.perform(get("/api/courses/{id}", savedCourse.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Written without going through this instance, as another instance would
+        courseRepository.save(new Course(savedCourse.getId(), "Shared Course", "Changed elsewhere."));
+        mockMvc.perform(get("/api/courses/{id}", savedCourse.getId()).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("Changed elsewhere."));
+
+        courseRepository.deleteById(savedCourse.getId());
+        mockMvc.perform(get("/api/courses/{id}", savedCourse.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getAllCourses_shouldReturnNotModified_untilCatalogChanges() throws Exception {
+        courseRepository.save(new Course(null, "Catalog Course", "Part of the cached catalog."));
+
+        String etag = mockMvc.perform(get("/api/courses"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/courses").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        CourseRequest courseRequest = new CourseRequest("Another Course", "Added through the API.");
+        mockMvc.perform(post("/api/courses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(courseRequest)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/courses").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void exportCourses_shouldStreamOneCoursePerLine_inIdOrder() throws Exception {
+        Course first = courseRepository.save(new Course(null, "Export One", "First line."));
+        Course second = courseRepository.save(new Course(null, "Export Two", "Second line."));
+
+        MvcResult result = mockMvc.perform(get("/api/courses/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+
+        String body = result.getResponse().getContentAsString();
+        assertThat(body).endsWith("\n");
+        List<CourseResponse> courses = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            courses.add(objectMapper.readValue(line, CourseResponse.class));
+        }
+        assertThat(courses).containsExactly(
+                new CourseResponse(first.getId(), "Export One", "First line."),
+                new CourseResponse(second.getId(), "Export Two", "Second line."));
+    }
+
+    @Test
+    void getCoursesByIds_shouldNegotiateCbor_andStillServeJson() throws Exception {
+        Course saved = courseRepository.save(new Course(null, "Binary Formats", "CBOR on the wire."));
+        courseRepository.save(new Course(null, "Not Requested", "Left out of the lookup."));
+        CBORMapper cborMapper = new CBORMapper();
+        byte[] body = cborMapper.writeValueAsBytes(new CourseValidationRequest(Set.of(saved.getId(), 999L)));
+
+        MvcResult result = mockMvc.perform(post("/api/courses/byIds")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR, MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+        CourseResponse[] courses = cborMapper.readValue(result.getResponse().getContentAsByteArray(), CourseResponse[].class);
+        assertThat(courses).containsExactly(new CourseResponse(saved.getId(), "Binary Formats", "CBOR on the wire."));
+
+        mockMvc.perform(post("/api/courses/byIds")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CourseValidationRequest(Set.of(saved.getId())))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].title").value("Binary Formats"));
+    }
+
     @Test
     void updateCourse_shouldReturnUpdatedCourse_whenExists() throws Exception {
         Course course = new Course(null, "Old Title", "Old Description with enough length.");
@@ -151,4 +277,60 @@ public class CourseControllerIntegrationTest {
                 .andExpect(jsonPath("$.errorCode").value("NOT_FOUND"))
                 .andExpect(jsonPath("$.message").value("Course not found with id: " + nonExistentId));
     }
+
+    @Test
+    void getChanges_shouldReturnSnapshotThenCommittedChanges() throws Exception {
+        Course existing = courseRepository.save(new Course(null, "Existing Course", "Already in the catalog."));
+
+        // Unknown epoch: the subscriber gets a snapshot of the whole catalog
+        MvcResult snapshot = mockMvc.perform(get("/api/courses/changes").param("since", "0"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(snapshot))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.snapshot").value(true))
+                .andExpect(jsonPath("$.epoch").value(changeLog.getEpoch()))
+                .andExpect(jsonPath("$.events[0].courseId").value(existing.getId()));
+
+        long version = changeLog.getVersion();
+        CourseRequest courseRequest = new CourseRequest("Feed Course", "Published through the change feed.");
+        mockMvc.perform(post("/api/courses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(courseRequest)))
+                .andExpect(status().isCreated());
+
+        MvcResult changes = mockMvc.perform(get("/api/courses/changes")
+                        .param("epoch", changeLog.getEpoch())
+                        .param("since", String.valueOf(version)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(changes))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.snapshot").value(false))
+                .andExpect(jsonPath("$.version").value(version + 1))
+                .andExpect(jsonPath("$.events.length()").value(1))
+                .andExpect(jsonPath("$.events[0].type").value("CREATED"))
+                .andExpect(jsonPath("$.events[0].course.title").value("Feed Course"));
+    }
+
+    @Test
+    void getChanges_shouldWaitForNextChange_whenLongPolling() throws Exception {
+        long version = changeLog.getVersion();
+
+        MvcResult pending = mockMvc.perform(get("/api/courses/changes")
+                        .param("epoch", changeLog.getEpoch())
+                        .param("since", String.valueOf(version))
+                        .param("waitMs", "5000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        Course course = courseRepository.save(new Course(null, "Long Poll Course", "Arrives while waiting."));
+        mockMvc.perform(delete("/api/courses/{id}", course.getId()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events[0].type").value("DELETED"))
+                .andExpect(jsonPath("$.events[0].courseId").value(course.getId()));
+    }
 }
\ No newline at end of file
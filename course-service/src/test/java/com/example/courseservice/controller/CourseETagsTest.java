@@ -0,0 +1,26 @@
+package com.example.courseservice.controller;
+
+import com.example.courseservice.dto.CourseResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CourseETagsTest {
+
+    @Test
+    void etag_shouldDependOnlyOnContent() {
+        CourseResponse course = new CourseResponse(1L, "Course 1", "Description");
+
+        assertThat(CourseETags.of(course))
+                .isEqualTo(CourseETags.of(new CourseResponse(1L, "Course 1", "Description")))
+                .isNotEqualTo(CourseETags.of(new CourseResponse(1L, "Course 1", "Other description")))
+                .matches("\"[0-9a-f]{32}\"");
+        // The field boundaries are part of the hash
+        assertThat(CourseETags.of(new CourseResponse(1L, "ab", "c")))
+                .isNotEqualTo(CourseETags.of(new CourseResponse(1L, "a", "bc")));
+        assertThat(CourseETags.of(List.of(course, new CourseResponse(2L, "Course 2", null))))
+                .isNotEqualTo(CourseETags.of(List.of(new CourseResponse(2L, "Course 2", null), course)));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.courseservice.dataset;
+
+import com.example.courseservice.model.Course;
+import com.example.courseservice.repository.CourseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Loads a generated catalog into the in-memory database and checks the application can keep using it
+@SpringBootTest
+public class CourseDatasetGeneratorIntegrationTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        courseRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void generate_shouldInsertUniqueValidCoursesInBatches() {
+        CourseDatasetProperties spec = new CourseDatasetProperties();
+        spec.setCourses(2_500);
+        spec.setBatchSize(1_000);
+
+        List<Long> ids = new CourseDatasetGenerator(dataSource).generate(spec);
+
+        assertThat(ids).hasSize(2_500).isSorted().doesNotHaveDuplicates();
+        List<Course> courses = courseRepository.findAll();
+        assertThat(courses).hasSize(2_500);
+        assertThat(courses).extracting(Course::getTitle).doesNotHaveDuplicates()
+                .allSatisfy(title -> assertThat(title.length()).isBetween(3, 100));
+        // Same limits as CourseRequest, so generated courses can be updated through the API
+        assertThat(courses).extracting(Course::getDescription)
+                .allSatisfy(description -> assertThat(description.length()).isBetween(10, 500));
+    }
+
+    @Test
+    void generate_shouldAppendAfterExistingCourses() {
+        Long existing = courseRepository.save(new Course(null, "Existing course", "Created by the application")).getId();
+        CourseDatasetProperties spec = new CourseDatasetProperties();
+        spec.setCourses(10);
+
+        List<Long> ids = new CourseDatasetGenerator(dataSource).generate(spec);
+        Long created = courseRepository.save(new Course(null, "Created afterwards", "Created by the application")).getId();
+
+        assertThat(ids).hasSize(10).allSatisfy(id -> assertThat(id).isGreaterThan(existing));
+        assertThat(created).isGreaterThan(ids.get(ids.size() - 1));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.courseservice.mapper;
+
+import com.example.courseservice.dto.CourseRequest;
+import com.example.courseservice.dto.CourseResponse;
+import com.example.courseservice.model.Course;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The generated mapper must produce what ModelMapper produced before it
+class CourseMapperTest {
+
+    private final CourseMapper courseMapper = new CourseMapperImpl();
+    private final ModelMapper modelMapper = new ModelMapper();
+
+    @Test
+    void toResponse_shouldMatchModelMapper() {
+        Course course = new Course(1L, "Math", "Calculus");
+
+        assertThat(courseMapper.toResponse(course))
+                .isEqualTo(modelMapper.map(course, CourseResponse.class))
+                .isEqualTo(new CourseResponse(1L, "Math", "Calculus"));
+    }
+
+    @Test
+    void toEntity_shouldMatchModelMapperAndLeaveIdUnset() {
+        CourseRequest request = new CourseRequest("Art", "Drawing basics");
+
+        Course course = courseMapper.toEntity(request);
+
+        assertThat(course).isEqualTo(modelMapper.map(request, Course.class));
+        assertThat(course.getId()).isNull();
+    }
+
+    @Test
+    void updateEntity_shouldCopyFieldsAndKeepId() {
+        Course course = new Course(5L, "Old Title", "Old Description");
+        Course expected = new Course(5L, "Old Title", "Old Description");
+        CourseRequest request = new CourseRequest("Updated Course", "Updated description");
+
+        courseMapper.updateEntity(request, course);
+        modelMapper.map(request, expected);
+
+        assertThat(course).isEqualTo(expected).isEqualTo(new Course(5L, "Updated Course", "Updated description"));
+    }
+}
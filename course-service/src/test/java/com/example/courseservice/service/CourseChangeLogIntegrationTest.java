@@ -0,0 +1,131 @@
+package com.example.courseservice.service;
+
+import com.example.courseservice.dto.CourseChangeEvent;
+import com.example.courseservice.dto.CourseRequest;
+import com.example.courseservice.dto.CourseResponse;
+import com.example.courseservice.repository.CourseChangeCounterRepository;
+import com.example.courseservice.repository.CourseChangeRepository;
+import com.example.courseservice.repository.CourseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "course-service.change-log.retention=2",
+        "course-service.change-log.watch-interval-ms=50"
+})
+@ActiveProfiles("test")
+class CourseChangeLogIntegrationTest {
+
+    @Autowired
+    private CourseChangeLog changeLog;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private CourseChangeRepository changeRepository;
+
+    @Autowired
+    private CourseChangeCounterRepository counterRepository;
+
+    @BeforeEach
+    void setUp() {
+        courseRepository.deleteAll();
+    }
+
+    @Test
+    void eventsSince_shouldReturnCommittedChangesInOrder() {
+        long start = changeLog.getVersion();
+        CourseResponse first = create("Course 1");
+        create("Course 2");
+        courseService.deleteCourse(first.getId());
+
+        List<CourseChangeEvent> events = changeLog.eventsSince(start + 1);
+
+        assertThat(changeLog.getVersion()).isEqualTo(start + 3);
+        assertThat(events).extracting(CourseChangeEvent::getVersion).containsExactly(start + 2, start + 3);
+        assertThat(events.get(0).getCourse().getTitle()).isEqualTo("Course 2");
+        assertThat(events.get(1).getType()).isEqualTo(CourseChangeEvent.Type.DELETED);
+        assertThat(events.get(1).getCourse()).isNull();
+        assertThat(changeLog.eventsSince(start + 3)).isEmpty();
+    }
+
+    @Test
+    void eventsSince_shouldRequireSnapshot_whenChangesWereDropped() {
+        long start = changeLog.getVersion();
+        create("Course 1");
+        CourseResponse second = create("Course 2");
+        CourseResponse third = create("Course 3");
+
+        assertThat(changeLog.eventsSince(start)).isNull();
+        assertThat(changeLog.eventsSince(start + 1)).extracting(CourseChangeEvent::getCourseId)
+                .containsExactly(second.getId(), third.getId());
+        assertThat(changeLog.eventsSince(start + 7)).isNull();
+    }
+
+    @Test
+    void awaitChangeAfter_shouldCompleteOnNextCommittedChange() {
+        long start = changeLog.getVersion();
+
+        CompletableFuture<Long> pending = changeLog.awaitChangeAfter(start);
+        assertThat(pending).isNotDone();
+
+        create("Course 1");
+
+        assertThat(pending).isCompletedWithValue(start + 1);
+        assertThat(changeLog.awaitChangeAfter(start)).isCompletedWithValue(start + 1);
+    }
+
+    @Test
+    void awaitChangeAfter_shouldForgetWaiters_thatCompleteOrAreCancelled() {
+        long start = changeLog.getVersion();
+        CompletableFuture<Long> abandoned = changeLog.awaitChangeAfter(start);
+        CompletableFuture<Long> woken = changeLog.awaitChangeAfter(start);
+        assertThat(changeLog.waiterCount()).isEqualTo(2);
+
+        abandoned.cancel(false);
+        assertThat(changeLog.waiterCount()).isEqualTo(1);
+
+        create("Course 1");
+        assertThat(woken).isCompletedWithValue(start + 1);
+        assertThat(changeLog.waiterCount()).isZero();
+        assertThat(changeLog.awaitChangeAfter(start)).isCompletedWithValue(start + 1);
+        assertThat(changeLog.waiterCount()).isZero();
+    }
+
+    @Test
+    void otherInstance_shouldServeAndBeWokenByChangesMadeThroughThisOne() throws Exception {
+        // A second instance's log over the same database
+        CourseChangeLog other = new CourseChangeLog(changeRepository, counterRepository, 2, 50);
+        other.start();
+        try {
+            long start = other.getVersion();
+            assertThat(other.getEpoch()).isEqualTo(changeLog.getEpoch());
+            CompletableFuture<Long> pending = other.awaitChangeAfter(start);
+
+            create("Course 1");
+
+            assertThat(pending.get(5, TimeUnit.SECONDS)).isEqualTo(start + 1);
+            assertThat(other.eventsSince(start)).singleElement()
+                    .satisfies(event -> assertThat(event.getCourse().getTitle()).isEqualTo("Course 1"));
+        } finally {
+            other.stop();
+        }
+    }
+
+    private CourseResponse create(String title) {
+        return courseService.createCourse(new CourseRequest(title, "Description of " + title));
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.courseservice.service;
 
+import com.example.courseservice.dto.CourseChangeEvent;
+import com.example.courseservice.dto.CourseChangeFeed;
 import com.example.courseservice.dto.CourseRequest;
 import com.example.courseservice.dto.CourseResponse;
 import com.example.courseservice.exception.ResourceNotFoundException;
+import com.example.courseservice.mapper.CourseMapper;
 import com.example.courseservice.model.Course;
 import com.example.courseservice.repository.CourseRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach; // Keep BeforeEach for potential shared setup if any
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,13 +16,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -33,14 +40,23 @@ class CourseServiceImplTest {
     private CourseRepository courseRepository;
 
     @Mock
-    private ModelMapper modelMapper; // Still mock ModelMapper
+    private CourseMapper courseMapper;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CourseChangeLog changeLog;
+
+    @Mock
+    private EntityManager entityManager;
 
     @InjectMocks
     private CourseServiceImpl courseService;
 
-    // No general ModelMapper stubbing in @BeforeEach anymore,
+    // No general CourseMapper stubbing in @BeforeEach anymore,
     // as it caused UnnecessaryStubbingException.
-    // Each test will now stub ModelMapper as needed.
+    // Each test will now stub CourseMapper as needed.
     @BeforeEach
     void setUp() {
         // Any other shared setup that doesn't involve stubbing
@@ -60,9 +76,9 @@ class CourseServiceImplTest {
         CourseResponse response2 = new CourseResponse(2L, "Physics", "Mechanics");
 
         when(courseRepository.findAll()).thenReturn(courses);
-        // Moved ModelMapper stubbing here, as it's used only by this test
-        when(modelMapper.map(course1, CourseResponse.class)).thenReturn(response1);
-        when(modelMapper.map(course2, CourseResponse.class)).thenReturn(response2);
+        // Moved CourseMapper stubbing here, as it's used only by this test
+        when(courseMapper.toResponse(course1)).thenReturn(response1);
+        when(courseMapper.toResponse(course2)).thenReturn(response2);
 
 
         // Act
@@ -73,8 +89,8 @@ class CourseServiceImplTest {
         assertThat(actualCourses).hasSize(2);
         assertThat(actualCourses).containsExactlyInAnyOrder(response1, response2);
         verify(courseRepository, times(1)).findAll();
-        verify(modelMapper, times(1)).map(course1, CourseResponse.class);
-        verify(modelMapper, times(1)).map(course2, CourseResponse.class);
+        verify(courseMapper, times(1)).toResponse(course1);
+        verify(courseMapper, times(1)).toResponse(course2);
     }
 
     @Test
@@ -89,7 +105,7 @@ class CourseServiceImplTest {
         // Assert
         assertThat(actualCourses).isEmpty();
         verify(courseRepository, times(1)).findAll();
-        verifyNoInteractions(modelMapper); // No mapping should occur if list is empty
+        verifyNoInteractions(courseMapper); // No mapping should occur if list is empty
     }
 
     @Test
@@ -101,8 +117,8 @@ class CourseServiceImplTest {
         CourseResponse expectedResponse = new CourseResponse(courseId, "History", "Ancient History");
 
         when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
-        // Moved ModelMapper stubbing here
-        when(modelMapper.map(course, CourseResponse.class)).thenReturn(expectedResponse);
+        // Moved CourseMapper stubbing here
+        when(courseMapper.toResponse(course)).thenReturn(expectedResponse);
 
         // Act
         CourseResponse actualCourse = courseService.getCourseById(courseId);
@@ -110,7 +126,7 @@ class CourseServiceImplTest {
         // Assert
         assertThat(actualCourse).isEqualTo(expectedResponse);
         verify(courseRepository, times(1)).findById(courseId);
-        verify(modelMapper, times(1)).map(course, CourseResponse.class);
+        verify(courseMapper, times(1)).toResponse(course);
     }
 
     @Test
@@ -126,7 +142,7 @@ class CourseServiceImplTest {
 
         assertThat(exception.getMessage()).isEqualTo("Course not found with id: " + courseId);
         verify(courseRepository, times(1)).findById(courseId);
-        verifyNoInteractions(modelMapper); // No mapping if course not found
+        verifyNoInteractions(courseMapper); // No mapping if course not found
     }
 
     @Test
@@ -142,9 +158,9 @@ class CourseServiceImplTest {
         CourseResponse response2 = new CourseResponse(2L, "Physics", "Mechanics");
 
         when(courseRepository.findAllById(courseIds)).thenReturn(courses);
-        // Moved ModelMapper stubbing here
-        when(modelMapper.map(course1, CourseResponse.class)).thenReturn(response1);
-        when(modelMapper.map(course2, CourseResponse.class)).thenReturn(response2);
+        // Moved CourseMapper stubbing here
+        when(courseMapper.toResponse(course1)).thenReturn(response1);
+        when(courseMapper.toResponse(course2)).thenReturn(response2);
 
         // Act
         List<CourseResponse> actualCourses = courseService.getCoursesByIds(courseIds);
@@ -154,8 +170,8 @@ class CourseServiceImplTest {
         assertThat(actualCourses).hasSize(2);
         assertThat(actualCourses).containsExactlyInAnyOrder(response1, response2);
         verify(courseRepository, times(1)).findAllById(courseIds);
-        verify(modelMapper, times(1)).map(course1, CourseResponse.class);
-        verify(modelMapper, times(1)).map(course2, CourseResponse.class);
+        verify(courseMapper, times(1)).toResponse(course1);
+        verify(courseMapper, times(1)).toResponse(course2);
     }
 
     @Test
@@ -171,7 +187,7 @@ class CourseServiceImplTest {
         // Assert
         assertThat(actualCourses).isEmpty();
         verify(courseRepository, times(1)).findAllById(courseIds);
-        verifyNoInteractions(modelMapper);
+        verifyNoInteractions(courseMapper);
     }
 
     @Test
@@ -186,7 +202,7 @@ class CourseServiceImplTest {
         // Assert
         assertThat(actualCourses).isEmpty();
         verifyNoInteractions(courseRepository);
-        verifyNoInteractions(modelMapper);
+        verifyNoInteractions(courseMapper);
     }
 
     @Test
@@ -198,7 +214,32 @@ class CourseServiceImplTest {
         // Assert
         assertThat(actualCourses).isEmpty();
         verifyNoInteractions(courseRepository);
-        verifyNoInteractions(modelMapper);
+        verifyNoInteractions(courseMapper);
+    }
+
+    @Test
+    @DisplayName("Should hand every course to the sink and detach it, then close the stream")
+    void exportCourses_shouldMapAndDetachEachCourse_andCloseStream() {
+        // Arrange
+        Course course1 = new Course(1L, "Math", "Calculus");
+        Course course2 = new Course(2L, "Physics", "Mechanics");
+        CourseResponse response1 = new CourseResponse(1L, "Math", "Calculus");
+        CourseResponse response2 = new CourseResponse(2L, "Physics", "Mechanics");
+        AtomicBoolean closed = new AtomicBoolean();
+
+        when(courseRepository.streamAll()).thenReturn(Stream.of(course1, course2).onClose(() -> closed.set(true)));
+        when(courseMapper.toResponse(course1)).thenReturn(response1);
+        when(courseMapper.toResponse(course2)).thenReturn(response2);
+
+        // Act
+        List<CourseResponse> exported = new ArrayList<>();
+        courseService.exportCourses(exported::add);
+
+        // Assert
+        assertThat(exported).containsExactly(response1, response2);
+        verify(entityManager).detach(course1);
+        verify(entityManager).detach(course2);
+        assertThat(closed).isTrue();
     }
 
     @Test
@@ -210,10 +251,10 @@ class CourseServiceImplTest {
         Course savedCourse = new Course(1L, "Art", "Drawing basics");
         CourseResponse expectedResponse = new CourseResponse(1L, "Art", "Drawing basics");
 
-        // Moved ModelMapper stubbing here
-        when(modelMapper.map(courseRequest, Course.class)).thenReturn(courseToSave);
+        // Moved CourseMapper stubbing here
+        when(courseMapper.toEntity(courseRequest)).thenReturn(courseToSave);
         when(courseRepository.save(any(Course.class))).thenReturn(savedCourse);
-        when(modelMapper.map(savedCourse, CourseResponse.class)).thenReturn(expectedResponse);
+        when(courseMapper.toResponse(savedCourse)).thenReturn(expectedResponse);
 
 
         // Act
@@ -221,9 +262,11 @@ class CourseServiceImplTest {
 
         // Assert
         assertThat(actualResponse).isEqualTo(expectedResponse);
-        verify(modelMapper, times(1)).map(courseRequest, Course.class);
+        verify(courseMapper, times(1)).toEntity(courseRequest);
         verify(courseRepository, times(1)).save(courseToSave);
-        verify(modelMapper, times(1)).map(savedCourse, CourseResponse.class);
+        verify(courseMapper, times(1)).toResponse(savedCourse);
+        verify(eventPublisher, times(1)).publishEvent(
+                new CourseChangedEvent(CourseChangeEvent.Type.CREATED, 1L, expectedResponse));
     }
 
     @Test
@@ -237,17 +280,17 @@ class CourseServiceImplTest {
         CourseResponse expectedResponse = new CourseResponse(courseId, "Updated Course", "Updated description");
 
         when(courseRepository.findById(courseId)).thenReturn(Optional.of(existingCourse));
-        // Moved ModelMapper stubbing here
+        // Moved CourseMapper stubbing here
         doAnswer(invocation -> {
             CourseRequest req = invocation.getArgument(0);
             Course existing = invocation.getArgument(1);
             existing.setTitle(req.getTitle());
             existing.setDescription(req.getDescription());
             return null;
-        }).when(modelMapper).map(courseRequest, existingCourse);
+        }).when(courseMapper).updateEntity(courseRequest, existingCourse);
 
         when(courseRepository.save(any(Course.class))).thenReturn(updatedCourseEntity);
-        when(modelMapper.map(updatedCourseEntity, CourseResponse.class)).thenReturn(expectedResponse);
+        when(courseMapper.toResponse(updatedCourseEntity)).thenReturn(expectedResponse);
 
 
         // Act
@@ -256,9 +299,11 @@ class CourseServiceImplTest {
         // Assert
         assertThat(actualResponse).isEqualTo(expectedResponse);
         verify(courseRepository, times(1)).findById(courseId);
-        verify(modelMapper, times(1)).map(courseRequest, existingCourse);
+        verify(courseMapper, times(1)).updateEntity(courseRequest, existingCourse);
         verify(courseRepository, times(1)).save(existingCourse);
-        verify(modelMapper, times(1)).map(updatedCourseEntity, CourseResponse.class);
+        verify(courseMapper, times(1)).toResponse(updatedCourseEntity);
+        verify(eventPublisher, times(1)).publishEvent(
+                new CourseChangedEvent(CourseChangeEvent.Type.UPDATED, courseId, expectedResponse));
     }
 
     @Test
@@ -276,7 +321,7 @@ class CourseServiceImplTest {
         assertThat(exception.getMessage()).isEqualTo("Course not found with id: " + courseId);
         verify(courseRepository, times(1)).findById(courseId);
         verifyNoMoreInteractions(courseRepository);
-        verifyNoInteractions(modelMapper);
+        verifyNoInteractions(courseMapper);
     }
 
     @Test
@@ -293,7 +338,9 @@ class CourseServiceImplTest {
         // Assert
         verify(courseRepository, times(1)).existsById(courseId);
         verify(courseRepository, times(1)).deleteById(courseId);
-        verifyNoInteractions(modelMapper); // No mapping is done in delete
+        verifyNoInteractions(courseMapper); // No mapping is done in delete
+        verify(eventPublisher, times(1)).publishEvent(
+                new CourseChangedEvent(CourseChangeEvent.Type.DELETED, courseId, null));
     }
 
     @Test
@@ -310,6 +357,47 @@ class CourseServiceImplTest {
         assertThat(exception.getMessage()).isEqualTo("Course not found with id: " + courseId);
         verify(courseRepository, times(1)).existsById(courseId);
         verifyNoMoreInteractions(courseRepository);
-        verifyNoInteractions(modelMapper);
+        verifyNoInteractions(courseMapper);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should return retained events when the subscriber's epoch matches")
+    void getChanges_shouldReturnEventsSinceVersion_whenEpochMatches() {
+        // Arrange
+        CourseChangeEvent event = new CourseChangeEvent(6L, CourseChangeEvent.Type.DELETED, 3L, null);
+        when(changeLog.getEpoch()).thenReturn("epoch-1");
+        when(changeLog.eventsSince(5L)).thenReturn(List.of(event));
+
+        // Act
+        CourseChangeFeed feed = courseService.getChanges("epoch-1", 5L);
+
+        // Assert
+        assertThat(feed.isSnapshot()).isFalse();
+        assertThat(feed.getVersion()).isEqualTo(6L);
+        assertThat(feed.getEvents()).containsExactly(event);
+        verifyNoInteractions(courseRepository);
+    }
+
+    @Test
+    @DisplayName("Should return a full snapshot when the subscriber's epoch is unknown")
+    void getChanges_shouldReturnSnapshot_whenEpochDiffers() {
+        // Arrange
+        Course course = new Course(1L, "Math", "Calculus");
+        CourseResponse response = new CourseResponse(1L, "Math", "Calculus");
+        when(changeLog.getEpoch()).thenReturn("epoch-2");
+        when(changeLog.getVersion()).thenReturn(42L);
+        when(courseRepository.findAll()).thenReturn(List.of(course));
+        when(courseMapper.toResponse(course)).thenReturn(response);
+
+        // Act
+        CourseChangeFeed feed = courseService.getChanges("epoch-1", 5L);
+
+        // Assert
+        assertThat(feed.isSnapshot()).isTrue();
+        assertThat(feed.getEpoch()).isEqualTo("epoch-2");
+        assertThat(feed.getVersion()).isEqualTo(42L);
+        assertThat(feed.getEvents()).containsExactly(
+                new CourseChangeEvent(42L, CourseChangeEvent.Type.CREATED, 1L, response));
     }
 }
\ No newline at end of file
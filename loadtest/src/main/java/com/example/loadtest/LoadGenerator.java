@@ -0,0 +1,138 @@
+package com.example.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator: requests are scheduled at a fixed rate whether or not earlier ones have
+ * completed, and each one runs on its own virtual thread.
+ * <p>
+ * Latency is measured from the moment a request was <em>scheduled</em>, not from when it was finally
+ * sent, so a stalled system shows up in the percentiles instead of silently lowering the offered load
+ * (the coordinated omission a closed-loop driver suffers from). Requests scheduled while
+ * {@code maxInFlight} are already outstanding are not sent and count as errors.
+ */
+public class LoadGenerator {
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Route.Target target;
+    private final Map<Route, Integer> mix;
+    private final int maxInFlight;
+
+    public LoadGenerator(String gatewayUrl, SeedData seedData, LoadTestOptions options) {
+        this.target = new Route.Target(gatewayUrl, seedData, options.timeout(), options.maxCoursesPerStudent());
+        this.mix = options.mix();
+        this.maxInFlight = options.maxInFlight();
+    }
+
+    public LoadReport run(double rate, Duration duration, long seed) {
+        Route[] routes = mix.keySet().toArray(Route[]::new);
+        int[] cumulativeWeights = new int[routes.length];
+        int totalWeight = 0;
+        for (int i = 0; i < routes.length; i++) {
+            totalWeight += mix.get(routes[i]);
+            cumulativeWeights[i] = totalWeight;
+        }
+        Map<Route, RouteRecorder> recorders = new EnumMap<>(Route.class);
+        for (Route route : routes) {
+            recorders.put(route, new RouteRecorder());
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        double intervalNanos = 1_000_000_000d / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long n = 0; ; n++) {
+                long scheduled = start + (long) (n * intervalNanos);
+                if (scheduled >= end) {
+                    break;
+                }
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                int pick = Arrays.binarySearch(cumulativeWeights, random.nextInt(totalWeight) + 1);
+                Route route = routes[pick >= 0 ? pick : -pick - 1];
+                RouteRecorder recorder = recorders.get(route);
+                if (!inFlight.tryAcquire()) {
+                    recorder.rejected();
+                    continue;
+                }
+                HttpRequest request = route.request(target, random).build();
+                requests.execute(() -> {
+                    boolean ok;
+                    try {
+                        ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() / 100 == 2;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        ok = false;
+                    } catch (Exception e) {
+                        ok = false;
+                    } finally {
+                        inFlight.release();
+                    }
+                    recorder.record(System.nanoTime() - scheduled, ok);
+                });
+            }
+        }
+        // Closing the executor waited for the stragglers; throughput counts the whole wall time
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000d;
+        return LoadReport.of(rate, elapsedSeconds, recorders);
+    }
+
+    /**
+     * Latency samples (nanoseconds) and error counts of one route.
+     */
+    static class RouteRecorder {
+        private long[] samples = new long[1024];
+        private int count;
+        private long errors;
+        private long rejected;
+
+        synchronized void record(long latencyNanos, boolean ok) {
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = latencyNanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        synchronized void rejected() {
+            rejected++;
+        }
+
+        synchronized long[] sortedSamples() {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        // Failed responses plus requests never sent because too many were outstanding
+        synchronized long errors() {
+            return errors + rejected;
+        }
+
+        synchronized long requests() {
+            return count + rejected;
+        }
+    }
+}
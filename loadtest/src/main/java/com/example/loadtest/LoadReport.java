@@ -0,0 +1,66 @@
+package com.example.loadtest;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of one {@link LoadGenerator} run: per route and in total, the number of requests,
+ * achieved throughput (requests completed per second), latency percentiles in milliseconds and the
+ * error rate (non-2xx answers, failures and requests not sent, over all requests).
+ */
+public record LoadReport(double offeredRate, double elapsedSeconds, List<RouteResult> routes, RouteResult total) {
+
+    public record RouteResult(String route, long requests, long errors, double throughput, double errorRate,
+                              double p50Millis, double p99Millis, double p999Millis) {
+    }
+
+    static LoadReport of(double offeredRate, double elapsedSeconds, Map<Route, LoadGenerator.RouteRecorder> recorders) {
+        List<RouteResult> routes = new ArrayList<>();
+        List<long[]> allSamples = new ArrayList<>();
+        long totalRequests = 0;
+        long totalErrors = 0;
+        for (Map.Entry<Route, LoadGenerator.RouteRecorder> entry : recorders.entrySet()) {
+            LoadGenerator.RouteRecorder recorder = entry.getValue();
+            long[] samples = recorder.sortedSamples();
+            routes.add(result(entry.getKey().label(), recorder.requests(), recorder.errors(), samples, elapsedSeconds));
+            allSamples.add(samples);
+            totalRequests += recorder.requests();
+            totalErrors += recorder.errors();
+        }
+        long[] merged = allSamples.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new LoadReport(offeredRate, elapsedSeconds, routes,
+                result("total", totalRequests, totalErrors, merged, elapsedSeconds));
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%nOffered %.1f req/s for %.1f s%n", offeredRate, elapsedSeconds);
+        out.printf("%-36s %9s %10s %9s %9s %9s %9s%n", "route", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "errors");
+        for (RouteResult result : routes) {
+            print(out, result);
+        }
+        print(out, total);
+    }
+
+    private static void print(PrintStream out, RouteResult result) {
+        out.printf("%-36s %9d %10.1f %9.1f %9.1f %9.1f %8.2f%%%n", result.route, result.requests, result.throughput,
+                result.p50Millis, result.p99Millis, result.p999Millis, result.errorRate * 100);
+    }
+
+    private static RouteResult result(String route, long requests, long errors, long[] sortedSamples, double elapsedSeconds) {
+        return new RouteResult(route, requests, errors,
+                sortedSamples.length / elapsedSeconds,
+                requests == 0 ? 0 : errors / (double) requests,
+                percentile(sortedSamples, 0.50), percentile(sortedSamples, 0.99), percentile(sortedSamples, 0.999));
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
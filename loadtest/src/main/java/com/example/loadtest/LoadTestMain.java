@@ -0,0 +1,37 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Starts the {@link LocalCluster}, seeds it, sends a warm-up phase and then the measured phase
+ * through the gateway, prints the per-route report and writes it as JSON (see {@link LoadTestOptions}
+ * for the command line).
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws IOException {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        try (LocalCluster cluster = new LocalCluster()) {
+            SeedData seedData = cluster.seed(options.courses(), options.students(), options.maxCoursesPerStudent(),
+                    options.zipfExponent(), options.seed());
+            LoadGenerator generator = new LoadGenerator(cluster.gatewayUrl(), seedData, options);
+
+            if (!options.warmup().isZero()) {
+                System.out.printf("Warming up for %d s at %.1f req/s...%n", options.warmup().toSeconds(), options.rate());
+                generator.run(options.rate(), options.warmup(), options.seed() + 1);
+                cluster.resetCircuitBreakers();
+            }
+            System.out.printf("Measuring for %d s at %.1f req/s...%n", options.duration().toSeconds(), options.rate());
+            LoadReport report = generator.run(options.rate(), options.duration(), options.seed());
+
+            report.print(System.out);
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File(options.report()), report);
+            System.out.println("\nReport written to " + options.report());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.loadtest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command line of {@link LoadTestMain}, as {@code --name=value} pairs:
+ * <ul>
+ *     <li>{@code --rate}: requests per second offered to the gateway, default 200</li>
+ *     <li>{@code --duration}: measured seconds, default 30; {@code --warmup}: seconds sent first and
+ *     not reported, default 10</li>
+ *     <li>{@code --mix}: relative weights per route, default
+ *     {@code get-student=50,list-students=10,create-student=10,update-student=10,get-course=15,list-courses=5}
+ *     (see {@link Route} for the names)</li>
+ *     <li>{@code --courses} / {@code --students}: rows seeded before the run, default 100 / 1000;
+ *     {@code --max-courses-per-student}, default 5; {@code --zipf-exponent}, skew of course popularity
+ *     in the seeded enrollments, default 1.0</li>
+ *     <li>{@code --max-in-flight}: requests outstanding before new ones are counted as errors instead
+ *     of sent, default 2000; {@code --timeout}: per-request seconds, default 10</li>
+ *     <li>{@code --report}: JSON report file, default {@code loadtest-report-<timestamp>.json}</li>
+ *     <li>{@code --seed}: random seed for the data and the request sequence, default 42</li>
+ * </ul>
+ */
+public record LoadTestOptions(double rate, Duration duration, Duration warmup, Map<Route, Integer> mix,
+                              int courses, int students, int maxCoursesPerStudent, double zipfExponent, int maxInFlight,
+                              Duration timeout, String report, long seed) {
+
+    static final String DEFAULT_MIX = "get-student=50,list-students=10,create-student=10,update-student=10,get-course=15,list-courses=5";
+
+    private static final Set<String> NAMES = Set.of("rate", "duration", "warmup", "mix", "courses", "students",
+            "max-courses-per-student", "zipf-exponent", "max-in-flight", "timeout", "report", "seed");
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    public static LoadTestOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0 || !NAMES.contains(arg.substring(2, equals))) {
+                throw new IllegalArgumentException("Unknown option '" + arg + "'. Options are --<name>=<value> with name one of " + NAMES + ".");
+            }
+            values.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                Double.parseDouble(values.getOrDefault("rate", "200")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "30"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "10"))),
+                parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+                Integer.parseInt(values.getOrDefault("courses", "100")),
+                Integer.parseInt(values.getOrDefault("students", "1000")),
+                Integer.parseInt(values.getOrDefault("max-courses-per-student", "5")),
+                Double.parseDouble(values.getOrDefault("zipf-exponent", "1.0")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "2000")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("timeout", "10"))),
+                values.getOrDefault("report", "loadtest-report-" + LocalDateTime.now().format(TIMESTAMP) + ".json"),
+                Long.parseLong(values.getOrDefault("seed", "42")));
+        if (options.rate <= 0 || options.duration.isNegative() || options.duration.isZero() || options.maxInFlight <= 0) {
+            throw new IllegalArgumentException("--rate, --duration and --max-in-flight must be positive.");
+        }
+        if (options.courses <= 0 || options.students <= 0) {
+            throw new IllegalArgumentException("--courses and --students must be positive.");
+        }
+        return options;
+    }
+
+    // "get-student=60,create-student=40" -> {GET_STUDENT=60, CREATE_STUDENT=40}
+    static Map<Route, Integer> parseMix(String mix) {
+        Map<Route, Integer> weights = new EnumMap<>(Route.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Malformed mix entry '" + entry + "'. Expected <route>=<weight>.");
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight of " + parts[0].trim() + " must not be negative.");
+            }
+            if (weight > 0) {
+                weights.put(Route.fromKey(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The mix must give at least one route a positive weight.");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.loadtest;
+
+import com.example.apigateway.ApiGatewayApplication;
+import com.example.courseservice.CourseServiceApplication;
+import com.example.courseservice.dataset.CourseDatasetGenerator;
+import com.example.courseservice.dataset.CourseDatasetProperties;
+import com.example.studentservice.StudentServiceApplication;
+import com.example.studentservice.dataset.StudentDataset;
+import com.example.studentservice.dataset.StudentDatasetGenerator;
+import com.example.studentservice.dataset.StudentDatasetProperties;
+import com.example.studentservice.service.EnrollmentIndex;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Course Service, Student Service and the API Gateway started in this JVM, each in its own
+ * application context on a random port.
+ * <p>
+ * Eureka and the config server are left out: every context reads {@code loadtest-common.properties}
+ * plus its own {@code loadtest-<name>.properties} (the gateway routes included), and the services find
+ * each other through static {@code spring.cloud.discovery.client.simple} entries pointing at the ports
+ * actually bound. Both services use their own in-memory H2 database.
+ */
+public class LocalCluster implements AutoCloseable {
+
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+    private final ConfigurableApplicationContext courseService;
+    private final ConfigurableApplicationContext studentService;
+    private final ConfigurableApplicationContext gateway;
+
+    public LocalCluster() {
+        try {
+            courseService = start(new SpringApplicationBuilder(CourseServiceApplication.class)
+                    .web(WebApplicationType.SERVLET), "loadtest-course");
+            studentService = start(new SpringApplicationBuilder(StudentServiceApplication.class)
+                    .web(WebApplicationType.SERVLET), "application,loadtest-student",
+                    "--spring.cloud.discovery.client.simple.instances.COURSE-SERVICE[0].uri=" + baseUrl(courseService));
+            gateway = start(new SpringApplicationBuilder(ApiGatewayApplication.class, GatewayServerConfig.class)
+                    .web(WebApplicationType.REACTIVE), "loadtest-gateway",
+                    "--spring.cloud.discovery.client.simple.instances.COURSE-SERVICE[0].uri=" + baseUrl(courseService),
+                    "--spring.cloud.discovery.client.simple.instances.STUDENT-SERVICE[0].uri=" + baseUrl(studentService));
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Loads a generated catalog into course-service and generated students, with Zipf-skewed
+     * enrollments in those courses, into student-service (see the services' dataset generators).
+     */
+    public SeedData seed(int courses, int students, int maxCoursesPerStudent, double zipfExponent, long randomSeed) {
+        CourseDatasetProperties courseSpec = new CourseDatasetProperties();
+        courseSpec.setCourses(courses);
+        courseSpec.setSeed(randomSeed);
+        List<Long> courseIds = new CourseDatasetGenerator(courseService.getBean(DataSource.class)).generate(courseSpec);
+
+        StudentDatasetProperties studentSpec = new StudentDatasetProperties();
+        studentSpec.setStudents(students);
+        studentSpec.setMinCoursesPerStudent(0);
+        studentSpec.setMaxCoursesPerStudent(Math.min(maxCoursesPerStudent, courseIds.size()));
+        studentSpec.setZipfExponent(zipfExponent);
+        studentSpec.setSeed(randomSeed);
+        StudentDataset studentDataset = new StudentDatasetGenerator(studentService.getBean(DataSource.class))
+                .generate(studentSpec, courseIds);
+        // Generated rows bypass the service layer, so nothing told the index about these enrollments
+        studentService.getBean(EnrollmentIndex.class).rebuild();
+
+        return new SeedData(courseIds, studentDataset);
+    }
+
+    /**
+     * Closes the student service's circuit breakers again. A cold JVM answers slowly enough to trip
+     * them during warm-up, which would otherwise fail the first seconds of the measured run.
+     */
+    public void resetCircuitBreakers() {
+        studentService.getBean(CircuitBreakerRegistry.class).getAllCircuitBreakers().forEach(CircuitBreaker::reset);
+    }
+
+    public String gatewayUrl() {
+        return baseUrl(gateway);
+    }
+
+    @Override
+    public void close() {
+        // Gateway first, services last, so nothing is routed to a stopped service
+        for (int i = contexts.size() - 1; i >= 0; i--) {
+            contexts.get(i).close();
+        }
+        contexts.clear();
+    }
+
+    private ConfigurableApplicationContext start(SpringApplicationBuilder builder, String configNames, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.config.name=loadtest-common," + configNames,
+                // Each service jar ships a bootstrap.properties that imports the config server;
+                // point the bootstrap context at a name none of them use.
+                "--spring.cloud.bootstrap.name=loadtest-bootstrap",
+                // Read by the bootstrap context too, before any loadtest-*.properties
+                "--spring.cloud.config.enabled=false"));
+        args.addAll(List.of(extraArgs));
+        ConfigurableApplicationContext context = builder.run(args.toArray(String[]::new));
+        contexts.add(context);
+        return context;
+    }
+
+    private static String baseUrl(ConfigurableApplicationContext context) {
+        return "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    /**
+     * Tomcat is on the classpath for the services and would otherwise win; the gateway needs Netty.
+     */
+    @Configuration(proxyBeanMethods = false)
+    static class GatewayServerConfig {
+
+        @Bean
+        NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+            return new NettyReactiveWebServerFactory();
+        }
+    }
+}
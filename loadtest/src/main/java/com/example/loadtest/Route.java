@@ -0,0 +1,133 @@
+package com.example.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * The kinds of request the load generator can send through the gateway. {@link #key} is the name
+ * used in {@code --mix}; {@link #label} is the route as printed in the report.
+ */
+public enum Route {
+
+    LIST_STUDENTS("list-students", "GET /api/students?after&limit=20") {
+        @Override
+        HttpRequest.Builder request(Target target, SplittableRandom random) {
+            return target.get("/api/students?limit=20&after=" + target.seedData.randomStudentId(random));
+        }
+    },
+    GET_STUDENT("get-student", "GET /api/students/{id}") {
+        @Override
+        HttpRequest.Builder request(Target target, SplittableRandom random) {
+            return target.get("/api/students/" + target.seedData.randomStudentId(random));
+        }
+    },
+    CREATE_STUDENT("create-student", "POST /api/students") {
+        @Override
+        HttpRequest.Builder request(Target target, SplittableRandom random) {
+            String email = "created" + target.runId + "-" + target.createdStudents.incrementAndGet() + "@loadtest.example";
+            return target.json("/api/students", "POST", studentJson("Created", email, target.randomCourses(random)));
+        }
+    },
+    UPDATE_STUDENT("update-student", "PUT /api/students/{id}") {
+        @Override
+        HttpRequest.Builder request(Target target, SplittableRandom random) {
+            long id = target.seedData.randomStudentId(random);
+            return target.json("/api/students/" + id, "PUT",
+                    studentJson("Updated", SeedData.studentEmail(id), target.randomCourses(random)));
+        }
+    },
+    LIST_COURSES("list-courses", "GET /api/courses") {
+        @Override
+        HttpRequest.Builder request(Target target, SplittableRandom random) {
+            return target.get("/api/courses");
+        }
+    },
+    GET_COURSE("get-course", "GET /api/courses/{id}") {
+        @Override
+        HttpRequest.Builder request(Target target, SplittableRandom random) {
+            return target.get("/api/courses/" + target.randomCourse(random));
+        }
+    };
+
+    private final String key;
+    private final String label;
+
+    Route(String key, String label) {
+        this.key = key;
+        this.label = label;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    abstract HttpRequest.Builder request(Target target, SplittableRandom random);
+
+    public static Route fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(route -> route.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown route '" + key + "'. Use one of "
+                        + Arrays.stream(values()).map(Route::key).collect(Collectors.joining(", ")) + "."));
+    }
+
+    private static String studentJson(String firstName, String email, List<Long> courseIds) {
+        return "{\"firstName\":\"" + firstName + "\",\"lastName\":\"Student\",\"email\":\"" + email
+                + "\",\"courseIds\":" + courseIds + "}";
+    }
+
+    /**
+     * Where requests go and the seeded rows they refer to.
+     */
+    static class Target {
+        private final String baseUrl;
+        private final SeedData seedData;
+        private final Duration timeout;
+        private final int maxCoursesPerStudent;
+        // Keeps created emails unique across runs against the same cluster (warm-up, then measurement)
+        private final long runId = System.nanoTime();
+        private final AtomicLong createdStudents = new AtomicLong();
+
+        Target(String baseUrl, SeedData seedData, Duration timeout, int maxCoursesPerStudent) {
+            if (seedData.students().getStudents() == 0 || seedData.courseIds().isEmpty()) {
+                throw new IllegalArgumentException("The load test needs at least one seeded student and course.");
+            }
+            this.baseUrl = baseUrl;
+            this.seedData = seedData;
+            this.timeout = timeout;
+            this.maxCoursesPerStudent = maxCoursesPerStudent;
+        }
+
+        private HttpRequest.Builder get(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout).GET();
+        }
+
+        private HttpRequest.Builder json(String path, String method, String body) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofString(body));
+        }
+
+        private Long randomCourse(SplittableRandom random) {
+            return seedData.courseIds().get(random.nextInt(seedData.courseIds().size()));
+        }
+
+        private List<Long> randomCourses(SplittableRandom random) {
+            return random.ints(random.nextInt(maxCoursesPerStudent + 1), 0, seedData.courseIds().size())
+                    .distinct()
+                    .mapToObj(seedData.courseIds()::get)
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.loadtest;
+
+import com.example.studentservice.dataset.StudentDataset;
+import com.example.studentservice.dataset.StudentDatasetGenerator;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Ids of the rows {@link LocalCluster#seed} inserted, for the traffic mix to pick from.
+ */
+public record SeedData(List<Long> courseIds, StudentDataset students) {
+
+    long randomStudentId(SplittableRandom random) {
+        return students.getFirstId() + random.nextLong(students.getStudents());
+    }
+
+    static String studentEmail(long id) {
+        return StudentDatasetGenerator.email(id);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Boots the three applications in-process and sends a short burst of every route through the gateway
+public class LoadTestSmokeTest {
+
+    @Test
+    void everyRouteShouldSucceedThroughTheGateway() {
+        LoadTestOptions options = LoadTestOptions.parse("--rate=50", "--courses=20", "--students=50",
+                "--mix=get-student=1,list-students=1,create-student=1,update-student=1,get-course=1,list-courses=1");
+
+        try (LocalCluster cluster = new LocalCluster()) {
+            SeedData seedData = cluster.seed(options.courses(), options.students(), options.maxCoursesPerStudent(),
+                    options.zipfExponent(), options.seed());
+            LoadReport report = new LoadGenerator(cluster.gatewayUrl(), seedData, options)
+                    .run(options.rate(), Duration.ofSeconds(3), options.seed());
+
+            assertThat(report.routes()).hasSize(Route.values().length);
+            assertThat(report.routes()).allSatisfy(route -> assertThat(route.requests()).as(route.route()).isPositive());
+            assertThat(report.routes()).allSatisfy(route -> assertThat(route.errors()).as(route.route()).isZero());
+            assertThat(report.total().p999Millis()).isGreaterThanOrEqualTo(report.total().p50Millis());
+        }
+    }
+
+    @Test
+    void parseMix_shouldDropZeroWeightsAndRejectUnknownRoutes() {
+        assertThat(LoadTestOptions.parseMix("get-student=3, create-student=1,list-courses=0"))
+                .isEqualTo(Map.of(Route.GET_STUDENT, 3, Route.CREATE_STUDENT, 1));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parseMix("delete-student=1"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parseMix("get-student=0"));
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.studentservice.client;
+
+import com.example.studentservice.dto.CourseDto;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Coalesces the course lookups of concurrent requests, DataLoader style. Ids asked for within
+ * {@link CourseClientProperties.Batching#getWindow()} of each other are collected, deduplicated and sent
+ * together, in requests of at most {@link CourseClientProperties#getBatchSize()} ids; a batch that
+ * reaches that size is sent at once. An id that is already being loaded is not asked for again: the
+ * caller waits for the in-flight request instead (single-flight).
+ * <p>
+ * There is no background thread. The caller that opens a window waits it out and sends the batch
+ * itself, and a caller that fills a batch sends it right away, so each request runs on one of the
+ * threads that need its result.
+ */
+final class CourseBatchLoader {
+
+    /**
+     * The courses a lookup is waiting for, and how many requests its own thread sent for them.
+     */
+    static final class Load {
+        private final Map<Long, CompletableFuture<CourseDto>> courses;
+        private final int remoteCalls;
+
+        Load(Map<Long, CompletableFuture<CourseDto>> courses, int remoteCalls) {
+            this.courses = courses;
+            this.remoteCalls = remoteCalls;
+        }
+
+        /**
+         * One future per requested id, completed with the course, with null if COURSE-SERVICE does
+         * not know it, or exceptionally if the request carrying it failed.
+         */
+        Map<Long, CompletableFuture<CourseDto>> getCourses() {
+            return courses;
+        }
+
+        int getRemoteCalls() {
+            return remoteCalls;
+        }
+    }
+
+    private final CourseClientProperties properties;
+    private final Function<Set<Long>, Map<Long, CourseDto>> remoteLoader;
+    private final Runnable onCollapsed;
+
+    // Guarded by this
+    private final Map<Long, CompletableFuture<CourseDto>> inFlight = new HashMap<>();
+    private Set<Long> pending = new LinkedHashSet<>();
+    private boolean windowOpen;
+
+    /**
+     * @param remoteLoader sends one /api/courses/byIds request and returns the courses found, keyed by
+     *                     id; it throws if the request fails
+     * @param onCollapsed  called for each id that joined a load already in flight
+     */
+    CourseBatchLoader(CourseClientProperties properties, Function<Set<Long>, Map<Long, CourseDto>> remoteLoader,
+                      Runnable onCollapsed) {
+        this.properties = properties;
+        this.remoteLoader = remoteLoader;
+        this.onCollapsed = onCollapsed;
+    }
+
+    Load load(Set<Long> courseIds) {
+        Map<Long, CompletableFuture<CourseDto>> futures = new HashMap<>();
+        Set<Long> fullBatch = null;
+        boolean leader = false;
+        synchronized (this) {
+            for (Long id : courseIds) {
+                CompletableFuture<CourseDto> future = inFlight.get(id);
+                if (future == null) {
+                    future = new CompletableFuture<>();
+                    inFlight.put(id, future);
+                    pending.add(id);
+                } else {
+                    onCollapsed.run();
+                }
+                futures.put(id, future);
+            }
+            if (pending.size() >= Math.max(1, properties.getBatchSize())) {
+                fullBatch = drainPending();
+            } else if (!pending.isEmpty() && !windowOpen) {
+                windowOpen = true;
+                leader = true;
+            }
+        }
+
+        int calls = 0;
+        if (fullBatch != null) {
+            calls += dispatch(fullBatch);
+        }
+        if (leader) {
+            long windowNanos = properties.getBatching().getWindow().toNanos();
+            if (windowNanos > 0) {
+                LockSupport.parkNanos(windowNanos);
+            }
+            Set<Long> batch;
+            synchronized (this) {
+                windowOpen = false;
+                batch = drainPending();
+            }
+            calls += dispatch(batch);
+        }
+        return new Load(futures, calls);
+    }
+
+    private Set<Long> drainPending() {
+        Set<Long> batch = pending;
+        pending = new LinkedHashSet<>();
+        return batch;
+    }
+
+    private int dispatch(Set<Long> batch) {
+        int calls = 0;
+        Throwable rejected = null;
+        for (Set<Long> chunk : partition(batch, properties.getBatchSize())) {
+            if (rejected != null) {
+                // The breaker is open, the bulkhead full or the loader broke with an Error: the remaining
+                // chunks would fail the same way, and their waiters must not be left hanging
+                complete(chunk, null, rejected);
+                continue;
+            }
+            try {
+                calls++;
+                Map<Long, CourseDto> found = remoteLoader.apply(chunk);
+                complete(chunk, found, null);
+            } catch (CallNotPermittedException | BulkheadFullException | Error e) {
+                rejected = e;
+                complete(chunk, null, e);
+            } catch (RuntimeException e) {
+                complete(chunk, null, e);
+            }
+        }
+        if (rejected instanceof Error error) {
+            throw error;
+        }
+        return calls;
+    }
+
+    private void complete(Set<Long> chunk, Map<Long, CourseDto> found, Throwable failure) {
+        List<CompletableFuture<CourseDto>> futures = new ArrayList<>(chunk.size());
+        synchronized (this) {
+            for (Long id : chunk) {
+                futures.add(inFlight.remove(id));
+            }
+        }
+        int i = 0;
+        for (Long id : chunk) {
+            CompletableFuture<CourseDto> future = futures.get(i++);
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(found.get(id));
+            }
+        }
+    }
+
+    static List<Set<Long>> partition(Set<Long> distinctIds, int batchSize) {
+        List<Set<Long>> chunks = new ArrayList<>();
+        Set<Long> current = new LinkedHashSet<>();
+        for (Long id : distinctIds) {
+            current.add(id);
+            if (current.size() == Math.max(1, batchSize)) {
+                chunks.add(current);
+                current = new LinkedHashSet<>();
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.studentservice.client;
+
+import com.example.studentservice.dto.CourseChangeEvent;
+import com.example.studentservice.dto.CourseChangeFeed;
+import com.example.studentservice.dto.CourseDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local copy of the full course catalog, kept current by {@link CourseChangeFeedSubscriber}.
+ * <p>
+ * While the replica is {@link #isReady() ready}, {@link CourseServiceClient} answers lookups of the
+ * courses it holds from memory. Ids it does not hold are still looked up in COURSE-SERVICE, since
+ * the replica trails the feed by up to one poll. The replica only becomes ready after a snapshot has
+ * been applied and is marked stale again when the feed cannot be read, in which case all lookups
+ * fall back to COURSE-SERVICE.
+ */
+@Component
+public class CourseCatalogReplica {
+
+    private volatile Map<Long, CourseDto> courses = new ConcurrentHashMap<>();
+    private volatile String epoch;
+    private volatile long version;
+    private volatile boolean ready;
+
+    public CourseCatalogReplica(MeterRegistry meterRegistry) {
+        Gauge.builder("course.replica.size", this, replica -> replica.courses.size())
+                .description("Courses held in the local course catalog replica")
+                .register(meterRegistry);
+        Gauge.builder("course.replica.ready", this, replica -> replica.ready ? 1 : 0)
+                .description("1 while lookups are served from the local course catalog replica")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Applies one feed response. A snapshot replaces the whole catalog; otherwise the events are
+     * applied in order on top of the current state.
+     */
+    public synchronized void apply(CourseChangeFeed feed) {
+        if (!feed.isSnapshot() && epoch == null) {
+            // Incremental events are meaningless without a base snapshot
+            return;
+        }
+        Map<Long, CourseDto> target = feed.isSnapshot() ? new ConcurrentHashMap<>() : courses;
+        if (feed.getEvents() != null) {
+            for (CourseChangeEvent event : feed.getEvents()) {
+                if (event.getType() == CourseChangeEvent.Type.DELETED || event.getCourse() == null) {
+                    target.remove(event.getCourseId());
+                } else {
+                    target.put(event.getCourseId(), event.getCourse());
+                }
+            }
+        }
+        courses = target;
+        epoch = feed.getEpoch();
+        version = feed.getVersion();
+        ready = true;
+    }
+
+    /**
+     * Stops serving lookups from the replica until the next successful feed read.
+     */
+    public void markStale() {
+        ready = false;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public CourseDto get(Long courseId) {
+        return courses.get(courseId);
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return courses.size();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.studentservice.client;
+
+import com.example.studentservice.dto.CourseChangeFeed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+
+/**
+ * Long-polls COURSE-SERVICE's /api/courses/changes feed on a background thread and applies every
+ * response to the {@link CourseCatalogReplica}. Enabled with
+ * {@code student-service.course-client.replica.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "student-service.course-client.replica", name = "enabled", havingValue = "true")
+public class CourseChangeFeedSubscriber implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseChangeFeedSubscriber.class);
+
+    static final String CHANGES_URL = "http://" + CourseServiceClient.COURSE_SERVICE_NAME
+            + "/api/courses/changes?epoch={epoch}&since={since}&waitMs={waitMs}";
+
+    private final RestTemplate restTemplate;
+    private final CourseCatalogReplica replica;
+    private final CourseClientProperties properties;
+
+    private volatile boolean running;
+    private Thread poller;
+
+    public CourseChangeFeedSubscriber(RestTemplate restTemplate, CourseCatalogReplica replica,
+                                      CourseClientProperties properties) {
+        this.restTemplate = restTemplate;
+        this.replica = replica;
+        this.properties = properties;
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        poller = new Thread(this::pollLoop, "course-change-feed");
+        poller.setDaemon(true);
+        poller.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (poller != null) {
+            poller.interrupt();
+            poller = null;
+        }
+        replica.markStale();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    void pollLoop() {
+        while (running) {
+            try {
+                pollOnce();
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Could not read the course change feed, serving course lookups from Course Service: {}", e.getMessage());
+                replica.markStale();
+                try {
+                    Thread.sleep(properties.getReplica().getRetryBackoff().toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    void pollOnce() {
+        Map<String, Object> uriVariables = Map.of(
+                "epoch", replica.getEpoch() != null ? replica.getEpoch() : "",
+                "since", replica.getVersion(),
+                "waitMs", properties.getReplica().getPollWait().toMillis());
+        CourseChangeFeed feed = restTemplate.getForObject(CHANGES_URL, CourseChangeFeed.class, uriVariables);
+        if (feed != null) {
+            if (feed.isSnapshot()) {
+                log.info("Loaded course catalog snapshot with {} courses at version {}", feed.getEvents().size(), feed.getVersion());
+            }
+            replica.apply(feed);
+        }
+    }
+}
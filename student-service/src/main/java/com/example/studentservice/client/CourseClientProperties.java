@@ -0,0 +1,155 @@
+package com.example.studentservice.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.MediaType;
+
+import java.time.Duration;
+
+/**
+ * Tuning for the calls student-service makes to COURSE-SERVICE.
+ */
+@Data
+@ConfigurationProperties(prefix = "student-service.course-client")
+public class CourseClientProperties {
+
+    /**
+     * Maximum number of course ids sent in a single /api/courses/byIds request.
+     * Larger lookups are split into several requests of at most this size.
+     */
+    private int batchSize = 500;
+
+    private final Http http = new Http();
+
+    private final Cache cache = new Cache();
+
+    private final Replica replica = new Replica();
+
+    private final Batching batching = new Batching();
+
+    private final Async async = new Async();
+
+    @Data
+    public static class Http {
+        /**
+         * Maximum time to establish a TCP connection to a COURSE-SERVICE instance.
+         */
+        private Duration connectTimeout = Duration.ofSeconds(2);
+
+        /**
+         * Maximum time to wait for a response once the request has been sent.
+         * Long-poll requests to the change feed get their poll wait on top of this.
+         */
+        private Duration readTimeout = Duration.ofSeconds(5);
+
+        /**
+         * Maximum time to wait for a free pooled connection before failing the call.
+         */
+        private Duration poolAcquireTimeout = Duration.ofSeconds(1);
+
+        /**
+         * Maximum number of pooled connections across all COURSE-SERVICE instances.
+         */
+        private int maxConnections = 200;
+
+        /**
+         * Maximum number of pooled connections to a single COURSE-SERVICE instance (host and port).
+         */
+        private int maxConnectionsPerHost = 50;
+
+        /**
+         * Idle keep-alive connections are closed after this long.
+         */
+        private Duration idleTimeout = Duration.ofSeconds(30);
+
+        /**
+         * Encoding of /api/courses/byIds request bodies: JSON or CBOR (compact binary). Only switch to
+         * CBOR once every COURSE-SERVICE instance reads it, since older ones reject CBOR request bodies.
+         */
+        private WireFormat wireFormat = WireFormat.JSON;
+
+        /**
+         * Encoding asked for in /api/courses/byIds responses. JSON stays acceptable next to CBOR, so
+         * COURSE-SERVICE instances that only write JSON keep working during a rolling upgrade.
+         */
+        private WireFormat responseFormat = WireFormat.CBOR;
+    }
+
+    public enum WireFormat {
+        JSON(MediaType.APPLICATION_JSON),
+        CBOR(MediaType.APPLICATION_CBOR);
+
+        private final MediaType mediaType;
+
+        WireFormat(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+    }
+
+    @Data
+    public static class Cache {
+        /**
+         * Whether course details are cached in-process. Only ids missing from the cache
+         * are sent to COURSE-SERVICE.
+         */
+        private boolean enabled = true;
+
+        /**
+         * How long a course stays cached after it was fetched.
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+
+        /**
+         * Maximum number of courses kept before entries are evicted.
+         */
+        private long maximumSize = 10_000;
+    }
+
+    @Data
+    public static class Batching {
+        /**
+         * How long a lenient course lookup waits for concurrent lookups to join its /api/courses/byIds
+         * request. A batch is sent earlier once it holds batch-size ids; 0 sends every lookup at once,
+         * though lookups of ids already in flight still wait for that request instead of sending their own.
+         */
+        private Duration window = Duration.ofMillis(2);
+    }
+
+    @Data
+    public static class Async {
+        /**
+         * Threads that run lookups started with CourseServiceClient#fetchCoursesAsync, so they overlap
+         * with the caller's own work (e.g. reading the next page of students).
+         */
+        private int threads = 16;
+
+        /**
+         * Lookups waiting for one of those threads. Beyond this the caller runs the lookup itself,
+         * so a saturated pool falls back to sequential lookups instead of queueing or failing.
+         */
+        private int queueCapacity = 100;
+    }
+
+    @Data
+    public static class Replica {
+        /**
+         * Whether to subscribe to COURSE-SERVICE's change feed and serve course lookups from a
+         * local replica of the whole catalog.
+         */
+        private boolean enabled = false;
+
+        /**
+         * How long one long-poll request to /api/courses/changes waits for new changes.
+         */
+        private Duration pollWait = Duration.ofSeconds(25);
+
+        /**
+         * Pause before retrying after the feed could not be read.
+         */
+        private Duration retryBackoff = Duration.ofSeconds(5);
+    }
+}
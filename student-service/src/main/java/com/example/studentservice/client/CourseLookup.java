@@ -0,0 +1,18 @@
+package com.example.studentservice.client;
+
+import com.example.studentservice.dto.CourseDto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * Result of a lenient course lookup: the courses that could be resolved, keyed by id, and whether
+ * COURSE-SERVICE failed or was skipped (open circuit, full bulkhead) so that some may be missing.
+ */
+@Data
+@AllArgsConstructor
+public class CourseLookup {
+    private Map<Long, CourseDto> courses;
+    private boolean unavailable;
+}
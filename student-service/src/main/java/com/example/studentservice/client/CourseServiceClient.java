@@ -0,0 +1,414 @@
+package com.example.studentservice.client;
+
+import com.example.studentservice.dto.CourseDto;
+import com.example.studentservice.dto.CourseValidationRequest;
+import com.example.studentservice.exception.CourseServiceUnavailableException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves course ids against COURSE-SERVICE's /api/courses/byIds endpoint.
+ * <p>
+ * When the {@link CourseCatalogReplica} is ready, lookups are answered from it without any remote call.
+ * Otherwise courses are kept in a bounded in-process cache (see {@link CourseClientProperties.Cache}),
+ * exposed on actuator as the {@code courseCatalog} cache. Only ids missing from the cache are
+ * sent to COURSE-SERVICE, deduplicated and split into requests of at most
+ * {@link CourseClientProperties#getBatchSize()} ids, so enriching a whole list of students
+ * costs a handful of calls instead of one call per student. Lenient lookups ({@link #fetchCourses})
+ * of concurrent requests are also merged into shared requests by a {@link CourseBatchLoader}.
+ * Neither the replica nor the cache answers whether a course exists for a write: validations
+ * ({@link #validateCoursesExist}, {@link #findExistingCourses}) always ask COURSE-SERVICE for the
+ * ids they require.
+ * <p>
+ * Requests are JSON-encoded unless {@link CourseClientProperties.Http#getWireFormat()} opts into CBOR.
+ * Responses are asked for in {@link CourseClientProperties.Http#getResponseFormat()} (CBOR by default)
+ * with JSON as fallback, and decoded in whichever format comes back. Responses above COURSE-SERVICE's
+ * compression threshold arrive gzipped (the pooled HttpClient asks for and decodes gzip by itself).
+ * <p>
+ * Remote calls go through the {@code courseService} Resilience4j bulkhead and circuit breaker
+ * (configured under {@code resilience4j.*}). While the breaker is open or the bulkhead is full,
+ * calls are rejected immediately: lookups degrade to whatever is cached and report
+ * {@link CourseLookup#isUnavailable()}, and validations fail with {@link CourseServiceUnavailableException}.
+ */
+@Component
+public class CourseServiceClient implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseServiceClient.class);
+
+    static final String COURSE_SERVICE_NAME = "COURSE-SERVICE"; // This is the Eureka Service ID
+    static final String COURSES_BY_IDS_URL = "http://" + COURSE_SERVICE_NAME + "/api/courses/byIds";
+    static final String RESILIENCE_INSTANCE = "courseService";
+
+    private final RestTemplate restTemplate;
+    private final CourseClientProperties properties;
+    private final CourseCatalogReplica replica;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Counter remoteCalls;
+    private final Counter circuitOpenRejections;
+    private final Counter bulkheadFullRejections;
+    private final DistributionSummary remoteCallsPerLookup;
+    private final Cache<Long, CourseDto> courseCache;
+    private final CourseBatchLoader batchLoader;
+    private final ThreadPoolExecutor asyncExecutor;
+
+    public CourseServiceClient(RestTemplate restTemplate, CourseClientProperties properties,
+                               CourseCatalogReplica replica, MeterRegistry meterRegistry,
+                               CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry) {
+        this.restTemplate = restTemplate;
+        this.properties = properties;
+        this.replica = replica;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(RESILIENCE_INSTANCE);
+        this.bulkhead = bulkheadRegistry.bulkhead(RESILIENCE_INSTANCE);
+        this.courseCache = Caffeine.newBuilder()
+                .maximumSize(properties.getCache().getMaximumSize())
+                .expireAfterWrite(properties.getCache().getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, courseCache, "courseCatalog");
+        this.remoteCalls = Counter.builder("course.client.remote.calls")
+                .description("HTTP requests sent to COURSE-SERVICE /api/courses/byIds")
+                .register(meterRegistry);
+        this.circuitOpenRejections = Counter.builder("course.client.rejected.calls")
+                .description("COURSE-SERVICE calls rejected without being sent")
+                .tag("reason", "circuit_open")
+                .register(meterRegistry);
+        this.bulkheadFullRejections = Counter.builder("course.client.rejected.calls")
+                .description("COURSE-SERVICE calls rejected without being sent")
+                .tag("reason", "bulkhead_full")
+                .register(meterRegistry);
+        this.remoteCallsPerLookup = DistributionSummary.builder("course.client.remote.calls.per.lookup")
+                .description("HTTP requests sent to COURSE-SERVICE to serve one student-service lookup")
+                .register(meterRegistry);
+        Counter collapsedIds = Counter.builder("course.client.collapsed.ids")
+                .description("Course ids whose lookup joined a COURSE-SERVICE request already in flight")
+                .register(meterRegistry);
+        this.batchLoader = new CourseBatchLoader(properties, this::loadChunk, collapsedIds::increment);
+        AtomicInteger threadCount = new AtomicInteger();
+        int asyncThreads = Math.max(1, properties.getAsync().getThreads());
+        this.asyncExecutor = new ThreadPoolExecutor(asyncThreads, asyncThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, properties.getAsync().getQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "course-lookup-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.asyncExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Checks that every id exists in COURSE-SERVICE and returns the matching courses keyed by id.
+     *
+     * @throws IllegalArgumentException if one or more ids do not exist
+     * @throws RuntimeException         if COURSE-SERVICE cannot be reached or answers unexpectedly
+     */
+    public Map<Long, CourseDto> validateCoursesExist(Set<Long> courseIds) {
+        return validateCoursesExist(courseIds, courseIds);
+    }
+
+    /**
+     * Fetches all of {@code courseIds} in one lookup, but only requires {@code requiredIds} to exist.
+     * Used by updates, which only need to validate newly added enrollments while still returning the
+     * details of the courses the student keeps.
+     *
+     * @throws IllegalArgumentException if one or more of {@code requiredIds} do not exist
+     * @throws RuntimeException         if COURSE-SERVICE cannot be reached or answers unexpectedly
+     */
+    public Map<Long, CourseDto> validateCoursesExist(Set<Long> courseIds, Set<Long> requiredIds) {
+        if (courseIds == null || courseIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<Long, CourseDto> coursesById = lookUpForWrite(courseIds, requiredIds);
+        Set<Long> invalidCourseIds = requiredIds.stream()
+                .filter(id -> !coursesById.containsKey(id))
+                .collect(Collectors.toSet());
+
+        if (!invalidCourseIds.isEmpty()) {
+            // A known business validation error, thrown to the caller as is
+            IllegalArgumentException e = new IllegalArgumentException("One or more courses with IDs " + invalidCourseIds + " do not exist.");
+            log.error("Invalid course IDs provided: {}", e.getMessage());
+            throw e;
+        }
+        return coursesById;
+    }
+
+    /**
+     * Returns the courses among {@code courseIds} that exist in COURSE-SERVICE, keyed by id. Like
+     * {@link #validateCoursesExist}, every id is checked against COURSE-SERVICE itself, but unknown
+     * ids are simply left out of the result.
+     *
+     * @throws RuntimeException if COURSE-SERVICE cannot be reached or answers unexpectedly
+     */
+    public Map<Long, CourseDto> findExistingCourses(Collection<Long> courseIds) {
+        if (courseIds == null || courseIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return lookUpForWrite(courseIds, courseIds);
+    }
+
+    // Ids whose existence guards a write are always sent to COURSE-SERVICE: the cache and the
+    // replica may still hold a course deleted since. Only the others are served locally.
+    private Map<Long, CourseDto> lookUpForWrite(Collection<Long> courseIds, Collection<Long> requiredIds) {
+        int calls = 0;
+        Map<Long, CourseDto> coursesById = new HashMap<>();
+        List<Long> detailsOnly = courseIds.stream()
+                .filter(id -> id != null && !requiredIds.contains(id))
+                .collect(Collectors.toList());
+        Set<Long> missingIds = collectCached(detailsOnly, coursesById);
+        requiredIds.stream().filter(Objects::nonNull).forEach(missingIds::add);
+        try {
+            for (Set<Long> chunk : CourseBatchLoader.partition(missingIds, properties.getBatchSize())) {
+                calls++;
+                ResponseEntity<CourseDto[]> responseEntity = postForCourses(chunk);
+
+                if (responseEntity.getStatusCode() == HttpStatus.OK && responseEntity.getBody() != null) {
+                    cacheAll(responseEntity.getBody(), coursesById);
+                } else {
+                    log.error("Failed to validate courses with Course Service. Status: {}", responseEntity.getStatusCode());
+                    throw new RuntimeException("Error validating courses with Course Service: Unexpected response status " + responseEntity.getStatusCode());
+                }
+            }
+            return coursesById;
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            // The breaker is open or too many calls are in flight: fail fast instead of queueing
+            log.warn("Course validation rejected without calling Course Service: {}", e.getMessage());
+            throw new CourseServiceUnavailableException("Course Service is temporarily unavailable, so course enrollments cannot be validated. Please retry later.", e);
+        } catch (HttpClientErrorException e) {
+            // Catch specific HTTP client errors (e.g., 4xx from Course Service)
+            log.error("Client error calling Course Service for validation (Status: {}): {}", e.getStatusCode(), e.getMessage());
+            throw new RuntimeException("Error validating courses with Course Service: " + e.getMessage(), e);
+        } catch (ResourceAccessException e) {
+            // Catch network/connection issues (e.g., Course Service is down or unreachable)
+            log.error("I/O error on POST request for \"{}\": {}", COURSES_BY_IDS_URL, e.getMessage());
+            throw new RuntimeException("Error validating courses with Course Service: Could not reach Course Service at \"" + COURSE_SERVICE_NAME + "\". Please ensure it's running and registered with Eureka.", e);
+        } catch (Exception e) {
+            // Catch any other unexpected exceptions and log them fully for debugging
+            log.error("An unexpected error occurred during course validation: {}", e.getMessage(), e); // Log stack trace
+            throw new RuntimeException("An unexpected error occurred during course validation. Please check service logs for details.", e);
+        } finally {
+            remoteCallsPerLookup.record(calls);
+        }
+    }
+
+    /**
+     * Fetches the courses for the given ids, keyed by id.
+     *
+     * @see #fetchCourses(Collection)
+     */
+    public Map<Long, CourseDto> fetchCoursesByIds(Collection<Long> courseIds) {
+        return fetchCourses(courseIds).getCourses();
+    }
+
+    /**
+     * Fetches the courses for the given ids.
+     * <p>
+     * Failures are logged and degrade to a partial (possibly empty) result flagged as
+     * {@link CourseLookup#isUnavailable() unavailable} rather than failing the caller, since course
+     * details are only used to enrich responses.
+     */
+    public CourseLookup fetchCourses(Collection<Long> courseIds) {
+        if (courseIds == null || courseIds.isEmpty()) {
+            return new CourseLookup(Collections.emptyMap(), false);
+        }
+
+        Map<Long, CourseDto> coursesById = new HashMap<>();
+        Set<Long> missingIds = collectCached(courseIds, coursesById);
+        if (missingIds.isEmpty()) {
+            remoteCallsPerLookup.record(0);
+            return new CourseLookup(coursesById, false);
+        }
+
+        CourseBatchLoader.Load load = batchLoader.load(missingIds);
+        remoteCallsPerLookup.record(load.getRemoteCalls());
+        Throwable failure = null;
+        for (Map.Entry<Long, CompletableFuture<CourseDto>> entry : load.getCourses().entrySet()) {
+            try {
+                CourseDto course = entry.getValue().join();
+                if (course != null) {
+                    coursesById.put(entry.getKey(), course);
+                }
+            } catch (CompletionException e) {
+                failure = e.getCause();
+            }
+        }
+        if (failure != null) {
+            logLookupFailure(failure);
+        }
+        return new CourseLookup(coursesById, failure != null);
+    }
+
+    private void logLookupFailure(Throwable failure) {
+        if (failure instanceof CallNotPermittedException || failure instanceof BulkheadFullException) {
+            log.warn("Course lookup rejected without calling Course Service: {}", failure.getMessage());
+        } else if (failure instanceof HttpClientErrorException e) {
+            log.error("Client error fetching courses from Course Service (Status: {}): {}", e.getStatusCode(), e.getMessage());
+        } else if (failure instanceof ResourceAccessException) {
+            log.error("I/O error fetching courses from Course Service: {}", failure.getMessage());
+        } else {
+            log.error("An unexpected error occurred while fetching courses: {}", failure.getMessage());
+        }
+    }
+
+    /**
+     * Sends one chunk of a {@link CourseBatchLoader} batch and caches what comes back.
+     */
+    private Map<Long, CourseDto> loadChunk(Set<Long> chunk) {
+        ResponseEntity<CourseDto[]> response = postForCourses(chunk);
+        if (response.getStatusCode() != HttpStatus.OK || response.getBody() == null) {
+            throw new IllegalStateException("Unexpected response status " + response.getStatusCode());
+        }
+        Map<Long, CourseDto> found = new HashMap<>();
+        cacheAll(response.getBody(), found);
+        return found;
+    }
+
+    /**
+     * Starts {@link #fetchCourses(Collection)} on the async lookup pool (see {@link CourseClientProperties.Async}).
+     * When the pool and its queue are full, the lookup runs on the calling thread instead and the
+     * returned future is already complete; once the pool is shut down the future fails with the
+     * rejection. A lookup cancelled before it starts never calls COURSE-SERVICE; one already running is
+     * left to finish and its result dropped, since its thread may be sending a batch that other
+     * requests' lookups share (see {@link CourseBatchLoader}).
+     */
+    public CompletableFuture<CourseLookup> fetchCoursesAsync(Collection<Long> courseIds) {
+        CompletableFuture<CourseLookup> result = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = asyncExecutor.submit(() -> completeLookup(result, courseIds));
+        } catch (RejectedExecutionException e) {
+            if (asyncExecutor.isShutdown()) {
+                result.completeExceptionally(e);
+            } else {
+                completeLookup(result, courseIds);
+            }
+            return result;
+        }
+        result.whenComplete((lookup, failure) -> {
+            if (result.isCancelled()) {
+                task.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    private void completeLookup(CompletableFuture<CourseLookup> result, Collection<Long> courseIds) {
+        if (result.isDone()) {
+            return;
+        }
+        try {
+            result.complete(fetchCourses(courseIds));
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+            if (e instanceof Error error) {
+                throw error;
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        asyncExecutor.shutdownNow();
+    }
+
+    /**
+     * Copies locally known courses into {@code coursesById} and returns the ids that still have to be
+     * fetched. A ready replica may lag behind COURSE-SERVICE (a course created since its last feed
+     * read), so ids it does not hold are fetched as well rather than reported missing.
+     */
+    private Set<Long> collectCached(Collection<Long> courseIds, Map<Long, CourseDto> coursesById) {
+        boolean fromReplica = replica.isReady();
+        Set<Long> missingIds = new TreeSet<>();
+        for (Long id : courseIds) {
+            if (id == null) {
+                continue;
+            }
+            CourseDto known;
+            if (fromReplica) {
+                known = replica.get(id);
+            } else {
+                known = properties.getCache().isEnabled() ? courseCache.getIfPresent(id) : null;
+            }
+            if (known != null) {
+                coursesById.put(id, known);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return missingIds;
+    }
+
+    private void cacheAll(CourseDto[] courses, Map<Long, CourseDto> coursesById) {
+        for (CourseDto course : courses) {
+            coursesById.put(course.getId(), course);
+            if (properties.getCache().isEnabled()) {
+                courseCache.put(course.getId(), course);
+            }
+        }
+    }
+
+    private ResponseEntity<CourseDto[]> postForCourses(Set<Long> courseIds) {
+        CourseValidationRequest requestBody = new CourseValidationRequest(courseIds);
+
+        MediaType responseFormat = properties.getHttp().getResponseFormat().getMediaType();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(properties.getHttp().getWireFormat().getMediaType());
+        // JSON stays acceptable, for instances that only write JSON and for error bodies
+        headers.setAccept(responseFormat.equals(MediaType.APPLICATION_JSON) ? List.of(MediaType.APPLICATION_JSON)
+                : List.of(responseFormat, MediaType.APPLICATION_JSON));
+        HttpEntity<CourseValidationRequest> requestEntity = new HttpEntity<>(requestBody, headers);
+
+        try {
+            return circuitBreaker.executeSupplier(Bulkhead.decorateSupplier(bulkhead, () -> {
+                remoteCalls.increment();
+                return restTemplate.postForEntity(COURSES_BY_IDS_URL, requestEntity, CourseDto[].class);
+            }));
+        } catch (CallNotPermittedException e) {
+            circuitOpenRejections.increment();
+            throw e;
+        } catch (BulkheadFullException e) {
+            bulkheadFullRejections.increment();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.studentservice.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+/**
+ * Pooled Apache HttpClient behind the {@code @LoadBalanced} RestTemplate used to call COURSE-SERVICE.
+ * <p>
+ * Connections are kept alive and reused per instance (the load balancer rewrites the service id to
+ * an instance's host and port before the request reaches the pool), bounded by
+ * {@link CourseClientProperties.Http}, and every call has connect, read and pool-acquire timeouts.
+ * Pool usage is published as {@code httpcomponents.httpclient.pool.*} metrics tagged
+ * {@code httpclient=course-service}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class CourseServiceHttpClientConfig {
+
+    private static final String CHANGE_FEED_PATH = "/api/courses/changes";
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager courseServiceConnectionManager(CourseClientProperties properties,
+                                                                             MeterRegistry meterRegistry) {
+        CourseClientProperties.Http http = properties.getHttp();
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(http.getMaxConnections())
+                .setMaxConnPerRoute(http.getMaxConnectionsPerHost())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(toTimeout(http.getConnectTimeout()))
+                        .setSocketTimeout(toTimeout(http.getReadTimeout()))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "course-service").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient courseServiceHttpClient(PoolingHttpClientConnectionManager courseServiceConnectionManager,
+                                                       CourseClientProperties properties) {
+        CourseClientProperties.Http http = properties.getHttp();
+        return HttpClients.custom()
+                .setConnectionManager(courseServiceConnectionManager)
+                .setDefaultRequestConfig(defaultRequestConfig(http))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(http.getIdleTimeout()))
+                .build();
+    }
+
+    @Bean
+    public HttpComponentsClientHttpRequestFactory courseServiceRequestFactory(CloseableHttpClient courseServiceHttpClient,
+                                                                              CourseClientProperties properties) {
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(courseServiceHttpClient);
+        // Change feed requests are held open by COURSE-SERVICE for up to the poll wait, so they get
+        // that much more time before the read timeout trips.
+        RequestConfig longPollConfig = RequestConfig.copy(defaultRequestConfig(properties.getHttp()))
+                .setResponseTimeout(toTimeout(properties.getHttp().getReadTimeout().plus(properties.getReplica().getPollWait())))
+                .build();
+        requestFactory.setHttpContextFactory((method, uri) -> {
+            if (uri.getPath() == null || !uri.getPath().endsWith(CHANGE_FEED_PATH)) {
+                return null;
+            }
+            HttpClientContext context = HttpClientContext.create();
+            context.setRequestConfig(longPollConfig);
+            return context;
+        });
+        return requestFactory;
+    }
+
+    @Bean
+    @LoadBalanced
+    public RestTemplate restTemplate(HttpComponentsClientHttpRequestFactory courseServiceRequestFactory) {
+        return new RestTemplate(courseServiceRequestFactory);
+    }
+
+    private static RequestConfig defaultRequestConfig(CourseClientProperties.Http http) {
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(toTimeout(http.getPoolAcquireTimeout()))
+                .setResponseTimeout(toTimeout(http.getReadTimeout()))
+                .build();
+    }
+
+    private static Timeout toTimeout(Duration duration) {
+        return Timeout.ofMilliseconds(duration.toMillis());
+    }
+}
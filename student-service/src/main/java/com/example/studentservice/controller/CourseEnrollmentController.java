@@ -0,0 +1,43 @@
+package com.example.studentservice.controller;
+
+import com.example.studentservice.dto.CourseEnrollmentCount;
+import com.example.studentservice.dto.StudentPage;
+import com.example.studentservice.dto.StudentView;
+import com.example.studentservice.service.StudentService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Set;
+
+/**
+ * Reverse enrollment lookups ("who is enrolled in course X"). Lives under /api/courses but is
+ * served by student-service, which owns the enrollments; the gateway routes these paths here.
+ */
+@RestController
+@RequestMapping("/api/courses/{courseId}/students")
+public class CourseEnrollmentController {
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
+    private final StudentService studentService;
+
+    public CourseEnrollmentController(StudentService studentService) {
+        this.studentService = studentService;
+    }
+
+    // Keyset pagination: GET /api/courses/{courseId}/students?after=<last student id seen>&limit=N.
+    // Takes ?fields= and ?expand=courses like the /api/students reads; see StudentView.
+    @GetMapping
+    public ResponseEntity<StudentPage> getStudentsByCourse(@PathVariable Long courseId,
+                                                           @RequestParam(required = false) Long after,
+                                                           @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+                                                           @RequestParam(required = false) Set<String> fields,
+                                                           @RequestParam(required = false) Set<String> expand) {
+        return ResponseEntity.ok(studentService.getStudentsByCourse(courseId, after, limit, StudentView.parse(fields, expand)));
+    }
+
+    @GetMapping("/count")
+    public ResponseEntity<CourseEnrollmentCount> countStudentsByCourse(@PathVariable Long courseId) {
+        return ResponseEntity.ok(new CourseEnrollmentCount(courseId, studentService.countStudentsByCourse(courseId)));
+    }
+}
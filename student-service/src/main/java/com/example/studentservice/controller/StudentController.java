@@ -1,33 +1,109 @@
 package com.example.studentservice.controller;
 
+import com.example.studentservice.dto.BulkImportResult;
+import com.example.studentservice.dto.CourseMateCount;
+import com.example.studentservice.dto.EnrollmentChangeRequest;
+import com.example.studentservice.dto.EnrollmentQueryResult;
+import com.example.studentservice.dto.StudentBatch;
+import com.example.studentservice.dto.StudentIdsRequest;
+import com.example.studentservice.dto.StudentPage;
 import com.example.studentservice.dto.StudentRequest;
 import com.example.studentservice.dto.StudentResponse;
+import com.example.studentservice.dto.StudentView;
+import com.example.studentservice.service.StudentImportService;
 import com.example.studentservice.service.StudentService;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/students")
 public class StudentController {
 
     private final StudentService studentService;
+    private final StudentImportService studentImportService;
 
-    public StudentController(StudentService studentService) {
+    public StudentController(StudentService studentService, StudentImportService studentImportService) {
         this.studentService = studentService;
+        this.studentImportService = studentImportService;
     }
 
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
+    // Student reads take ?fields=firstName,lastName,email,courseIds to load and return only those (plus
+    // the id), and ?expand=courses to add the courses' details from Course Service; see StudentView.
+    // Conditional GETs: Spring answers an If-None-Match matching the ETag with 304 before serializing.
+    // Responses missing course details are not tagged, so clients never revalidate against them.
     @GetMapping
-    public ResponseEntity<List<StudentResponse>> getAllStudents() {
-        return ResponseEntity.ok(studentService.getAllStudents());
+    public ResponseEntity<List<StudentResponse>> getAllStudents(@RequestParam(required = false) Set<String> fields,
+                                                                @RequestParam(required = false) Set<String> expand) {
+        List<StudentResponse> students = studentService.getAllStudents(StudentView.parse(fields, expand));
+        if (students.stream().anyMatch(StudentController::isDegraded)) {
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(students);
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(StudentETags.of(students))
+                .body(students);
+    }
+
+    // Keyset pagination: GET /api/students?after=<last id seen>&limit=N
+    @GetMapping(params = "limit")
+    public ResponseEntity<StudentPage> getStudentsPage(@RequestParam(required = false) Long after,
+                                                       @RequestParam int limit,
+                                                       @RequestParam(required = false) Set<String> fields,
+                                                       @RequestParam(required = false) Set<String> expand) {
+        return ResponseEntity.ok(studentService.getStudentsPage(after, limit, StudentView.parse(fields, expand)));
+    }
+
+    @GetMapping(params = {"after", "!limit"})
+    public ResponseEntity<StudentPage> getStudentsPageAfter(@RequestParam Long after,
+                                                            @RequestParam(required = false) Set<String> fields,
+                                                            @RequestParam(required = false) Set<String> expand) {
+        return ResponseEntity.ok(studentService.getStudentsPage(after, DEFAULT_PAGE_SIZE, StudentView.parse(fields, expand)));
+    }
+
+    // Set queries over enrollments, answered from the in-memory enrollment index:
+    // GET /api/students/by-courses?all=1,2&any=3,4&none=5&after=<last id seen>&limit=N
+    @GetMapping("/by-courses")
+    public ResponseEntity<EnrollmentQueryResult> findStudentsByCourses(@RequestParam(required = false) Set<Long> all,
+                                                                       @RequestParam(required = false) Set<Long> any,
+                                                                       @RequestParam(required = false) Set<Long> none,
+                                                                       @RequestParam(required = false) Long after,
+                                                                       @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(studentService.findStudentsByCourses(all, any, none, after, limit));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<StudentResponse> getStudentById(@PathVariable Long id) {
-        return ResponseEntity.ok(studentService.getStudentById(id));
+    public ResponseEntity<StudentResponse> getStudentById(@PathVariable Long id,
+                                                          @RequestParam(required = false) Set<String> fields,
+                                                          @RequestParam(required = false) Set<String> expand) {
+        StudentResponse student = studentService.getStudentById(id, StudentView.parse(fields, expand));
+        if (isDegraded(student)) {
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(student);
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(StudentETags.of(student))
+                .body(student);
+    }
+
+    // Batch read: the students in the requested order plus the ids that matched none. Takes the same
+    // fields and expand parameters as the GETs; expanded courses come from one lookup for the whole batch.
+    @PostMapping("/byIds")
+    public ResponseEntity<StudentBatch> getStudentsByIds(@RequestBody StudentIdsRequest request,
+                                                         @RequestParam(required = false) Set<String> fields,
+                                                         @RequestParam(required = false) Set<String> expand) {
+        return ResponseEntity.ok(studentService.getStudentsByIds(request.getStudentIds(), StudentView.parse(fields, expand)));
     }
 
     @PostMapping
@@ -36,6 +112,13 @@ public class StudentController {
         return new ResponseEntity<>(createdStudent, HttpStatus.CREATED);
     }
 
+    // Bulk import: the body is read as a stream of NDJSON objects or CSV lines, see StudentImportParser
+    @PostMapping(value = "/bulk", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<BulkImportResult> importStudents(InputStream body,
+                                                           @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType) throws IOException {
+        return ResponseEntity.ok(studentImportService.importStudents(body, contentType));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<StudentResponse> updateStudent(@PathVariable Long id, @Valid @RequestBody StudentRequest studentRequest) {
         StudentResponse updatedStudent = studentService.updateStudent(id, studentRequest);
@@ -48,5 +131,28 @@ public class StudentController {
         return ResponseEntity.noContent().build();
     }
 
+    // Single-enrollment changes; both are idempotent and return the updated student
+    @PostMapping("/{id}/courses/{courseId}")
+    public ResponseEntity<StudentResponse> enrollInCourse(@PathVariable Long id, @PathVariable Long courseId) {
+        return ResponseEntity.ok(studentService.enrollInCourse(id, courseId));
+    }
 
-}
\ No newline at end of file
+    @DeleteMapping("/{id}/courses/{courseId}")
+    public ResponseEntity<StudentResponse> dropCourse(@PathVariable Long id, @PathVariable Long courseId) {
+        return ResponseEntity.ok(studentService.dropCourse(id, courseId));
+    }
+
+    @GetMapping("/{id}/course-mates/count")
+    public ResponseEntity<CourseMateCount> countCourseMates(@PathVariable Long id) {
+        return ResponseEntity.ok(studentService.countCourseMates(id));
+    }
+
+    @PatchMapping("/{id}/courses")
+    public ResponseEntity<StudentResponse> updateEnrollments(@PathVariable Long id, @RequestBody EnrollmentChangeRequest request) {
+        return ResponseEntity.ok(studentService.updateEnrollments(id, request));
+    }
+
+    private static boolean isDegraded(StudentResponse student) {
+        return Boolean.TRUE.equals(student.getCoursesUnavailable());
+    }
+}
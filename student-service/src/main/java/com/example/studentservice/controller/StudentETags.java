@@ -0,0 +1,69 @@
+package com.example.studentservice.controller;
+
+import com.example.studentservice.dto.CourseDto;
+import com.example.studentservice.dto.StudentResponse;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Strong ETags of student representations: an MD5 hash over every field of the response, including
+ * the resolved course details, so a course renamed in Course Service also changes the tag. Course ids
+ * and courses are hashed in id order because the response holds them in sets; fields left out of a
+ * sparse response hash differently from empty ones.
+ */
+final class StudentETags {
+
+    private StudentETags() {
+    }
+
+    static String of(StudentResponse student) {
+        StringBuilder content = new StringBuilder();
+        append(content, student);
+        return hash(content);
+    }
+
+    static String of(List<StudentResponse> students) {
+        StringBuilder content = new StringBuilder();
+        for (StudentResponse student : students) {
+            append(content, student);
+        }
+        return hash(content);
+    }
+
+    private static void append(StringBuilder content, StudentResponse student) {
+        append(content, student.getId(), student.getFirstName(), student.getLastName(), student.getEmail());
+        if (student.getCourseIds() == null) {
+            content.append('-');
+        } else {
+            content.append('[').append(student.getCourseIds().size());
+            student.getCourseIds().stream().sorted().forEach(courseId -> append(content, courseId));
+        }
+        if (student.getCourses() == null) {
+            content.append('-');
+            return;
+        }
+        content.append('[').append(student.getCourses().size());
+        student.getCourses().stream()
+                .sorted(Comparator.comparing(CourseDto::getId, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .forEach(course -> append(content, course.getId(), course.getTitle(), course.getDescription()));
+    }
+
+    // Each field prefixed with its length (or '-' for null), so different field splits never collide
+    private static void append(StringBuilder content, Object... fields) {
+        for (Object field : fields) {
+            if (field == null) {
+                content.append('-');
+            } else {
+                String value = field.toString();
+                content.append(value.length()).append(':').append(value);
+            }
+        }
+    }
+
+    private static String hash(StringBuilder content) {
+        return "\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
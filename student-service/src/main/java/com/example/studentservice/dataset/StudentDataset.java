@@ -0,0 +1,22 @@
+package com.example.studentservice.dataset;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What one {@link StudentDatasetGenerator#generate} call inserted: students with the contiguous ids
+ * {@code firstId..lastId} and their enrollments.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentDataset {
+    private long firstId;
+    private long lastId;
+    private long enrollments;
+
+    public long getStudents() {
+        return lastId - firstId + 1;
+    }
+}
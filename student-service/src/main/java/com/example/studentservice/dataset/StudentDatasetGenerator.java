@@ -0,0 +1,141 @@
+package com.example.studentservice.dataset;
+
+import com.example.studentservice.repository.StudentIdSequence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+
+/**
+ * Fills {@code students} and {@code student_course_enrollments} with synthetic data at production
+ * sizes (a million students in seconds), for benchmarks, load tests and integration tests.
+ * <p>
+ * Rows are written with plain batched JDBC, one transaction per {@code batchSize} students, instead
+ * of through JPA or the REST API. Students get contiguous ids past both the highest stored id and the
+ * ids already reserved from {@code students_seq}, which is moved past them afterwards (see
+ * {@link StudentIdSequence}) so the application keeps allocating fresh ids. Enrollment course ids are
+ * drawn from a Zipf distribution over the given courses.
+ * <p>
+ * Meant for databases no service instance is writing to at the same time. The tables must exist
+ * (e.g. created by Hibernate); running services only see the new enrollments in their
+ * {@code EnrollmentIndex} after a rebuild or restart.
+ */
+public class StudentDatasetGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentDatasetGenerator.class);
+
+    private static final String[] FIRST_NAMES = {"Olivia", "Liam", "Emma", "Noah", "Amelia", "Oliver", "Sophia",
+            "Elijah", "Isabella", "Lucas", "Mia", "Mateo", "Aisha", "Arjun", "Chen", "Fatima", "Hiro", "Ingrid",
+            "Kwame", "Priya", "Sven", "Yara", "Zoe", "Diego"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Garcia", "Brown", "Miller", "Davis", "Lopez",
+            "Wilson", "Anderson", "Nguyen", "Kim", "Patel", "Müller", "Rossi", "Silva", "Tanaka", "Okafor", "Novak",
+            "Kowalski", "Hansen", "Ivanova", "Haddad", "Singh", "O'Brien"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StudentIdSequence idSequence;
+
+    public StudentDatasetGenerator(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.idSequence = new StudentIdSequence(jdbcTemplate);
+    }
+
+    /**
+     * Generates the dataset with enrollments drawn from the course ids {@code 1..spec.courses}.
+     */
+    public StudentDataset generate(StudentDatasetProperties spec) {
+        return generate(spec, LongStream.rangeClosed(1, spec.getCourses()).boxed().toList());
+    }
+
+    public StudentDataset generate(StudentDatasetProperties spec, List<Long> courseIds) {
+        if (spec.getStudents() < 0) {
+            throw new IllegalArgumentException("Number of students must not be negative.");
+        }
+        if (spec.getMinCoursesPerStudent() < 0 || spec.getMaxCoursesPerStudent() < spec.getMinCoursesPerStudent()) {
+            throw new IllegalArgumentException("Courses per student must satisfy 0 <= min <= max.");
+        }
+        if (spec.getMaxCoursesPerStudent() > courseIds.size()) {
+            throw new IllegalArgumentException("Cannot enroll students in up to " + spec.getMaxCoursesPerStudent()
+                    + " distinct courses out of " + courseIds.size() + ".");
+        }
+
+        long started = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(spec.getSeed());
+        // Popularity ranks map onto a shuffled copy of the ids, so the popular courses are not simply the lowest ids
+        List<Long> coursesByPopularity = new ArrayList<>(courseIds);
+        Collections.shuffle(coursesByPopularity, new Random(spec.getSeed()));
+        ZipfSampler popularity = coursesByPopularity.isEmpty() ? null
+                : new ZipfSampler(coursesByPopularity.size(), spec.getZipfExponent());
+
+        int batchSize = Math.max(1, spec.getBatchSize());
+        // Past both the stored ids and any block of ids Hibernate has already reserved from the sequence
+        long firstId = Math.max(jdbcTemplate.queryForObject("select coalesce(max(id), 0) from students", Long.class) + 1,
+                idSequence.nextValue());
+        long end = firstId + spec.getStudents();
+        long enrollments = 0;
+        for (long from = firstId; from < end; from += batchSize) {
+            int count = (int) Math.min(batchSize, end - from);
+            List<Object[]> students = new ArrayList<>(count);
+            List<long[]> studentCourses = new ArrayList<>(count * spec.getMaxCoursesPerStudent());
+            for (long id = from; id < from + count; id++) {
+                students.add(new Object[]{id, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                        LAST_NAMES[random.nextInt(LAST_NAMES.length)], email(id)});
+                int enrolled = spec.getMinCoursesPerStudent()
+                        + random.nextInt(spec.getMaxCoursesPerStudent() - spec.getMinCoursesPerStudent() + 1);
+                for (long courseId : pickDistinct(popularity, coursesByPopularity, enrolled, random)) {
+                    studentCourses.add(new long[]{id, courseId});
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate("insert into students (id, first_name, last_name, email) values (?, ?, ?, ?)", students);
+                jdbcTemplate.batchUpdate("insert into student_course_enrollments (student_id, course_id) values (?, ?)",
+                        studentCourses, studentCourses.size(), (ps, row) -> {
+                            ps.setLong(1, row[0]);
+                            ps.setLong(2, row[1]);
+                        });
+            });
+            enrollments += studentCourses.size();
+        }
+
+        long lastId = end - 1;
+        if (spec.getStudents() > 0) {
+            idSequence.movePast(lastId);
+        }
+        log.info("Generated {} students (ids {}..{}) with {} enrollments in {} ms", spec.getStudents(), firstId, lastId,
+                enrollments, (System.nanoTime() - started) / 1_000_000);
+        return new StudentDataset(firstId, lastId, enrollments);
+    }
+
+    /**
+     * Email of the generated student with the given id; unique because the id is.
+     */
+    public static String email(long id) {
+        return "student" + id + "@example.com";
+    }
+
+    private static long[] pickDistinct(ZipfSampler popularity, List<Long> coursesByPopularity, int count, SplittableRandom random) {
+        long[] picked = new long[count];
+        int found = 0;
+        while (found < count) {
+            long courseId = coursesByPopularity.get(popularity.sample(random));
+            boolean duplicate = false;
+            for (int i = 0; i < found && !duplicate; i++) {
+                duplicate = picked[i] == courseId;
+            }
+            if (!duplicate) {
+                picked[found++] = courseId;
+            }
+        }
+        return picked;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.studentservice.dataset;
+
+import com.example.studentservice.service.EnrollmentIndex;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * With the {@code dataset} profile active, appends a synthetic dataset shaped by
+ * {@code student-service.dataset.*} on startup, e.g.
+ * {@code --spring.profiles.active=dataset --student-service.dataset.students=1000000}.
+ * Every start with the profile adds another batch of students, so start with it once.
+ */
+@Component
+@Profile("dataset")
+@EnableConfigurationProperties(StudentDatasetProperties.class)
+public class StudentDatasetLoader implements ApplicationRunner {
+
+    private final DataSource dataSource;
+    private final StudentDatasetProperties properties;
+    private final EnrollmentIndex enrollmentIndex;
+
+    public StudentDatasetLoader(DataSource dataSource, StudentDatasetProperties properties, EnrollmentIndex enrollmentIndex) {
+        this.dataSource = dataSource;
+        this.properties = properties;
+        this.enrollmentIndex = enrollmentIndex;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        new StudentDatasetGenerator(dataSource).generate(properties);
+        // The index was built from the tables before the rows were added
+        enrollmentIndex.rebuild();
+    }
+}
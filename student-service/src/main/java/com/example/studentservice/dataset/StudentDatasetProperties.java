@@ -0,0 +1,49 @@
+package com.example.studentservice.dataset;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Shape of the synthetic dataset written by {@link StudentDatasetGenerator}. Bound from
+ * {@code student-service.dataset.*} when the {@code dataset} profile is active; tests and benchmarks
+ * create it directly.
+ */
+@Data
+@ConfigurationProperties(prefix = "student-service.dataset")
+public class StudentDatasetProperties {
+
+    /**
+     * Number of students to insert.
+     */
+    private int students = 1_000_000;
+
+    /**
+     * Course ids enrollments are drawn from are 1..courses, which is what course-service's generator
+     * assigns on an empty database.
+     */
+    private int courses = 10_000;
+
+    /**
+     * Each student is enrolled in a uniformly drawn number of distinct courses within these bounds.
+     */
+    private int minCoursesPerStudent = 1;
+
+    private int maxCoursesPerStudent = 6;
+
+    /**
+     * Skew of course popularity: the course of popularity rank r is picked with probability
+     * proportional to 1/r^exponent. 0 spreads enrollments evenly; around 1 a handful of courses hold
+     * a large share of all enrollments.
+     */
+    private double zipfExponent = 1.0;
+
+    /**
+     * Students inserted (with their enrollments) per JDBC batch and transaction.
+     */
+    private int batchSize = 5_000;
+
+    /**
+     * Seed for names, enrollment counts and course picks, so the same settings give the same data.
+     */
+    private long seed = 42;
+}
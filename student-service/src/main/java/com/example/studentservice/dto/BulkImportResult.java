@@ -0,0 +1,20 @@
+package com.example.studentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Summary of a bulk import: row counts plus the outcome of every row, in file order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportResult {
+    private int total;
+    private int created;
+    private int failed;
+    private List<BulkImportRowResult> rows;
+}
@@ -0,0 +1,28 @@
+package com.example.studentservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one row of a bulk import. {@code line} is the 1-based line number in the uploaded
+ * file; {@code id} is set for created students and {@code error} for failed rows.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkImportRowResult {
+
+    public enum Status {
+        CREATED,
+        FAILED
+    }
+
+    private int line;
+    private String email;
+    private Status status;
+    private Long id;
+    private String error;
+}
@@ -0,0 +1,19 @@
+package com.example.studentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Mirrors course-service's CourseChangeEvent; course is null for DELETED events.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseChangeEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private long version;
+    private Type type;
+    private Long courseId;
+    private CourseDto course;
+}
@@ -0,0 +1,18 @@
+package com.example.studentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Mirrors course-service's CourseChangeFeed returned by GET /api/courses/changes.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseChangeFeed {
+    private String epoch;
+    private long version;
+    private boolean snapshot;
+    private List<CourseChangeEvent> events;
+}
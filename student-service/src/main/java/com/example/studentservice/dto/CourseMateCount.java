@@ -0,0 +1,16 @@
+package com.example.studentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of other students who share at least one course with the given student.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseMateCount {
+    private Long studentId;
+    private long count;
+}
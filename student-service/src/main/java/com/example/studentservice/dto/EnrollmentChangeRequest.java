@@ -0,0 +1,19 @@
+package com.example.studentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * Body of PATCH /api/students/{id}/courses: course ids to enroll the student in and to drop.
+ * Either set may be omitted.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentChangeRequest {
+    private Set<Long> add;
+    private Set<Long> remove;
+}
@@ -0,0 +1,23 @@
+package com.example.studentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Students matching a set query over course enrollments.
+ * <p>
+ * {@code count} is the total number of matches; {@code studentIds} holds one page of them in
+ * ascending order. {@code nextCursor} is passed as {@code after} to fetch the next page and is
+ * null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentQueryResult {
+    private long count;
+    private List<Long> studentIds;
+    private Long nextCursor;
+}
@@ -0,0 +1,20 @@
+package com.example.studentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Students looked up by id. {@code students} follows the order of the requested ids (each id once,
+ * at its first position); {@code missingIds} lists the requested ids that match no student, in the
+ * same order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentBatch {
+    private List<StudentResponse> students;
+    private List<Long> missingIds;
+}
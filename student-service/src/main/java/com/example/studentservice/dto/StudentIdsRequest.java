@@ -0,0 +1,17 @@
+package com.example.studentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Body of POST /api/students/byIds: the students to return, in the order they should be returned.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentIdsRequest {
+    private List<Long> studentIds;
+}
@@ -0,0 +1,20 @@
+package com.example.studentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset-paginated slice of students. {@code nextCursor} is the id to pass as
+ * {@code after} to fetch the following page, or {@code null} on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentPage {
+    private List<StudentResponse> content;
+    private int limit;
+    private Long nextCursor;
+}
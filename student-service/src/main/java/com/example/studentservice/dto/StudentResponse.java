@@ -1,18 +1,34 @@
 package com.example.studentservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.Set;
 
+// Fields left out with ?fields= (and courses, unless expanded) are null and omitted from the JSON
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class StudentResponse {
     private Long id;
     private String firstName;
     private String lastName;
     private String email;
+    private Set<Long> courseIds;
     private Set<CourseDto> courses;
-}
\ No newline at end of file
+
+    // Only present (true) when Course Service could not be reached and some of the student's
+    // courses are missing from 'courses'
+    private Boolean coursesUnavailable;
+
+    public StudentResponse(Long id, String firstName, String lastName, String email, Set<CourseDto> courses) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.courses = courses;
+    }
+}
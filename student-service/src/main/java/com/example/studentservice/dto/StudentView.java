@@ -0,0 +1,102 @@
+package com.example.studentservice.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Shape of a student read, from {@code ?fields=} and {@code ?expand=}: which fields are loaded and
+ * returned (the id always is), and whether the enrolled courses' details are fetched from Course
+ * Service into {@code courses}. Without {@code expand=courses} only the {@code courseIds} are returned.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class StudentView {
+
+    public enum Field {
+        FIRST_NAME("firstName"),
+        LAST_NAME("lastName"),
+        EMAIL("email"),
+        COURSE_IDS("courseIds");
+
+        private final String property;
+
+        Field(String property) {
+            this.property = property;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+    }
+
+    public static final String EXPAND_COURSES = "courses";
+
+    /**
+     * Every field, no expansion: what a read without parameters returns.
+     */
+    public static final StudentView DEFAULT = new StudentView(EnumSet.allOf(Field.class), false);
+
+    private final Set<Field> fields;
+    private final boolean expandCourses;
+
+    private StudentView(Set<Field> fields, boolean expandCourses) {
+        this.fields = fields;
+        this.expandCourses = expandCourses;
+    }
+
+    public static StudentView of(Set<Field> fields, boolean expandCourses) {
+        return new StudentView(fields.isEmpty() ? EnumSet.noneOf(Field.class) : EnumSet.copyOf(fields), expandCourses);
+    }
+
+    /**
+     * Parses the request parameters; {@code null} or empty {@code fields} selects every field.
+     * Unknown names are rejected rather than ignored, so a typo does not silently drop data.
+     */
+    public static StudentView parse(Collection<String> fields, Collection<String> expand) {
+        boolean expandCourses = false;
+        if (expand != null) {
+            for (String name : expand) {
+                if (!EXPAND_COURSES.equals(name.trim())) {
+                    throw new IllegalArgumentException("Unknown expansion '" + name.trim() + "'. Only '" + EXPAND_COURSES + "' can be expanded.");
+                }
+                expandCourses = true;
+            }
+        }
+        if (fields == null || fields.isEmpty()) {
+            return new StudentView(EnumSet.allOf(Field.class), expandCourses);
+        }
+
+        Set<Field> selected = EnumSet.noneOf(Field.class);
+        for (String name : fields) {
+            String property = name.trim();
+            if (property.equals("id")) {
+                continue;
+            }
+            selected.add(Arrays.stream(Field.values())
+                    .filter(field -> field.property.equals(property))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown field '" + property + "'. Selectable fields are id, "
+                            + Arrays.stream(Field.values()).map(Field::getProperty).collect(Collectors.joining(", ")) + ".")));
+        }
+        return new StudentView(selected, expandCourses);
+    }
+
+    public boolean includes(Field field) {
+        return fields.contains(field);
+    }
+
+    /**
+     * Enrollments are read when returned or when needed to look up the expanded courses.
+     */
+    public boolean loadsCourseIds() {
+        return expandCourses || includes(Field.COURSE_IDS);
+    }
+}
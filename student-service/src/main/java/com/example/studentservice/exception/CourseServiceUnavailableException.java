@@ -0,0 +1,11 @@
+package com.example.studentservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class CourseServiceUnavailableException extends RuntimeException {
+    public CourseServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
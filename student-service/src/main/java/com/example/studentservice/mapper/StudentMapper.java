@@ -0,0 +1,26 @@
+package com.example.studentservice.mapper;
+
+import com.example.studentservice.dto.StudentRequest;
+import com.example.studentservice.dto.StudentResponse;
+import com.example.studentservice.model.Student;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Maps between {@link Student} and its DTOs. The implementation is generated at compile time
+ * (plain getter/setter calls, no reflection); an unmapped target property fails the build.
+ */
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface StudentMapper {
+
+    // The id is generated on insert; a missing courseIds keeps the entity's empty set
+    @Mapping(target = "id", ignore = true)
+    Student toEntity(StudentRequest request);
+
+    // Courses are resolved from Course Service by the caller
+    @Mapping(target = "courses", ignore = true)
+    @Mapping(target = "coursesUnavailable", ignore = true)
+    StudentResponse toResponse(Student student);
+}
@@ -12,8 +12,11 @@ import java.util.Set;
 @Data
 @NoArgsConstructor
 public class Student {
+    // Pooled sequence ids (allocated 50 at a time) instead of IDENTITY, so Hibernate can batch inserts.
+    // StudentIdSequence moves the sequence past ids stored before the switch.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "student_seq")
+    @SequenceGenerator(name = "student_seq", sequenceName = "students_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "first_name", nullable = false)
@@ -25,9 +28,11 @@ public class Student {
     @Column(name = "email", nullable = false, unique = true)
     private String email;
 
+    // The (course_id, student_id) index serves "students in course X" lookups, keyset-paginated by student id
     @ElementCollection
     @CollectionTable(name = "student_course_enrollments",
-            joinColumns = @JoinColumn(name = "student_id"))
+            joinColumns = @JoinColumn(name = "student_id"),
+            indexes = @Index(name = "idx_enrollments_course_student", columnList = "course_id, student_id"))
     @Column(name = "course_id")
     private Set<Long> courseIds = new HashSet<>();
 
@@ -0,0 +1,79 @@
+package com.example.studentservice.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * The {@code students_seq} sequence that {@code Student} ids are allocated from.
+ * <p>
+ * Student ids used to come from an IDENTITY column. On a database that already holds students,
+ * Hibernate creates the sequence starting at 1, and the pooled generator would then hand out ids
+ * that are already taken. At startup the sequence is therefore moved past {@code max(id)} of
+ * {@code students} when it is behind; a sequence that is already ahead is left alone, so instances
+ * starting next to running ones do not move it. Sequence handling covers MySQL and H2.
+ */
+@Component
+public class StudentIdSequence implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentIdSequence.class);
+
+    /**
+     * allocationSize of the students_seq generator on {@code Student}.
+     */
+    public static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StudentIdSequence(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from students", Long.class);
+        if (maxId == 0) {
+            return;
+        }
+        long next = nextValue();
+        if (next < maxId + ALLOCATION_SIZE) {
+            movePast(maxId);
+            log.info("Moved students_seq from {} past the highest stored student id {}", next, maxId);
+        }
+    }
+
+    /**
+     * The value the sequence returns next. Hibernate may already have reserved the ids below it.
+     */
+    public long nextValue() {
+        String sql = isMySql() ? "select next_val from students_seq"
+                : "select base_value from information_schema.sequences where upper(sequence_name) = 'STUDENTS_SEQ'";
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    /**
+     * Moves the sequence so that every id it hands out from now on is above {@code lastId}.
+     */
+    public void movePast(long lastId) {
+        // With the pooled optimizer Hibernate hands out the ids (value - allocationSize, value] for each
+        // sequence value it reads, so the next value must be at least lastId + allocationSize
+        long next = lastId + ALLOCATION_SIZE;
+        if (isMySql()) {
+            jdbcTemplate.update("update students_seq set next_val = ?", next);
+        } else {
+            jdbcTemplate.execute("alter sequence students_seq restart with " + next);
+        }
+    }
+
+    // Hibernate emulates sequences with a one-row table on MySQL; H2 has real ones
+    private boolean isMySql() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        return database != null && database.toLowerCase(Locale.ROOT).contains("mysql");
+    }
+}
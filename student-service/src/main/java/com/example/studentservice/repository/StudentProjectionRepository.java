@@ -0,0 +1,21 @@
+package com.example.studentservice.repository;
+
+import com.example.studentservice.dto.StudentResponse;
+import com.example.studentservice.dto.StudentView;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads of only the columns a {@link StudentView} selects, straight into responses, without loading
+ * or managing {@code Student} entities.
+ */
+public interface StudentProjectionRepository {
+
+    /**
+     * The students with the given ids, or all students when {@code ids} is {@code null}, in id order.
+     * Only the view's fields are set; {@code courseIds} is read (in one extra query) when the view
+     * {@link StudentView#loadsCourseIds() needs it}. Unknown ids are skipped.
+     */
+    List<StudentResponse> findProjections(Collection<Long> ids, StudentView view);
+}
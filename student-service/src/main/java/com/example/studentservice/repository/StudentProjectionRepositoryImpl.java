@@ -0,0 +1,86 @@
+package com.example.studentservice.repository;
+
+import com.example.studentservice.dto.StudentResponse;
+import com.example.studentservice.dto.StudentView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+class StudentProjectionRepositoryImpl implements StudentProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<StudentResponse> findProjections(Collection<Long> ids, StudentView view) {
+        if (ids != null && ids.isEmpty()) {
+            return List.of();
+        }
+
+        // The select list is built from the enum constants only, never from request input
+        StringBuilder jpql = new StringBuilder("select s.id as id");
+        for (StudentView.Field field : view.getFields()) {
+            if (field != StudentView.Field.COURSE_IDS) {
+                jpql.append(", s.").append(field.getProperty()).append(" as ").append(field.getProperty());
+            }
+        }
+        jpql.append(" from Student s");
+        if (ids != null) {
+            jpql.append(" where s.id in :ids");
+        }
+        jpql.append(" order by s.id");
+
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class);
+        if (ids != null) {
+            query.setParameter("ids", ids);
+        }
+        List<StudentResponse> students = new ArrayList<>();
+        for (Tuple row : query.getResultList()) {
+            StudentResponse student = new StudentResponse();
+            student.setId(row.get("id", Long.class));
+            if (view.includes(StudentView.Field.FIRST_NAME)) {
+                student.setFirstName(row.get("firstName", String.class));
+            }
+            if (view.includes(StudentView.Field.LAST_NAME)) {
+                student.setLastName(row.get("lastName", String.class));
+            }
+            if (view.includes(StudentView.Field.EMAIL)) {
+                student.setEmail(row.get("email", String.class));
+            }
+            students.add(student);
+        }
+
+        if (view.loadsCourseIds() && !students.isEmpty()) {
+            Map<Long, StudentResponse> byId = new HashMap<>();
+            for (StudentResponse student : students) {
+                student.setCourseIds(new HashSet<>());
+                byId.put(student.getId(), student);
+            }
+            for (Object[] enrollment : findEnrollments(ids)) {
+                StudentResponse student = byId.get((Long) enrollment[0]);
+                // Null for a student created after the first query ran
+                if (student != null) {
+                    student.getCourseIds().add((Long) enrollment[1]);
+                }
+            }
+        }
+        return students;
+    }
+
+    private List<Object[]> findEnrollments(Collection<Long> ids) {
+        String jpql = "select s.id, c from Student s join s.courseIds c" + (ids != null ? " where s.id in :ids" : "");
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class);
+        if (ids != null) {
+            query.setParameter("ids", ids);
+        }
+        return query.getResultList();
+    }
+}
@@ -1,12 +1,50 @@
 package com.example.studentservice.repository;
 
 import com.example.studentservice.model.Student;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends JpaRepository<Student, Long>, StudentProjectionRepository {
     Optional<Student> findByEmail(String email);
-}
\ No newline at end of file
+
+    // Set-based duplicate check for bulk imports
+    @Query("select s.email from Student s where s.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Enrollments are fetched in the same query instead of one extra SELECT
+    @Override
+    @EntityGraph(attributePaths = "courseIds")
+    Optional<Student> findById(Long id);
+
+    // SELECT ... FOR UPDATE for writes to a student's enrollments: concurrent updates of the same student
+    // queue on the row lock and each sees the enrollments the previous one committed. The collection is
+    // loaded after the lock is taken, so no entity graph here.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from Student s where s.id = :id")
+    Optional<Student> findByIdForUpdate(@Param("id") Long id);
+
+    // Keyset pagination: a range scan on the primary key, so cost does not grow with the offset.
+    // Only ids are selected here; a row limit cannot be combined with a collection fetch join,
+    // so the page's students and their enrollments are loaded afterwards by id (findProjections).
+    @Query("select s.id from Student s where s.id > :after order by s.id asc")
+    List<Long> findIdsAfter(@Param("after") Long after, Limit limit);
+
+    // Reverse enrollment lookups, answered from the idx_enrollments_course_student index alone
+    @Query(value = "select student_id from student_course_enrollments where course_id = :courseId and student_id > :after"
+            + " order by student_id asc limit :limit", nativeQuery = true)
+    List<Long> findStudentIdsByCourse(@Param("courseId") Long courseId, @Param("after") Long after, @Param("limit") int limit);
+
+    @Query(value = "select count(*) from student_course_enrollments where course_id = :courseId", nativeQuery = true)
+    long countByCourse(@Param("courseId") Long courseId);
+}
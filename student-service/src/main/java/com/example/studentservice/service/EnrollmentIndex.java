@@ -0,0 +1,289 @@
+package com.example.studentservice.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * In-memory index of enrollments: one compressed (Roaring) bitmap of student ids per course id.
+ * <p>
+ * Set queries across courses ("in A and B", "in A but not B", "in any of A, B") are answered by
+ * bitmap AND/OR/ANDNOT instead of SQL self-joins over {@code student_course_enrollments}. The index
+ * is built from that table before the application starts serving requests and is then kept current
+ * from {@link StudentEnrollmentsChangedEvent}s, applied after each write commits. Those events are
+ * local to this instance, so the index is also rebuilt from the database every
+ * {@code student-service.enrollment-index.refresh-interval}: writes committed through other Student
+ * Service instances (or bypassing the services, e.g. manual SQL) show up within that interval.
+ * Queries answered from the index are therefore eventually consistent across instances.
+ * <p>
+ * Heap footprint is published as the {@code student.enrollment.index.size} gauge (bytes), next to
+ * the number of indexed courses and enrollments.
+ */
+@Component
+public class EnrollmentIndex implements SmartInitializingSingleton, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentIndex.class);
+
+    // Students whose enrollments are read per query while building the index
+    private static final int BUILD_BATCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration refreshInterval;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, Roaring64Bitmap> studentsByCourse = new HashMap<>();
+    // Events applied while a rebuild reads the database, replayed onto the rebuilt index
+    private List<StudentEnrollmentsChangedEvent> appliedDuringRebuild;
+
+    private volatile boolean running;
+    private Thread refresher;
+
+    public EnrollmentIndex(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                           @Value("${student-service.enrollment-index.refresh-interval:1m}") Duration refreshInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.refreshInterval = refreshInterval;
+        registerGauge(meterRegistry, "student.enrollment.index.size", "bytes",
+                "Estimated heap used by the enrollment bitmaps", Roaring64Bitmap::getLongSizeInBytes);
+        registerGauge(meterRegistry, "student.enrollment.index.enrollments", null,
+                "Enrollments held in the enrollment index", Roaring64Bitmap::getLongCardinality);
+        Gauge.builder("student.enrollment.index.courses", this, EnrollmentIndex::courseCount)
+                .description("Courses with at least one enrollment in the enrollment index")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Reloads the whole index from the database. Writes this instance commits while the rebuild
+     * runs are replayed onto the result; other instances' writes the reads missed are picked up by
+     * the next rebuild.
+     */
+    public synchronized void rebuild() {
+        long started = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            appliedDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Map<Long, Roaring64Bitmap> rebuilt = new HashMap<>();
+        long after = 0L;
+        List<Long> studentIds;
+        // Page over student ids so that a large table is never read into one result set
+        do {
+            studentIds = jdbcTemplate.queryForList(
+                    "select id from students where id > ? order by id limit ?", Long.class, after, BUILD_BATCH_SIZE);
+            if (studentIds.isEmpty()) {
+                break;
+            }
+            long last = studentIds.get(studentIds.size() - 1);
+            jdbcTemplate.query("select course_id, student_id from student_course_enrollments where student_id > ? and student_id <= ?",
+                    rs -> {
+                        rebuilt.computeIfAbsent(rs.getLong(1), courseId -> new Roaring64Bitmap()).addLong(rs.getLong(2));
+                    }, after, last);
+            after = last;
+        } while (studentIds.size() == BUILD_BATCH_SIZE);
+        rebuilt.values().forEach(Roaring64Bitmap::runOptimize);
+
+        lock.writeLock().lock();
+        try {
+            appliedDuringRebuild.forEach(event -> apply(rebuilt, event));
+            appliedDuringRebuild = null;
+            studentsByCourse = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Enrollment index built for {} courses in {} ms", rebuilt.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentsChanged(StudentEnrollmentsChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            apply(studentsByCourse, event);
+            if (appliedDuringRebuild != null) {
+                appliedDuringRebuild.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        if (refreshInterval.isZero() || refreshInterval.isNegative()) {
+            return;
+        }
+        refresher = new Thread(this::refreshLoop, "enrollment-index-refresh");
+        refresher.setDaemon(true);
+        refresher.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (refresher != null) {
+            refresher.interrupt();
+            refresher = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Returns the students enrolled in every course of {@code all}, in at least one course of
+     * {@code any} and in none of {@code none}. Empty or null sets are ignored, but {@code all} and
+     * {@code any} cannot both be empty. The result is a private copy the caller may modify.
+     */
+    public Roaring64Bitmap select(Collection<Long> all, Collection<Long> any, Collection<Long> none) {
+        boolean hasAll = all != null && !all.isEmpty();
+        boolean hasAny = any != null && !any.isEmpty();
+        if (!hasAll && !hasAny) {
+            throw new IllegalArgumentException("At least one course id must be given in 'all' or 'any'.");
+        }
+
+        lock.readLock().lock();
+        try {
+            Roaring64Bitmap result = null;
+            if (hasAll) {
+                List<Roaring64Bitmap> required = new ArrayList<>(all.size());
+                for (Long courseId : all) {
+                    Roaring64Bitmap students = studentsByCourse.get(courseId);
+                    if (students == null) {
+                        return new Roaring64Bitmap();
+                    }
+                    required.add(students);
+                }
+                // Start from the smallest course so every AND shrinks an already small bitmap
+                required.sort(Comparator.comparingLong(Roaring64Bitmap::getLongCardinality));
+                result = required.get(0).clone();
+                for (int i = 1; i < required.size() && !result.isEmpty(); i++) {
+                    result.and(required.get(i));
+                }
+            }
+            if (hasAny) {
+                Roaring64Bitmap union = new Roaring64Bitmap();
+                for (Long courseId : any) {
+                    Roaring64Bitmap students = studentsByCourse.get(courseId);
+                    if (students != null) {
+                        union.or(students);
+                    }
+                }
+                if (result == null) {
+                    result = union;
+                } else {
+                    result.and(union);
+                }
+            }
+            if (none != null) {
+                for (Long courseId : none) {
+                    Roaring64Bitmap students = studentsByCourse.get(courseId);
+                    if (students != null && !result.isEmpty()) {
+                        result.andNot(students);
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int courseCount() {
+        lock.readLock().lock();
+        try {
+            return studentsByCourse.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void refreshLoop() {
+        while (running) {
+            try {
+                Thread.sleep(refreshInterval.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.warn("Could not refresh the enrollment index, keeping the current one: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static void apply(Map<Long, Roaring64Bitmap> studentsByCourse, StudentEnrollmentsChangedEvent event) {
+        long studentId = event.getStudentId();
+        if (event.isDeleted()) {
+            studentsByCourse.values().removeIf(students -> {
+                students.removeLong(studentId);
+                return students.isEmpty();
+            });
+            return;
+        }
+        if (event.getRemovedCourseIds() != null) {
+            for (Long courseId : event.getRemovedCourseIds()) {
+                Roaring64Bitmap students = studentsByCourse.get(courseId);
+                if (students != null) {
+                    students.removeLong(studentId);
+                    if (students.isEmpty()) {
+                        studentsByCourse.remove(courseId);
+                    }
+                }
+            }
+        }
+        if (event.getAddedCourseIds() != null) {
+            for (Long courseId : event.getAddedCourseIds()) {
+                studentsByCourse.computeIfAbsent(courseId, id -> new Roaring64Bitmap()).addLong(studentId);
+            }
+        }
+    }
+
+    private void registerGauge(MeterRegistry meterRegistry, String name, String baseUnit, String description,
+                               ToDoubleFunction<Roaring64Bitmap> perCourse) {
+        Gauge.builder(name, this, index -> index.sum(perCourse))
+                .baseUnit(baseUnit)
+                .description(description)
+                .register(meterRegistry);
+    }
+
+    private double sum(ToDoubleFunction<Roaring64Bitmap> perCourse) {
+        lock.readLock().lock();
+        try {
+            double total = 0;
+            for (Roaring64Bitmap students : studentsByCourse.values()) {
+                total += perCourse.applyAsDouble(students);
+            }
+            return total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
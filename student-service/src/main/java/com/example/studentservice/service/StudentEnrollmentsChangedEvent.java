@@ -0,0 +1,28 @@
+package com.example.studentservice.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Set;
+
+/**
+ * Application event published for every write that changes a student's enrollments.
+ * It reaches the {@link EnrollmentIndex} only once the surrounding transaction commits.
+ */
+@Data
+@AllArgsConstructor
+public class StudentEnrollmentsChangedEvent {
+    private Long studentId;
+    private Set<Long> addedCourseIds;
+    private Set<Long> removedCourseIds;
+    // The student was deleted, so it is dropped from every course
+    private boolean deleted;
+
+    public static StudentEnrollmentsChangedEvent changed(Long studentId, Set<Long> added, Set<Long> removed) {
+        return new StudentEnrollmentsChangedEvent(studentId, added, removed, false);
+    }
+
+    public static StudentEnrollmentsChangedEvent deleted(Long studentId) {
+        return new StudentEnrollmentsChangedEvent(studentId, Set.of(), Set.of(), true);
+    }
+}
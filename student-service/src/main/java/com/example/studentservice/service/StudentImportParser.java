@@ -0,0 +1,221 @@
+package com.example.studentservice.service;
+
+import com.example.studentservice.dto.StudentRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads a bulk import body line by line into {@link Row}s. The raw payload is never buffered, only
+ * the parsed rows, which are capped at {@code maxRows}.
+ * <p>
+ * Supported formats:
+ * <ul>
+ *     <li>{@code application/x-ndjson}: one {@link StudentRequest} JSON object per line.</li>
+ *     <li>{@code text/csv}: a header line naming the {@code firstName}, {@code lastName}, {@code email}
+ *     and (optional) {@code courseIds} columns, then one student per line. Course ids within a field
+ *     are separated by {@code ;}. Fields may be double-quoted.</li>
+ * </ul>
+ * A row that cannot be parsed is returned with an error instead of failing the whole import.
+ */
+class StudentImportParser {
+
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
+    private static final List<String> REQUIRED_CSV_COLUMNS = List.of("firstname", "lastname", "email");
+
+    private final ObjectMapper objectMapper;
+    private final int maxRows;
+
+    StudentImportParser(ObjectMapper objectMapper, int maxRows) {
+        this.objectMapper = objectMapper;
+        this.maxRows = maxRows;
+    }
+
+    List<Row> parse(InputStream body, MediaType contentType) throws IOException {
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, charset));
+        if (NDJSON.isCompatibleWith(contentType)) {
+            return parseNdjson(reader);
+        }
+        if (CSV.isCompatibleWith(contentType)) {
+            return parseCsv(reader);
+        }
+        throw new IllegalArgumentException("Unsupported import format " + contentType + ". Use " + NDJSON + " or " + CSV + ".");
+    }
+
+    private List<Row> parseNdjson(BufferedReader reader) throws IOException {
+        List<Row> rows = new ArrayList<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            checkRowLimit(rows);
+            try {
+                rows.add(new Row(lineNumber, objectMapper.readValue(line, StudentRequest.class)));
+            } catch (JsonProcessingException e) {
+                rows.add(Row.failed(lineNumber, "Malformed JSON: " + e.getOriginalMessage()));
+            }
+        }
+        return rows;
+    }
+
+    private List<Row> parseCsv(BufferedReader reader) throws IOException {
+        List<Row> rows = new ArrayList<>();
+        Map<String, Integer> columns = null;
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields;
+            try {
+                fields = splitCsvLine(line);
+            } catch (IllegalArgumentException e) {
+                if (columns == null) {
+                    throw new IllegalArgumentException("Malformed CSV header: " + e.getMessage());
+                }
+                rows.add(Row.failed(lineNumber, e.getMessage()));
+                continue;
+            }
+            if (columns == null) {
+                columns = readHeader(fields);
+                continue;
+            }
+            checkRowLimit(rows);
+            rows.add(toRow(lineNumber, fields, columns));
+        }
+        return rows;
+    }
+
+    private Map<String, Integer> readHeader(List<String> fields) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            columns.put(fields.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : REQUIRED_CSV_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header must contain the columns firstName, lastName, email and optionally courseIds.");
+            }
+        }
+        return columns;
+    }
+
+    private Row toRow(int lineNumber, List<String> fields, Map<String, Integer> columns) {
+        if (fields.size() < columns.size()) {
+            return Row.failed(lineNumber, "Expected " + columns.size() + " columns but found " + fields.size() + ".");
+        }
+        StudentRequest request = new StudentRequest();
+        request.setFirstName(emptyToNull(fields.get(columns.get("firstname"))));
+        request.setLastName(emptyToNull(fields.get(columns.get("lastname"))));
+        request.setEmail(emptyToNull(fields.get(columns.get("email"))));
+        Integer courseIdsColumn = columns.get("courseids");
+        if (courseIdsColumn != null) {
+            Set<Long> courseIds = new LinkedHashSet<>();
+            for (String value : fields.get(courseIdsColumn).split(";")) {
+                if (value.isBlank()) {
+                    continue;
+                }
+                try {
+                    courseIds.add(Long.parseLong(value.trim()));
+                } catch (NumberFormatException e) {
+                    return Row.failed(lineNumber, "Invalid course id '" + value.trim() + "'.");
+                }
+            }
+            request.setCourseIds(courseIds);
+        }
+        return new Row(lineNumber, request);
+    }
+
+    private void checkRowLimit(List<Row> rows) {
+        if (rows.size() >= maxRows) {
+            throw new IllegalArgumentException("Import exceeds the maximum of " + maxRows + " rows.");
+        }
+    }
+
+    // Splits one CSV record on commas, honouring double-quoted fields and "" escapes
+    private static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field.");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static String emptyToNull(String value) {
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /**
+     * One data line of the import. {@code request} is null when the line could not be parsed.
+     */
+    static class Row {
+        final int line;
+        final StudentRequest request;
+        String error;
+        Long id;
+
+        Row(int line, StudentRequest request) {
+            this.line = line;
+            this.request = request;
+        }
+
+        static Row failed(int line, String error) {
+            Row row = new Row(line, null);
+            row.error = error;
+            return row;
+        }
+
+        boolean isPending() {
+            return error == null && id == null;
+        }
+
+        String email() {
+            return request != null ? request.getEmail() : null;
+        }
+    }
+}
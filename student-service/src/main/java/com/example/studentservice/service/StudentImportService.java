@@ -0,0 +1,11 @@
+package com.example.studentservice.service;
+
+import com.example.studentservice.dto.BulkImportResult;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface StudentImportService {
+    BulkImportResult importStudents(InputStream body, MediaType contentType) throws IOException;
+}
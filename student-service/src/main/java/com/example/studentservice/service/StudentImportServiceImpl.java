@@ -0,0 +1,227 @@
+package com.example.studentservice.service;
+
+import com.example.studentservice.client.CourseServiceClient;
+import com.example.studentservice.dto.BulkImportResult;
+import com.example.studentservice.dto.BulkImportRowResult;
+import com.example.studentservice.dto.CourseDto;
+import com.example.studentservice.dto.StudentRequest;
+import com.example.studentservice.exception.CourseServiceUnavailableException;
+import com.example.studentservice.model.Student;
+import com.example.studentservice.repository.StudentRepository;
+import com.example.studentservice.service.StudentImportParser.Row;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Imports students in bulk.
+ * <p>
+ * Instead of paying a duplicate check, a course validation call and a single-row insert per
+ * student, the whole file is validated with one set-based email query (chunked IN lists) and one
+ * deduplicated course lookup, and the valid rows are inserted in chunks of
+ * {@code student-service.bulk-import.chunk-size}, each in its own transaction so a failing chunk
+ * does not roll back the others. A chunk that fails is retried row by row, so only the rows that
+ * actually fail are reported. Inserts within a chunk are JDBC-batched (see
+ * {@code hibernate.jdbc.batch_size} and the pooled {@code students_seq} id generator on {@link Student}).
+ * <p>
+ * The body is read as a stream, but its parsed rows are held until the file ends (at most
+ * {@code student-service.bulk-import.max-rows}): the file-wide checks above need every row, and a
+ * file over the limit is rejected before anything is inserted.
+ */
+@Service
+public class StudentImportServiceImpl implements StudentImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentImportServiceImpl.class);
+
+    private static final int EMAIL_QUERY_CHUNK_SIZE = 1000;
+
+    private final StudentRepository studentRepository;
+    private final CourseServiceClient courseServiceClient;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StudentImportParser parser;
+    private final int chunkSize;
+
+    public StudentImportServiceImpl(StudentRepository studentRepository, CourseServiceClient courseServiceClient,
+                                    Validator validator, PlatformTransactionManager transactionManager,
+                                    EntityManager entityManager, ObjectMapper objectMapper,
+                                    ApplicationEventPublisher eventPublisher,
+                                    @Value("${student-service.bulk-import.chunk-size:500}") int chunkSize,
+                                    @Value("${student-service.bulk-import.max-rows:100000}") int maxRows) {
+        this.studentRepository = studentRepository;
+        this.courseServiceClient = courseServiceClient;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.parser = new StudentImportParser(objectMapper, maxRows);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    @Override
+    public BulkImportResult importStudents(InputStream body, MediaType contentType) throws IOException {
+        List<Row> rows = parser.parse(body, contentType);
+
+        validateFields(rows);
+        rejectDuplicateEmails(rows);
+        rejectUnknownCourses(rows);
+        insertInChunks(rows.stream().filter(Row::isPending).collect(Collectors.toList()));
+
+        List<BulkImportRowResult> results = new ArrayList<>(rows.size());
+        int created = 0;
+        for (Row row : rows) {
+            if (row.id != null) {
+                created++;
+                results.add(new BulkImportRowResult(row.line, row.email(), BulkImportRowResult.Status.CREATED, row.id, null));
+            } else {
+                results.add(new BulkImportRowResult(row.line, row.email(), BulkImportRowResult.Status.FAILED, null, row.error));
+            }
+        }
+        log.info("Bulk import finished: {} rows, {} created, {} failed", rows.size(), created, rows.size() - created);
+        return new BulkImportResult(rows.size(), created, rows.size() - created, results);
+    }
+
+    // Same constraints as POST /api/students
+    private void validateFields(List<Row> rows) {
+        for (Row row : rows) {
+            if (!row.isPending()) {
+                continue;
+            }
+            Set<ConstraintViolation<StudentRequest>> violations = validator.validate(row.request);
+            if (!violations.isEmpty()) {
+                row.error = violations.stream()
+                        .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .collect(Collectors.joining("; "));
+            }
+        }
+    }
+
+    // Rejects emails repeated within the file (all but the first occurrence) and emails already stored.
+    // Compared case-insensitively, as the unique index is under MySQL's default collation.
+    private void rejectDuplicateEmails(List<Row> rows) {
+        Set<String> seen = new HashSet<>();
+        for (Row row : rows) {
+            if (row.isPending() && !seen.add(normalize(row.email()))) {
+                row.error = "Duplicate email " + row.email() + " in import.";
+            }
+        }
+
+        List<String> candidates = rows.stream().filter(Row::isPending).map(Row::email).collect(Collectors.toList());
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < candidates.size(); from += EMAIL_QUERY_CHUNK_SIZE) {
+            List<String> chunk = candidates.subList(from, Math.min(from + EMAIL_QUERY_CHUNK_SIZE, candidates.size()));
+            studentRepository.findExistingEmails(chunk).forEach(email -> existing.add(normalize(email)));
+        }
+        for (Row row : rows) {
+            if (row.isPending() && existing.contains(normalize(row.email()))) {
+                row.error = "Student with email " + row.email() + " already exists.";
+            }
+        }
+    }
+
+    private void rejectUnknownCourses(List<Row> rows) {
+        Set<Long> courseIds = new HashSet<>();
+        for (Row row : rows) {
+            if (row.isPending() && row.request.getCourseIds() != null) {
+                courseIds.addAll(row.request.getCourseIds());
+            }
+        }
+        if (courseIds.isEmpty()) {
+            return;
+        }
+
+        // One deduplicated lookup for the whole file (the client splits it into batch-size requests)
+        Map<Long, CourseDto> existing;
+        try {
+            existing = courseServiceClient.findExistingCourses(courseIds);
+        } catch (RuntimeException e) {
+            throw new CourseServiceUnavailableException("Course Service is temporarily unavailable, so course enrollments cannot be validated. Please retry the import later.", e);
+        }
+        for (Row row : rows) {
+            if (!row.isPending() || row.request.getCourseIds() == null) {
+                continue;
+            }
+            Set<Long> unknown = row.request.getCourseIds().stream()
+                    .filter(id -> !existing.containsKey(id))
+                    .collect(Collectors.toCollection(TreeSet::new));
+            if (!unknown.isEmpty()) {
+                row.error = "One or more courses with IDs " + unknown + " do not exist.";
+            }
+        }
+    }
+
+    private void insertInChunks(List<Row> rows) {
+        for (int from = 0; from < rows.size(); from += chunkSize) {
+            List<Row> chunk = rows.subList(from, Math.min(from + chunkSize, rows.size()));
+            try {
+                insert(chunk);
+            } catch (DataAccessException | PersistenceException | TransactionException e) {
+                // Typically a student created concurrently with the same email. One bad row rolls back the
+                // whole chunk, so its rows are retried one transaction each and only the bad ones fail.
+                log.warn("Bulk import chunk of {} rows starting at line {} failed, retrying row by row: {}", chunk.size(), chunk.get(0).line, e.getMessage());
+                for (Row row : chunk) {
+                    try {
+                        insert(List.of(row));
+                    } catch (DataAccessException | PersistenceException | TransactionException rowFailure) {
+                        row.error = "Insert failed: " + rowFailure.getMessage();
+                    }
+                }
+            }
+        }
+    }
+
+    // Inserts the rows in one transaction and records their ids once it has committed
+    private void insert(List<Row> rows) {
+        List<Student> students = rows.stream()
+                .map(row -> new Student(row.request.getFirstName(), row.request.getLastName(),
+                        row.request.getEmail(), row.request.getCourseIds()))
+                .collect(Collectors.toList());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                studentRepository.saveAll(students);
+                entityManager.flush();
+                // Delivered to the enrollment index only if the transaction commits
+                students.forEach(student -> eventPublisher.publishEvent(
+                        StudentEnrollmentsChangedEvent.changed(student.getId(), student.getCourseIds(), Set.of())));
+            });
+        } finally {
+            // Keep the persistence context from growing with every chunk (it would outlive the
+            // transaction if open-in-view were turned back on)
+            entityManager.clear();
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i).id = students.get(i).getId();
+        }
+    }
+
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,15 +1,32 @@
 package com.example.studentservice.service;
 
+import com.example.studentservice.dto.CourseMateCount;
+import com.example.studentservice.dto.EnrollmentChangeRequest;
+import com.example.studentservice.dto.EnrollmentQueryResult;
+import com.example.studentservice.dto.StudentBatch;
+import com.example.studentservice.dto.StudentPage;
 import com.example.studentservice.dto.StudentRequest;
 import com.example.studentservice.dto.StudentResponse;
+import com.example.studentservice.dto.StudentView;
 
 import java.util.List;
+import java.util.Set;
 
 public interface StudentService {
-    List<StudentResponse> getAllStudents();
-    StudentResponse getStudentById(Long id);
+    // Reads take a view: only its fields, read with a projection; Course Service is only called to expand courses
+    List<StudentResponse> getAllStudents(StudentView view);
+    StudentPage getStudentsPage(Long after, int limit, StudentView view);
+    StudentResponse getStudentById(Long id, StudentView view);
+    StudentBatch getStudentsByIds(List<Long> ids, StudentView view);
+    StudentPage getStudentsByCourse(Long courseId, Long after, int limit, StudentView view);
+    long countStudentsByCourse(Long courseId);
+    EnrollmentQueryResult findStudentsByCourses(Set<Long> all, Set<Long> any, Set<Long> none, Long after, int limit);
+    CourseMateCount countCourseMates(Long id);
     StudentResponse createStudent(StudentRequest studentRequest);
     StudentResponse updateStudent(Long id, StudentRequest studentRequest);
     void deleteStudent(Long id);
+    StudentResponse enrollInCourse(Long id, Long courseId);
+    StudentResponse dropCourse(Long id, Long courseId);
+    StudentResponse updateEnrollments(Long id, EnrollmentChangeRequest request);
 
 }
\ No newline at end of file
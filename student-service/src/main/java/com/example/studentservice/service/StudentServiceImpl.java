@@ -1,49 +1,76 @@
 // src/main/java/com/example/studentservice/service/StudentServiceImpl.java
 package com.example.studentservice.service;
 
+import com.example.studentservice.client.CourseLookup;
+import com.example.studentservice.client.CourseServiceClient;
 import com.example.studentservice.dto.CourseDto;
+import com.example.studentservice.dto.CourseMateCount;
+import com.example.studentservice.dto.EnrollmentChangeRequest;
+import com.example.studentservice.dto.EnrollmentQueryResult;
+import com.example.studentservice.dto.StudentBatch;
+import com.example.studentservice.dto.StudentPage;
 import com.example.studentservice.dto.StudentRequest;
 import com.example.studentservice.dto.StudentResponse;
-import com.example.studentservice.dto.CourseValidationRequest;
+import com.example.studentservice.dto.StudentView;
 import com.example.studentservice.exception.ResourceNotFoundException;
+import com.example.studentservice.mapper.StudentMapper;
 import com.example.studentservice.model.Student;
 import com.example.studentservice.repository.StudentRepository;
-import org.modelmapper.ModelMapper;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.roaringbitmap.longlong.PeekableLongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.ResourceAccessException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Arrays;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Student use cases on top of {@link StudentRepository} and {@link CourseServiceClient}.
+ * <p>
+ * Open-in-view is off, so a database connection is only held for the duration of a transaction:
+ * a single repository call, or a {@code transactionTemplate}/{@code readOnlyTransaction} block when
+ * several statements belong together. No transaction is open while Course Service is called, so a
+ * slow Course Service cannot drain the connection pool. Reads therefore return fully loaded data
+ * (entities with their enrollments fetched, or projections) before any course lookup starts.
+ * <p>
+ * The expanded student list is read as a pipeline: each page's new course ids are looked up in the
+ * background ({@link CourseServiceClient#fetchCoursesAsync}) while the next page is read.
+ */
 @Service
 public class StudentServiceImpl implements StudentService {
 
-    private static final Logger log = LoggerFactory.getLogger(StudentServiceImpl.class);
+    static final int MAX_PAGE_SIZE = 1000;
 
     private final StudentRepository studentRepository;
-    private final ModelMapper modelMapper;
-    private final RestTemplate restTemplate;
-
-    private static final String COURSE_SERVICE_NAME = "COURSE-SERVICE"; // This is the Eureka Service ID
-
-    public StudentServiceImpl(StudentRepository studentRepository, ModelMapper modelMapper,
-                              RestTemplate restTemplate) {
+    private final StudentMapper studentMapper;
+    private final CourseServiceClient courseServiceClient;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final EnrollmentIndex enrollmentIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public StudentServiceImpl(StudentRepository studentRepository, StudentMapper studentMapper,
+                              CourseServiceClient courseServiceClient, PlatformTransactionManager transactionManager,
+                              EnrollmentIndex enrollmentIndex, ApplicationEventPublisher eventPublisher) {
         this.studentRepository = studentRepository;
-        this.modelMapper = modelMapper;
-        this.restTemplate = restTemplate;
+        this.studentMapper = studentMapper;
+        this.courseServiceClient = courseServiceClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enrollmentIndex = enrollmentIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -52,49 +79,194 @@ public class StudentServiceImpl implements StudentService {
             throw new IllegalArgumentException("Student with email " + studentRequest.getEmail() + " already exists.");
         }
 
-        Set<Long> courseIds = studentRequest.getCourseIds();
-        if (courseIds != null && !courseIds.isEmpty()) {
-            validateCoursesExist(courseIds);
-        }
+        // The validation lookup already returns the course details, so it doubles as enrichment
+        Map<Long, CourseDto> coursesById = courseServiceClient.validateCoursesExist(studentRequest.getCourseIds());
 
-        Student student = modelMapper.map(studentRequest, Student.class);
+        Student student = studentMapper.toEntity(studentRequest);
         Student savedStudent = studentRepository.save(student);
+        eventPublisher.publishEvent(StudentEnrollmentsChangedEvent.changed(savedStudent.getId(), savedStudent.getCourseIds(), Set.of()));
+        return toResponse(savedStudent, coursesById);
+    }
 
-        Set<CourseDto> courses = new HashSet<>();
-        if (savedStudent.getCourseIds() != null && !savedStudent.getCourseIds().isEmpty()) {
-            courses = fetchCoursesByIds(savedStudent.getCourseIds());
+    @Override
+    public List<StudentResponse> getAllStudents(StudentView view) {
+        if (!view.isExpandCourses()) {
+            return readOnlyTransaction.execute(status -> studentRepository.findProjections(null, view));
         }
 
-        StudentResponse response = modelMapper.map(savedStudent, StudentResponse.class);
-        response.setCourses(courses);
-        return response;
+        List<StudentResponse> students = new ArrayList<>();
+        List<CompletableFuture<CourseLookup>> lookups = new ArrayList<>();
+        Set<Long> requestedCourseIds = new HashSet<>();
+        try {
+            Long cursor = 0L;
+            boolean hasMore = true;
+            while (hasMore) {
+                long after = cursor;
+                // The cursor comes from the page's ids, not its rows: a student deleted between the two
+                // reads must not look like the end of the listing
+                StudentPage page = readOnlyTransaction.execute(status ->
+                        projectPage(studentRepository.findIdsAfter(after, Limit.of(MAX_PAGE_SIZE + 1)), MAX_PAGE_SIZE, view));
+                cursor = page.getNextCursor();
+                hasMore = cursor != null;
+                students.addAll(page.getContent());
+
+                Set<Long> newCourseIds = new HashSet<>();
+                for (StudentResponse student : page.getContent()) {
+                    for (Long courseId : student.getCourseIds()) {
+                        if (requestedCourseIds.add(courseId)) {
+                            newCourseIds.add(courseId);
+                        }
+                    }
+                }
+                if (!newCourseIds.isEmpty()) {
+                    // Nothing is left to overlap with on the last page, so that lookup stays on this thread
+                    lookups.add(hasMore ? courseServiceClient.fetchCoursesAsync(newCourseIds)
+                            : CompletableFuture.completedFuture(courseServiceClient.fetchCourses(newCourseIds)));
+                }
+            }
+
+            Map<Long, CourseDto> coursesById = new HashMap<>();
+            boolean unavailable = false;
+            for (CompletableFuture<CourseLookup> lookup : lookups) {
+                CourseLookup courses = lookup.join();
+                coursesById.putAll(courses.getCourses());
+                unavailable |= courses.isUnavailable();
+            }
+            return attachAll(students, new CourseLookup(coursesById, unavailable), view);
+        } catch (RuntimeException e) {
+            // A failed page read or lookup leaves the other lookups with nobody waiting for them
+            lookups.forEach(lookup -> lookup.cancel(false));
+            throw e instanceof CompletionException && e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    @Override
+    public StudentPage getStudentsPage(Long after, int limit, StudentView view) {
+        checkPageLimit(limit);
+        // Fetch one extra id to know whether another page follows without a count query
+        StudentPage page = readOnlyTransaction.execute(status ->
+                projectPage(studentRepository.findIdsAfter(after != null ? after : 0L, Limit.of(limit + 1)), limit, view));
+        expandCourses(page.getContent(), view);
+        return page;
+    }
+
+    @Override
+    public StudentResponse getStudentById(Long id, StudentView view) {
+        List<StudentResponse> found = readOnlyTransaction.execute(status -> studentRepository.findProjections(List.of(id), view));
+        if (found.isEmpty()) {
+            throw new ResourceNotFoundException("Student not found with id: " + id);
+        }
+        return expandCourses(found, view).get(0);
     }
 
     @Override
-    public List<StudentResponse> getAllStudents() {
-        return studentRepository.findAll().stream()
-                .map(student -> {
-                    Set<CourseDto> courses = fetchCoursesByIds(student.getCourseIds());
-                    StudentResponse response = modelMapper.map(student, StudentResponse.class);
-                    response.setCourses(courses);
-                    return response;
-                })
-                .collect(Collectors.toList());
+    public StudentBatch getStudentsByIds(List<Long> ids, StudentView view) {
+        if (ids == null || ids.isEmpty()) {
+            return new StudentBatch(List.of(), List.of());
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Student ids must not be null.");
+        }
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        if (distinctIds.size() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_PAGE_SIZE + " students can be requested at once.");
+        }
+
+        Map<Long, StudentResponse> found = new HashMap<>();
+        readOnlyTransaction.execute(status -> studentRepository.findProjections(distinctIds, view))
+                .forEach(student -> found.put(student.getId(), student));
+        List<StudentResponse> students = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : distinctIds) {
+            StudentResponse student = found.get(id);
+            if (student != null) {
+                students.add(student);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new StudentBatch(expandCourses(students, view), missingIds);
+    }
+
+    // One lookup for the union of the students' course ids; nothing remote unless the view expands courses
+    private List<StudentResponse> expandCourses(List<StudentResponse> students, StudentView view) {
+        if (!view.isExpandCourses()) {
+            return students;
+        }
+        Set<Long> courseIds = new HashSet<>();
+        students.forEach(student -> courseIds.addAll(student.getCourseIds()));
+        return attachAll(students, courseServiceClient.fetchCourses(courseIds), view);
+    }
+
+    private List<StudentResponse> attachAll(List<StudentResponse> students, CourseLookup courses, StudentView view) {
+        for (StudentResponse student : students) {
+            attachCourses(student, student.getCourseIds(), courses);
+            if (!view.includes(StudentView.Field.COURSE_IDS)) {
+                student.setCourseIds(null);
+            }
+        }
+        return students;
+    }
+
+    @Override
+    public StudentPage getStudentsByCourse(Long courseId, Long after, int limit, StudentView view) {
+        checkPageLimit(limit);
+        StudentPage page = readOnlyTransaction.execute(status ->
+                projectPage(studentRepository.findStudentIdsByCourse(courseId, after != null ? after : 0L, limit + 1), limit, view));
+        expandCourses(page.getContent(), view);
+        return page;
     }
 
     @Override
-    public StudentResponse getStudentById(Long id) {
+    public long countStudentsByCourse(Long courseId) {
+        return studentRepository.countByCourse(courseId);
+    }
+
+    @Override
+    public EnrollmentQueryResult findStudentsByCourses(Set<Long> all, Set<Long> any, Set<Long> none, Long after, int limit) {
+        checkPageLimit(limit);
+        Roaring64Bitmap matches = enrollmentIndex.select(all, any, none);
+
+        List<Long> studentIds = new ArrayList<>(Math.min(limit, 64));
+        PeekableLongIterator iterator = matches.getLongIteratorFrom(after != null ? after + 1 : 0L);
+        while (iterator.hasNext() && studentIds.size() < limit) {
+            studentIds.add(iterator.next());
+        }
+        Long nextCursor = iterator.hasNext() ? studentIds.get(studentIds.size() - 1) : null;
+        return new EnrollmentQueryResult(matches.getLongCardinality(), studentIds, nextCursor);
+    }
+
+    @Override
+    public CourseMateCount countCourseMates(Long id) {
         Student student = studentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
+        if (student.getCourseIds() == null || student.getCourseIds().isEmpty()) {
+            return new CourseMateCount(id, 0);
+        }
+        Roaring64Bitmap mates = enrollmentIndex.select(Set.of(), student.getCourseIds(), Set.of());
+        mates.removeLong(id);
+        return new CourseMateCount(id, mates.getLongCardinality());
+    }
 
-        Set<CourseDto> courses = fetchCoursesByIds(student.getCourseIds());
-        StudentResponse response = modelMapper.map(student, StudentResponse.class);
-        response.setCourses(courses);
-        return response;
+    private void checkPageLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page limit must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+    }
+
+    // Builds a page from up to limit + 1 ascending ids, read as a projection of the view; the extra id
+    // only signals that more follow. Runs inside the caller's transaction.
+    private StudentPage projectPage(List<Long> ids, int limit, StudentView view) {
+        boolean hasMore = ids.size() > limit;
+        if (hasMore) {
+            ids = ids.subList(0, limit);
+        }
+        return new StudentPage(studentRepository.findProjections(ids, view), limit, hasMore ? ids.get(ids.size() - 1) : null);
     }
 
     @Override
     public StudentResponse updateStudent(Long id, StudentRequest studentRequest) {
+        // A detached snapshot, read only to work out which enrollments are new
         Student existingStudent = studentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
 
@@ -103,26 +275,48 @@ public class StudentServiceImpl implements StudentService {
             throw new IllegalArgumentException("Student with email " + studentRequest.getEmail() + " already exists.");
         }
 
-        Set<Long> courseIds = studentRequest.getCourseIds();
-        if (courseIds != null && !courseIds.isEmpty()) {
-            validateCoursesExist(courseIds);
+        // Only enrollments the student did not already have need validating. Courses the student keeps
+        // are looked up in the same call (or served from the cache) to build the response.
+        Set<Long> requestedCourseIds = studentRequest.getCourseIds() != null ? studentRequest.getCourseIds() : Set.of();
+        Set<Long> addedCourseIds = new HashSet<>(requestedCourseIds);
+        if (existingStudent.getCourseIds() != null) {
+            addedCourseIds.removeAll(existingStudent.getCourseIds());
         }
 
-        existingStudent.setFirstName(studentRequest.getFirstName());
-        existingStudent.setLastName(studentRequest.getLastName());
-        existingStudent.setEmail(studentRequest.getEmail());
-        existingStudent.setCourseIds(studentRequest.getCourseIds());
+        Map<Long, CourseDto> coursesById = null;
+        if (!addedCourseIds.isEmpty()) {
+            coursesById = courseServiceClient.validateCoursesExist(requestedCourseIds, addedCourseIds);
+        }
 
-        Student updatedStudent = studentRepository.save(existingStudent);
+        // The write runs on a locked managed copy, in a transaction that starts after the validation call.
+        // A concurrent update may have committed since the snapshot, so the enrollment diff is taken again.
+        Student updatedStudent = transactionTemplate.execute(status -> {
+            Student managed = studentRepository.findByIdForUpdate(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
+            managed.setFirstName(studentRequest.getFirstName());
+            managed.setLastName(studentRequest.getLastName());
+            managed.setEmail(studentRequest.getEmail());
+            if (managed.getCourseIds() == null) {
+                managed.setCourseIds(new HashSet<>());
+            }
+            Set<Long> added = new HashSet<>(requestedCourseIds);
+            added.removeAll(managed.getCourseIds());
+            Set<Long> removed = new HashSet<>(managed.getCourseIds());
+            removed.removeAll(requestedCourseIds);
+            // Change the enrollment set in place: replacing the collection makes Hibernate delete and
+            // re-insert every enrollment row instead of just the changed ones
+            managed.getCourseIds().retainAll(requestedCourseIds);
+            managed.getCourseIds().addAll(requestedCourseIds);
+            if (!added.isEmpty() || !removed.isEmpty()) {
+                eventPublisher.publishEvent(StudentEnrollmentsChangedEvent.changed(id, added, removed));
+            }
+            return studentRepository.save(managed);
+        });
 
-        Set<CourseDto> courses = new HashSet<>();
-        if (updatedStudent.getCourseIds() != null && !updatedStudent.getCourseIds().isEmpty()) {
-            courses = fetchCoursesByIds(updatedStudent.getCourseIds());
+        if (coursesById == null) {
+            return toResponse(updatedStudent, courseServiceClient.fetchCourses(updatedStudent.getCourseIds()));
         }
-
-        StudentResponse response = modelMapper.map(updatedStudent, StudentResponse.class);
-        response.setCourses(courses);
-        return response;
+        return toResponse(updatedStudent, coursesById);
     }
 
     @Override
@@ -131,90 +325,101 @@ public class StudentServiceImpl implements StudentService {
             throw new ResourceNotFoundException("Student not found with id: " + id);
         }
         studentRepository.deleteById(id);
+        eventPublisher.publishEvent(StudentEnrollmentsChangedEvent.deleted(id));
     }
 
-    private void validateCoursesExist(Set<Long> courseIds) {
-        if (courseIds == null || courseIds.isEmpty()) {
-            return;
-        }
-
-        String url = "http://" + COURSE_SERVICE_NAME + "/api/courses/byIds";
-
-        CourseValidationRequest requestBody = new CourseValidationRequest(courseIds);
+    @Override
+    public StudentResponse enrollInCourse(Long id, Long courseId) {
+        return changeEnrollments(id, Set.of(courseId), Set.of());
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        HttpEntity<CourseValidationRequest> requestEntity = new HttpEntity<>(requestBody, headers);
+    @Override
+    public StudentResponse dropCourse(Long id, Long courseId) {
+        return changeEnrollments(id, Set.of(), Set.of(courseId));
+    }
 
-        try {
-            ResponseEntity<CourseDto[]> responseEntity = restTemplate.postForEntity(url, requestEntity, CourseDto[].class);
+    @Override
+    public StudentResponse updateEnrollments(Long id, EnrollmentChangeRequest request) {
+        Set<Long> toAdd = request.getAdd() != null ? request.getAdd() : Set.of();
+        Set<Long> toRemove = request.getRemove() != null ? request.getRemove() : Set.of();
+        Set<Long> conflicting = new HashSet<>(toAdd);
+        conflicting.retainAll(toRemove);
+        if (!conflicting.isEmpty()) {
+            throw new IllegalArgumentException("Course IDs " + conflicting + " cannot be both added and removed.");
+        }
+        return changeEnrollments(id, toAdd, toRemove);
+    }
 
-            if (responseEntity.getStatusCode() == HttpStatus.OK && responseEntity.getBody() != null) {
-                Set<Long> validCourseIds = Arrays.stream(responseEntity.getBody())
-                        .map(CourseDto::getId)
-                        .collect(Collectors.toSet());
+    /**
+     * Adds and removes individual enrollments through {@link Student#addCourse}/{@link Student#removeCourse}
+     * on a managed entity, so Hibernate writes one INSERT or DELETE per changed enrollment rather than
+     * rewriting the student's whole collection. Only courses the student is not yet enrolled in are
+     * validated, and that remote call happens before the write transaction starts.
+     */
+    private StudentResponse changeEnrollments(Long id, Set<Long> toAdd, Set<Long> toRemove) {
+        Student student = studentRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
 
-                Set<Long> invalidCourseIds = courseIds.stream()
-                        .filter(id -> !validCourseIds.contains(id))
-                        .collect(Collectors.toSet());
+        Set<Long> current = student.getCourseIds() != null ? student.getCourseIds() : Set.of();
+        Set<Long> added = new HashSet<>(toAdd);
+        added.removeAll(current);
+        Set<Long> removed = new HashSet<>(toRemove);
+        removed.retainAll(current);
 
-                if (!invalidCourseIds.isEmpty()) {
-                    // This is the specific IllegalArgumentException you want to throw
-                    throw new IllegalArgumentException("One or more courses with IDs " + invalidCourseIds + " do not exist.");
-                }
-            } else {
-                log.error("Failed to validate courses with Course Service. Status: {}", responseEntity.getStatusCode());
-                throw new RuntimeException("Error validating courses with Course Service: Unexpected response status " + responseEntity.getStatusCode());
-            }
-        } catch (IllegalArgumentException e) {
-            // Re-throw IllegalArgumentException directly, as it's a known business validation error
-            log.error("Invalid course IDs provided: {}", e.getMessage());
-            throw e;
-        } catch (HttpClientErrorException e) {
-            // Catch specific HTTP client errors (e.g., 4xx from Course Service)
-            log.error("Client error calling Course Service for validation (Status: {}): {}", e.getStatusCode(), e.getMessage());
-            throw new RuntimeException("Error validating courses with Course Service: " + e.getMessage(), e);
-        } catch (ResourceAccessException e) {
-            // Catch network/connection issues (e.g., Course Service is down or unreachable)
-            log.error("I/O error on POST request for \"{}\": {}", url, e.getMessage());
-            throw new RuntimeException("Error validating courses with Course Service: Could not reach Course Service at \"" + COURSE_SERVICE_NAME + "\". Please ensure it's running and registered with Eureka.", e);
-        } catch (Exception e) {
-            // Catch any other unexpected exceptions and log them fully for debugging
-            log.error("An unexpected error occurred during course validation: {}", e.getMessage(), e); // Log stack trace
-            throw new RuntimeException("An unexpected error occurred during course validation. Please check service logs for details.", e);
+        Map<Long, CourseDto> coursesById = new HashMap<>();
+        if (!added.isEmpty()) {
+            coursesById.putAll(courseServiceClient.validateCoursesExist(added));
         }
-    }
 
-    private Set<CourseDto> fetchCoursesByIds(Set<Long> courseIds) {
-        if (courseIds == null || courseIds.isEmpty()) {
-            return Collections.emptySet();
+        if (!added.isEmpty() || !removed.isEmpty()) {
+            student = transactionTemplate.execute(status -> {
+                Student managed = studentRepository.findByIdForUpdate(id)
+                        .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
+                // Diffed again under the row lock, in case a concurrent change committed in the meantime
+                Set<Long> enrolled = managed.getCourseIds() != null ? managed.getCourseIds() : Set.of();
+                Set<Long> nowAdded = new HashSet<>(added);
+                nowAdded.removeAll(enrolled);
+                Set<Long> nowRemoved = new HashSet<>(removed);
+                nowRemoved.retainAll(enrolled);
+                nowAdded.forEach(managed::addCourse);
+                nowRemoved.forEach(managed::removeCourse);
+                if (!nowAdded.isEmpty() || !nowRemoved.isEmpty()) {
+                    eventPublisher.publishEvent(StudentEnrollmentsChangedEvent.changed(id, nowAdded, nowRemoved));
+                }
+                return managed;
+            });
         }
 
-        String url = "http://" + COURSE_SERVICE_NAME + "/api/courses/byIds";
+        // Courses the student keeps are only needed for the response, so their lookup is lenient
+        Set<Long> remaining = new HashSet<>(student.getCourseIds() != null ? student.getCourseIds() : Set.of());
+        remaining.removeAll(coursesById.keySet());
+        CourseLookup lookup = courseServiceClient.fetchCourses(remaining);
+        coursesById.putAll(lookup.getCourses());
+        return toResponse(student, new CourseLookup(coursesById, lookup.isUnavailable()));
+    }
 
-        CourseValidationRequest requestBody = new CourseValidationRequest(courseIds);
+    private StudentResponse toResponse(Student student, Map<Long, CourseDto> coursesById) {
+        return toResponse(student, new CourseLookup(coursesById, false));
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        HttpEntity<CourseValidationRequest> requestEntity = new HttpEntity<>(requestBody, headers);
+    private StudentResponse toResponse(Student student, CourseLookup lookup) {
+        StudentResponse response = studentMapper.toResponse(student);
+        attachCourses(response, student.getCourseIds(), lookup);
+        return response;
+    }
 
-        try {
-            ResponseEntity<CourseDto[]> response = restTemplate.postForEntity(url, requestEntity, CourseDto[].class);
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                return Arrays.stream(response.getBody()).collect(Collectors.toSet());
-            } else {
-                log.warn("Failed to fetch courses from Course Service. Status: {}", response.getStatusCode());
-                return Collections.emptySet();
-            }
-        } catch (HttpClientErrorException e) {
-            log.error("Client error fetching courses from Course Service (Status: {}): {}", e.getStatusCode(), e.getMessage());
-            return Collections.emptySet();
-        } catch (ResourceAccessException e) {
-            log.error("I/O error fetching courses from Course Service: {}", e.getMessage());
-            return Collections.emptySet();
-        } catch (Exception e) {
-            log.error("An unexpected error occurred while fetching courses: {}", e.getMessage());
-            return Collections.emptySet();
+    private void attachCourses(StudentResponse response, Set<Long> courseIds, CourseLookup lookup) {
+        Set<CourseDto> courses = new HashSet<>();
+        if (courseIds != null) {
+            courseIds.stream()
+                    .map(lookup.getCourses()::get)
+                    .filter(Objects::nonNull)
+                    .forEach(courses::add);
+        }
+        response.setCourses(courses);
+        // Courses served from the cache while Course Service is down still count as complete
+        if (lookup.isUnavailable() && courseIds != null && courses.size() < courseIds.size()) {
+            response.setCoursesUnavailable(true);
         }
     }
 }
\ No newline at end of file
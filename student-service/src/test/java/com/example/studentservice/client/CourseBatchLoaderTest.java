@@ -0,0 +1,172 @@
+package com.example.studentservice.client;
+
+import com.example.studentservice.dto.CourseDto;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CourseBatchLoaderTest {
+
+    private final CourseClientProperties properties = new CourseClientProperties();
+    private final List<Set<Long>> requests = new CopyOnWriteArrayList<>();
+    private final AtomicInteger collapsed = new AtomicInteger();
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void load_shouldMergeLookupsArrivingWithinTheWindow() throws Exception {
+        properties.getBatching().setWindow(Duration.ofMillis(200));
+        CourseBatchLoader loader = new CourseBatchLoader(properties, recordingLoader(), collapsed::incrementAndGet);
+
+        Future<CourseBatchLoader.Load> first = executor.submit(() -> loader.load(Set.of(1L, 2L)));
+        Future<CourseBatchLoader.Load> second = executor.submit(() -> loader.load(Set.of(2L, 3L)));
+
+        assertThat(titles(first.get(5, TimeUnit.SECONDS))).containsOnlyKeys(1L, 2L);
+        assertThat(titles(second.get(5, TimeUnit.SECONDS))).containsEntry(3L, "Course 3").containsOnlyKeys(2L, 3L);
+        assertThat(requests).singleElement().isEqualTo(Set.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void load_shouldSendFullBatchWithoutWaitingForTheWindow() {
+        properties.setBatchSize(2);
+        properties.getBatching().setWindow(Duration.ofMinutes(1));
+        CourseBatchLoader loader = new CourseBatchLoader(properties, recordingLoader(), collapsed::incrementAndGet);
+
+        CourseBatchLoader.Load load = loader.load(Set.of(1L, 2L, 3L));
+
+        assertThat(load.getRemoteCalls()).isEqualTo(2);
+        assertThat(titles(load)).containsOnlyKeys(1L, 2L, 3L);
+        assertThat(requests).hasSize(2);
+    }
+
+    @Test
+    void load_shouldJoinRequestAlreadyInFlight() throws Exception {
+        CountDownLatch sent = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Function<Set<Long>, Map<Long, CourseDto>> slowLoader = ids -> {
+            sent.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return recordingLoader().apply(ids);
+        };
+        properties.getBatching().setWindow(Duration.ZERO);
+        CourseBatchLoader loader = new CourseBatchLoader(properties, slowLoader, collapsed::incrementAndGet);
+
+        Future<CourseBatchLoader.Load> first = executor.submit(() -> loader.load(Set.of(1L)));
+        assertThat(sent.await(5, TimeUnit.SECONDS)).isTrue();
+        CourseBatchLoader.Load second = loader.load(Set.of(1L));
+        release.countDown();
+
+        assertThat(second.getRemoteCalls()).isZero();
+        assertThat(titles(second)).containsEntry(1L, "Course 1");
+        assertThat(titles(first.get(5, TimeUnit.SECONDS))).containsEntry(1L, "Course 1");
+        assertThat(requests).hasSize(1);
+        assertThat(collapsed).hasValue(1);
+    }
+
+    @Test
+    void load_shouldFailRemainingChunksWithoutSending_whenCallIsRejected() {
+        properties.setBatchSize(1);
+        AtomicInteger attempts = new AtomicInteger();
+        CallNotPermittedException rejected = CallNotPermittedException.createCallNotPermittedException(
+                CircuitBreaker.ofDefaults("courseService"));
+        CourseBatchLoader loader = new CourseBatchLoader(properties, ids -> {
+            attempts.incrementAndGet();
+            throw rejected;
+        }, collapsed::incrementAndGet);
+
+        CourseBatchLoader.Load load = loader.load(Set.of(1L, 2L, 3L));
+
+        assertThat(attempts).hasValue(1);
+        for (CompletableFuture<CourseDto> course : load.getCourses().values()) {
+            CompletionException e = assertThrows(CompletionException.class, course::join);
+            assertThat(e.getCause()).isSameAs(rejected);
+        }
+        // The ids are no longer in flight, so the next lookup tries again
+        loader.load(Set.of(1L));
+        assertThat(attempts).hasValue(2);
+    }
+
+    @Test
+    void load_shouldFailWaitersAndRethrow_whenLoaderThrowsAnError() throws Exception {
+        CountDownLatch sent = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger attempts = new AtomicInteger();
+        StackOverflowError broken = new StackOverflowError();
+        properties.setBatchSize(1);
+        properties.getBatching().setWindow(Duration.ZERO);
+        CourseBatchLoader loader = new CourseBatchLoader(properties, ids -> {
+            attempts.incrementAndGet();
+            sent.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw broken;
+        }, collapsed::incrementAndGet);
+
+        Future<CourseBatchLoader.Load> first = executor.submit(() -> loader.load(Set.of(1L, 2L)));
+        assertThat(sent.await(5, TimeUnit.SECONDS)).isTrue();
+        CourseBatchLoader.Load second = loader.load(Set.of(1L, 2L));
+        release.countDown();
+
+        ExecutionException thrown = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        assertThat(thrown.getCause()).isSameAs(broken);
+        // Both ids were in flight, including the chunk that was never sent
+        for (CompletableFuture<CourseDto> course : second.getCourses().values()) {
+            CompletionException e = assertThrows(CompletionException.class, course::join);
+            assertThat(e.getCause()).isSameAs(broken);
+        }
+        assertThat(attempts).hasValue(1);
+    }
+
+    private Function<Set<Long>, Map<Long, CourseDto>> recordingLoader() {
+        return ids -> {
+            requests.add(Set.copyOf(ids));
+            Map<Long, CourseDto> found = new HashMap<>();
+            ids.forEach(id -> found.put(id, new CourseDto(id, "Course " + id, null)));
+            return found;
+        };
+    }
+
+    private static Map<Long, String> titles(CourseBatchLoader.Load load) {
+        Map<Long, String> titles = new HashMap<>();
+        load.getCourses().forEach((id, course) -> titles.put(id, course.join().getTitle()));
+        return titles;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.studentservice.client;
+
+import com.example.studentservice.dto.CourseChangeEvent;
+import com.example.studentservice.dto.CourseChangeFeed;
+import com.example.studentservice.dto.CourseDto;
+import com.example.studentservice.dto.CourseValidationRequest;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CourseCatalogReplicaTest {
+
+    private final CourseDto math = new CourseDto(101L, "Math Basics", "Introductory math course");
+    private final CourseDto physics = new CourseDto(102L, "Physics Fun", "Fun with physics");
+
+    private RestTemplate restTemplate;
+    private CourseCatalogReplica replica;
+    private CourseServiceClient courseServiceClient;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        restTemplate = mock(RestTemplate.class);
+        replica = new CourseCatalogReplica(meterRegistry);
+        courseServiceClient = new CourseServiceClient(restTemplate, new CourseClientProperties(), replica, meterRegistry,
+                CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults());
+    }
+
+    @Test
+    void apply_shouldLoadSnapshotAndReplayChanges() {
+        replica.apply(snapshot(1L, math, physics));
+        replica.apply(new CourseChangeFeed("epoch-1", 3L, false, List.of(
+                new CourseChangeEvent(2L, CourseChangeEvent.Type.UPDATED, 101L, new CourseDto(101L, "Math II", "Advanced math")),
+                new CourseChangeEvent(3L, CourseChangeEvent.Type.DELETED, 102L, null))));
+
+        assertThat(replica.isReady()).isTrue();
+        assertThat(replica.getVersion()).isEqualTo(3L);
+        assertThat(replica.get(101L).getTitle()).isEqualTo("Math II");
+        assertThat(replica.get(102L)).isNull();
+        assertThat(replica.size()).isEqualTo(1);
+    }
+
+    @Test
+    void apply_shouldIgnoreIncrementalChanges_beforeFirstSnapshot() {
+        replica.apply(new CourseChangeFeed("epoch-1", 5L, false, List.of(
+                new CourseChangeEvent(5L, CourseChangeEvent.Type.CREATED, 101L, math))));
+
+        assertThat(replica.isReady()).isFalse();
+        assertThat(replica.size()).isZero();
+    }
+
+    @Test
+    void client_shouldServeHeldCoursesFromReadyReplica_andLookUpOthersRemotely() {
+        replica.apply(snapshot(1L, math, physics));
+        CourseDto created = new CourseDto(103L, "Chemistry", "Created after the last feed read");
+        when(restTemplate.postForEntity(any(String.class), any(), eq(CourseDto[].class)))
+                .thenReturn(new ResponseEntity<>(new CourseDto[]{created}, HttpStatus.OK));
+
+        assertThat(courseServiceClient.fetchCoursesByIds(Set.of(101L, 102L))).containsOnlyKeys(101L, 102L);
+        verifyNoInteractions(restTemplate);
+
+        Map<Long, CourseDto> courses = courseServiceClient.fetchCoursesByIds(Set.of(101L, 102L, 103L));
+        assertThat(courses).containsOnlyKeys(101L, 102L, 103L);
+        verify(restTemplate, times(1)).postForEntity(any(String.class), any(), eq(CourseDto[].class));
+    }
+
+    @Test
+    void client_shouldValidateAgainstCourseService_evenForCoursesTheReplicaHolds() {
+        // Course 102 was deleted after the replica's last feed read
+        replica.apply(snapshot(1L, math, physics));
+        when(restTemplate.postForEntity(any(String.class), any(), eq(CourseDto[].class)))
+                .thenReturn(new ResponseEntity<>(new CourseDto[]{math}, HttpStatus.OK));
+
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+                () -> courseServiceClient.validateCoursesExist(Set.of(101L, 102L)));
+        assertThat(thrown.getMessage()).contains("[102]");
+
+        // Courses the student keeps are only needed for their details, so the replica answers for them
+        assertThat(courseServiceClient.validateCoursesExist(Set.of(101L, 102L), Set.of(101L)))
+                .containsEntry(101L, math).containsEntry(102L, physics);
+        ArgumentCaptor<HttpEntity<CourseValidationRequest>> requests = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate, times(2)).postForEntity(any(String.class), requests.capture(), eq(CourseDto[].class));
+        assertThat(requests.getAllValues().get(1).getBody().getCourseIds()).containsExactly(101L);
+    }
+
+    @Test
+    void subscriber_shouldFeedReplica_andMarkItStaleWhenFeedFails() {
+        CourseClientProperties properties = new CourseClientProperties();
+        CourseChangeFeedSubscriber subscriber = new CourseChangeFeedSubscriber(restTemplate, replica, properties);
+        when(restTemplate.getForObject(eq(CourseChangeFeedSubscriber.CHANGES_URL), eq(CourseChangeFeed.class), anyMap()))
+                .thenReturn(snapshot(7L, math))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        subscriber.pollOnce();
+        assertThat(replica.isReady()).isTrue();
+        assertThat(replica.getVersion()).isEqualTo(7L);
+
+        assertThrows(ResourceAccessException.class, subscriber::pollOnce);
+        verify(restTemplate, times(2)).getForObject(eq(CourseChangeFeedSubscriber.CHANGES_URL), eq(CourseChangeFeed.class), anyMap());
+
+        // Once stale, lookups go back to Course Service
+        replica.markStale();
+        courseServiceClient.fetchCoursesByIds(Set.of(101L));
+        verify(restTemplate, times(1)).postForEntity(any(String.class), any(), eq(CourseDto[].class));
+    }
+
+    private CourseChangeFeed snapshot(long version, CourseDto... courses) {
+        List<CourseChangeEvent> events = Arrays.stream(courses)
+                .map(course -> new CourseChangeEvent(version, CourseChangeEvent.Type.CREATED, course.getId(), course))
+                .toList();
+        return new CourseChangeFeed("epoch-1", version, true, events);
+    }
+}
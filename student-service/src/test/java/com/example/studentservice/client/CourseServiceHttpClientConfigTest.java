@@ -0,0 +1,144 @@
+package com.example.studentservice.client;
+
+import com.example.studentservice.dto.CourseDto;
+import com.example.studentservice.dto.CourseValidationRequest;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Drives the real {@code @LoadBalanced} RestTemplate against a stubbed COURSE-SERVICE instance
+ * resolved through the simple discovery client, the same way Eureka instances are resolved.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class CourseServiceHttpClientConfigTest {
+
+    @RegisterExtension
+    static WireMockExtension courseService = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .build();
+
+    @DynamicPropertySource
+    static void courseServiceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.COURSE-SERVICE[0].uri", courseService::baseUrl);
+        registry.add("student-service.course-client.http.read-timeout", () -> "1s");
+        registry.add("student-service.course-client.cache.enabled", () -> "false");
+    }
+
+    @Autowired
+    private CourseServiceClient courseServiceClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void lookup_isResolvedThroughDiscoveryAndServedByThePool() {
+        courseService.stubFor(post(urlEqualTo("/api/courses/byIds"))
+                .willReturn(okJson("[{\"id\":1,\"title\":\"Math\",\"description\":\"Calculus\"}]")));
+
+        Map<Long, CourseDto> courses = courseServiceClient.validateCoursesExist(Set.of(1L));
+
+        assertThat(courses).containsOnlyKeys(1L);
+        // A JSON answer to the CBOR-first Accept header, as from an instance that only writes JSON
+        courseService.verify(1, postRequestedFor(urlEqualTo("/api/courses/byIds"))
+                .withHeader("Content-Type", containing("application/json"))
+                .withHeader("Accept", equalTo("application/cbor, application/json")));
+        // The connection is returned to the pool and kept alive for the next call
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("httpclient", "course-service").tag("state", "available").gauge().value()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("httpclient", "course-service").tag("state", "leased").gauge().value()).isZero();
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.pending")
+                .tag("httpclient", "course-service").gauge().value()).isZero();
+    }
+
+    @Test
+    void lookup_sendsJson_andDecodesCborResponseByDefault() throws Exception {
+        courseService.stubFor(post(urlEqualTo("/api/courses/byIds"))
+                .withHeader("Content-Type", containing("application/json"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/cbor")
+                        .withBody(new CBORMapper().writeValueAsBytes(new CourseDto[]{new CourseDto(1L, "Math", "Calculus")}))));
+
+        Map<Long, CourseDto> courses = courseServiceClient.validateCoursesExist(Set.of(1L));
+
+        assertThat(courses).containsEntry(1L, new CourseDto(1L, "Math", "Calculus"));
+    }
+
+    @Test
+    void lookup_failsOnceReadTimeoutElapses() {
+        courseService.stubFor(post(urlEqualTo("/api/courses/byIds"))
+                .willReturn(okJson("[{\"id\":1,\"title\":\"Math\",\"description\":\"Calculus\"}]")
+                        .withFixedDelay(3_000)));
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> courseServiceClient.validateCoursesExist(Set.of(1L)))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Could not reach Course Service");
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(2_500);
+    }
+
+    @Test
+    void breakerAndBulkhead_areExposedAsMetrics() {
+        assertThat(meterRegistry.find("resilience4j.circuitbreaker.state")
+                .tag("name", "courseService").tag("state", "closed").gauge().value()).isEqualTo(1.0);
+        assertThat(meterRegistry.find("resilience4j.bulkhead.max.allowed.concurrent.calls")
+                .tag("name", "courseService").gauge().value()).isEqualTo(25.0);
+        assertThat(meterRegistry.find("course.client.rejected.calls").counters()).hasSize(2);
+    }
+
+    /**
+     * CBOR request bodies are opt-in, for deployments where every COURSE-SERVICE instance reads them.
+     */
+    @Nested
+    @TestPropertySource(properties = "student-service.course-client.http.wire-format=cbor")
+    class CborWireFormat {
+
+        // Injected from this class's own context; the enclosing instance's client uses the default
+        @Autowired
+        private CourseServiceClient courseServiceClient;
+
+        @Test
+        void lookup_sendsCbor_andDecodesGzippedCborResponse() throws Exception {
+            CBORMapper cborMapper = new CBORMapper();
+            ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+                gzip.write(cborMapper.writeValueAsBytes(new CourseDto[]{new CourseDto(1L, "Math", "Calculus")}));
+            }
+            courseService.stubFor(post(urlEqualTo("/api/courses/byIds"))
+                    .withHeader("Content-Type", equalTo("application/cbor"))
+                    .withHeader("Accept", containing("application/cbor"))
+                    .withHeader("Accept-Encoding", containing("gzip"))
+                    .willReturn(aResponse()
+                            .withHeader("Content-Type", "application/cbor")
+                            .withHeader("Content-Encoding", "gzip")
+                            .withBody(gzipped.toByteArray())));
+
+            Map<Long, CourseDto> courses = courseServiceClient.validateCoursesExist(Set.of(1L));
+
+            assertThat(courses).containsEntry(1L, new CourseDto(1L, "Math", "Calculus"));
+            byte[] requestBody = courseService.getAllServeEvents().get(0).getRequest().getBody();
+            assertThat(cborMapper.readValue(requestBody, CourseValidationRequest.class).getCourseIds()).containsExactly(1L);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.studentservice.controller;
+
+import com.example.studentservice.dto.StudentPage;
+import com.example.studentservice.dto.StudentResponse;
+import com.example.studentservice.dto.StudentView;
+import com.example.studentservice.service.StudentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(CourseEnrollmentController.class)
+public class CourseEnrollmentControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private StudentService studentService;
+
+    @Test
+    void getStudentsByCourse_shouldReturnPageWithNextCursor() throws Exception {
+        StudentResponse alice = new StudentResponse(1L, "Alice", "Smith", "alice@example.com", Collections.emptySet());
+        when(studentService.getStudentsByCourse(101L, 5L, 1, StudentView.DEFAULT)).thenReturn(new StudentPage(List.of(alice), 1, 1L));
+
+        mockMvc.perform(get("/api/courses/{courseId}/students", 101L).param("after", "5").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].email", is("alice@example.com")))
+                .andExpect(jsonPath("$.nextCursor", is(1)));
+    }
+
+    @Test
+    void getStudentsByCourse_shouldUseDefaultLimit() throws Exception {
+        when(studentService.getStudentsByCourse(101L, null, 100, StudentView.DEFAULT)).thenReturn(new StudentPage(List.of(), 100, null));
+
+        mockMvc.perform(get("/api/courses/{courseId}/students", 101L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.limit", is(100)));
+
+        verify(studentService).getStudentsByCourse(101L, null, 100, StudentView.DEFAULT);
+    }
+
+    @Test
+    void getStudentsByCourse_shouldPassFieldsAndExpansion() throws Exception {
+        StudentView view = StudentView.parse(Set.of("email"), Set.of("courses"));
+        when(studentService.getStudentsByCourse(101L, null, 100, view)).thenReturn(new StudentPage(List.of(), 100, null));
+
+        mockMvc.perform(get("/api/courses/{courseId}/students", 101L).param("fields", "email").param("expand", "courses"))
+                .andExpect(status().isOk());
+
+        verify(studentService).getStudentsByCourse(101L, null, 100, view);
+    }
+
+    @Test
+    void countStudentsByCourse_shouldReturnCountOnly() throws Exception {
+        when(studentService.countStudentsByCourse(101L)).thenReturn(42L);
+
+        mockMvc.perform(get("/api/courses/{courseId}/students/count", 101L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courseId", is(101)))
+                .andExpect(jsonPath("$.count", is(42)));
+    }
+}
@@ -1,9 +1,20 @@
 package com.example.studentservice.controller;
 
+import com.example.studentservice.dto.BulkImportResult;
+import com.example.studentservice.dto.BulkImportRowResult;
 import com.example.studentservice.dto.CourseDto; // Import CourseDto
+import com.example.studentservice.dto.CourseMateCount;
+import com.example.studentservice.dto.EnrollmentChangeRequest;
+import com.example.studentservice.dto.EnrollmentQueryResult;
+import com.example.studentservice.dto.StudentBatch;
+import com.example.studentservice.dto.StudentIdsRequest;
+import com.example.studentservice.dto.StudentPage;
 import com.example.studentservice.dto.StudentRequest;
 import com.example.studentservice.dto.StudentResponse;
+import com.example.studentservice.dto.StudentView;
+import com.example.studentservice.exception.CourseServiceUnavailableException;
 import com.example.studentservice.exception.ResourceNotFoundException;
+import com.example.studentservice.service.StudentImportService;
 import com.example.studentservice.service.StudentService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,6 +32,8 @@ import java.util.Set;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -30,12 +43,17 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @WebMvcTest(StudentController.class) // Focuses on StudentController
 public class StudentControllerIntegrationTest {
 
+    private static final StudentView EXPANDED = StudentView.parse(null, Set.of("courses"));
+
     @Autowired
     private MockMvc mockMvc; // For making HTTP requests
 
     @MockBean // Mocks the service layer, isolating the controller
     private StudentService studentService;
 
+    @MockBean
+    private StudentImportService studentImportService;
+
     @Autowired
     private ObjectMapper objectMapper; // For JSON serialization/deserialization
 
@@ -54,7 +72,7 @@ public class StudentControllerIntegrationTest {
     @Test
     void getAllStudents_shouldReturnListOfStudents() throws Exception {
         List<StudentResponse> allStudents = Arrays.asList(studentResponse1, studentResponse2);
-        when(studentService.getAllStudents()).thenReturn(allStudents);
+        when(studentService.getAllStudents(StudentView.DEFAULT)).thenReturn(allStudents);
 
         mockMvc.perform(get("/api/students")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -63,12 +81,78 @@ public class StudentControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].firstName", is("Alice")))
                 .andExpect(jsonPath("$[1].lastName", is("Johnson")));
 
-        verify(studentService, times(1)).getAllStudents();
+        verify(studentService, times(1)).getAllStudents(StudentView.DEFAULT);
+    }
+
+    @Test
+    void getStudentsPage_shouldReturnPageWithNextCursor() throws Exception {
+        StudentPage page = new StudentPage(Arrays.asList(studentResponse1, studentResponse2), 2, 2L);
+        when(studentService.getStudentsPage(null, 2, StudentView.DEFAULT)).thenReturn(page);
+
+        mockMvc.perform(get("/api/students").param("limit", "2")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.limit", is(2)))
+                .andExpect(jsonPath("$.nextCursor", is(2)));
+
+        verify(studentService, times(1)).getStudentsPage(null, 2, StudentView.DEFAULT);
+        verify(studentService, never()).getAllStudents(any());
+    }
+
+    @Test
+    void getStudentsPage_shouldUseDefaultLimit_whenOnlyCursorGiven() throws Exception {
+        StudentPage page = new StudentPage(List.of(studentResponse2), 100, null);
+        when(studentService.getStudentsPage(1L, 100, StudentView.DEFAULT)).thenReturn(page);
+
+        mockMvc.perform(get("/api/students").param("after", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].firstName", is("Bob")))
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+
+        verify(studentService, times(1)).getStudentsPage(1L, 100, StudentView.DEFAULT);
+    }
+
+    @Test
+    void getStudentsPage_shouldReturnBadRequest_whenLimitOutOfRange() throws Exception {
+        when(studentService.getStudentsPage(null, 0, StudentView.DEFAULT))
+                .thenThrow(new IllegalArgumentException("Page limit must be between 1 and 1000."));
+
+        mockMvc.perform(get("/api/students").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Page limit must be between 1 and 1000.")));
+    }
+
+    @Test
+    void getStudentsByIds_shouldReturnStudentsInRequestedOrder_andReportMissingIds() throws Exception {
+        when(studentService.getStudentsByIds(List.of(2L, 9L, 1L), EXPANDED))
+                .thenReturn(new StudentBatch(List.of(studentResponse2, studentResponse1), List.of(9L)));
+
+        mockMvc.perform(post("/api/students/byIds").param("expand", "courses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new StudentIdsRequest(List.of(2L, 9L, 1L)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.students[0].id", is(2)))
+                .andExpect(jsonPath("$.students[1].id", is(1)))
+                .andExpect(jsonPath("$.missingIds", hasSize(1)))
+                .andExpect(jsonPath("$.missingIds[0]", is(9)));
+    }
+
+    @Test
+    void getStudentsByIds_shouldReturnBadRequest_whenTooManyIds() throws Exception {
+        when(studentService.getStudentsByIds(any(), eq(StudentView.DEFAULT)))
+                .thenThrow(new IllegalArgumentException("At most 1000 students can be requested at once."));
+
+        mockMvc.perform(post("/api/students/byIds")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"studentIds\":[1,2]}"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
     void getStudentById_shouldReturnStudent_whenExists() throws Exception {
-        when(studentService.getStudentById(1L)).thenReturn(studentResponse1);
+        when(studentService.getStudentById(1L, StudentView.DEFAULT)).thenReturn(studentResponse1);
 
         mockMvc.perform(get("/api/students/{id}", 1L)
                         .contentType(MediaType.APPLICATION_JSON))
@@ -76,12 +160,100 @@ public class StudentControllerIntegrationTest {
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.firstName", is("Alice")));
 
-        verify(studentService, times(1)).getStudentById(1L);
+        verify(studentService, times(1)).getStudentById(1L, StudentView.DEFAULT);
+    }
+
+    @Test
+    void getStudentById_shouldReturnNotModified_whenETagMatches() throws Exception {
+        studentResponse1.setCourses(Set.of(new CourseDto(101L, "Algebra", "Linear algebra."),
+                new CourseDto(102L, "Physics", "Mechanics.")));
+        when(studentService.getStudentById(1L, EXPANDED)).thenReturn(studentResponse1);
+
+        String etag = mockMvc.perform(get("/api/students/{id}", 1L).param("expand", "courses"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/students/{id}", 1L).param("expand", "courses").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        // A course renamed in Course Service changes the representation, and so the tag
+        studentResponse1.setCourses(Set.of(new CourseDto(101L, "Linear Algebra", "Linear algebra."),
+                new CourseDto(102L, "Physics", "Mechanics.")));
+        mockMvc.perform(get("/api/students/{id}", 1L).param("expand", "courses").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+    }
+
+    @Test
+    void getStudentById_shouldNotTagResponse_whenCoursesUnavailable() throws Exception {
+        studentResponse1.setCoursesUnavailable(true);
+        when(studentService.getStudentById(1L, EXPANDED)).thenReturn(studentResponse1);
+
+        mockMvc.perform(get("/api/students/{id}", 1L).param("expand", "courses"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(header().string("Cache-Control", "no-store"));
+    }
+
+    @Test
+    void getAllStudents_shouldReturnNotModified_whenETagMatches() throws Exception {
+        when(studentService.getAllStudents(StudentView.DEFAULT)).thenReturn(Arrays.asList(studentResponse1, studentResponse2));
+
+        String etag = mockMvc.perform(get("/api/students"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/students").header("If-None-Match", "\"other\", " + etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getStudentById_shouldPassSelectedFieldsAndOmitTheOthers() throws Exception {
+        StudentResponse sparse = new StudentResponse();
+        sparse.setId(1L);
+        sparse.setFirstName("Alice");
+        sparse.setLastName("Smith");
+        StudentView view = StudentView.of(Set.of(StudentView.Field.FIRST_NAME, StudentView.Field.LAST_NAME), false);
+        when(studentService.getStudentById(1L, view)).thenReturn(sparse);
+
+        mockMvc.perform(get("/api/students/{id}", 1L).param("fields", "id,firstName,lastName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.firstName", is("Alice")))
+                .andExpect(jsonPath("$.email").doesNotExist())
+                .andExpect(jsonPath("$.courseIds").doesNotExist())
+                .andExpect(jsonPath("$.courses").doesNotExist());
+    }
+
+    @Test
+    void getAllStudents_shouldPassExpansionWithSelectedFields() throws Exception {
+        StudentView view = StudentView.of(Set.of(StudentView.Field.EMAIL), true);
+        when(studentService.getAllStudents(view)).thenReturn(List.of(studentResponse1));
+
+        mockMvc.perform(get("/api/students").param("fields", "email").param("expand", "courses"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        verify(studentService).getAllStudents(view);
+    }
+
+    @Test
+    void getStudentById_shouldReturnBadRequest_whenFieldOrExpansionUnknown() throws Exception {
+        mockMvc.perform(get("/api/students/{id}", 1L).param("fields", "firstName,password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Unknown field 'password'. Selectable fields are id, firstName, lastName, email, courseIds.")));
+        mockMvc.perform(get("/api/students/{id}", 1L).param("expand", "enrollments"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(studentService);
     }
 
     @Test
     void getStudentById_shouldReturnNotFound_whenNotExists() throws Exception {
-        when(studentService.getStudentById(99L)).thenThrow(new ResourceNotFoundException("Student not found"));
+        when(studentService.getStudentById(99L, StudentView.DEFAULT)).thenThrow(new ResourceNotFoundException("Student not found"));
 
         mockMvc.perform(get("/api/students/{id}", 99L)
                         .contentType(MediaType.APPLICATION_JSON))
@@ -89,7 +261,7 @@ public class StudentControllerIntegrationTest {
                 // UPDATED: Expect JSON response
                 .andExpect(jsonPath("$.message", is("Student not found")));
 
-        verify(studentService, times(1)).getStudentById(99L);
+        verify(studentService, times(1)).getStudentById(99L, StudentView.DEFAULT);
     }
 
     @Test
@@ -136,6 +308,37 @@ public class StudentControllerIntegrationTest {
         verify(studentService, times(1)).createStudent(any(StudentRequest.class));
     }
 
+    @Test
+    void createStudent_shouldReturnServiceUnavailable_whenCourseServiceCallsAreRejected() throws Exception {
+        when(studentService.createStudent(any(StudentRequest.class)))
+                .thenThrow(new CourseServiceUnavailableException("Course Service is temporarily unavailable", null));
+
+        mockMvc.perform(post("/api/students")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(studentRequest)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.errorCode", is("SERVICE_UNAVAILABLE")));
+    }
+
+    @Test
+    void getStudentById_shouldFlagMissingCourses_whenCourseServiceIsUnavailable() throws Exception {
+        studentResponse1.setCoursesUnavailable(true);
+        when(studentService.getStudentById(1L, EXPANDED)).thenReturn(studentResponse1);
+
+        mockMvc.perform(get("/api/students/{id}", 1L).param("expand", "courses"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.coursesUnavailable", is(true)));
+    }
+
+    @Test
+    void getStudentById_shouldOmitCoursesUnavailable_whenCoursesResolved() throws Exception {
+        when(studentService.getStudentById(2L, EXPANDED)).thenReturn(studentResponse2);
+
+        mockMvc.perform(get("/api/students/{id}", 2L).param("expand", "courses"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.coursesUnavailable").doesNotExist());
+    }
+
     @Test
     void updateStudent_shouldReturnUpdatedStudent_whenExists() throws Exception {
         StudentRequest updatedRequest = new StudentRequest("Updated", "Name", "updated@example.com", Set.of(201L, 202L));
@@ -193,4 +396,92 @@ public class StudentControllerIntegrationTest {
 
         verify(studentService, times(1)).deleteStudent(99L);
     }
-}
\ No newline at end of file
+
+    @Test
+    void importStudents_shouldStreamBodyToImportServiceAndReturnSummary() throws Exception {
+        BulkImportResult result = new BulkImportResult(2, 1, 1, List.of(
+                new BulkImportRowResult(1, "a@example.com", BulkImportRowResult.Status.CREATED, 10L, null),
+                new BulkImportRowResult(2, "bad", BulkImportRowResult.Status.FAILED, null, "email: Email should be valid")));
+        when(studentImportService.importStudents(any(), any(MediaType.class))).thenReturn(result);
+
+        mockMvc.perform(post("/api/students/bulk")
+                        .contentType("text/csv")
+                        .content("firstName,lastName,email\nAnn,Lee,a@example.com\nBo,Ray,bad\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.rows[0].id", is(10)))
+                .andExpect(jsonPath("$.rows[0].error").doesNotExist())
+                .andExpect(jsonPath("$.rows[1].status", is("FAILED")));
+
+        verify(studentImportService).importStudents(any(), argThat(type -> type.isCompatibleWith(MediaType.parseMediaType("text/csv"))));
+    }
+
+    @Test
+    void enrollInCourse_shouldReturnUpdatedStudent() throws Exception {
+        CourseDto course = new CourseDto(101L, "Math Basics", "Introductory math course");
+        StudentResponse enrolled = new StudentResponse(1L, "Alice", "Smith", "alice@example.com", Set.of(course));
+        when(studentService.enrollInCourse(1L, 101L)).thenReturn(enrolled);
+
+        mockMvc.perform(post("/api/students/{id}/courses/{courseId}", 1L, 101L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courses", hasSize(1)))
+                .andExpect(jsonPath("$.courses[0].id", is(101)));
+    }
+
+    @Test
+    void dropCourse_shouldReturnNotFound_whenStudentMissing() throws Exception {
+        when(studentService.dropCourse(99L, 101L)).thenThrow(new ResourceNotFoundException("Student not found with id: 99"));
+
+        mockMvc.perform(delete("/api/students/{id}/courses/{courseId}", 99L, 101L))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void updateEnrollments_shouldPassAddAndRemoveSets() throws Exception {
+        EnrollmentChangeRequest change = new EnrollmentChangeRequest(Set.of(102L), Set.of(101L));
+        when(studentService.updateEnrollments(eq(1L), any(EnrollmentChangeRequest.class))).thenReturn(studentResponse1);
+
+        mockMvc.perform(patch("/api/students/{id}/courses", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(change)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)));
+
+        verify(studentService).updateEnrollments(1L, change);
+    }
+
+    @Test
+    void findStudentsByCourses_shouldBindCommaSeparatedCourseIds() throws Exception {
+        when(studentService.findStudentsByCourses(Set.of(101L, 102L), null, Set.of(103L), 5L, 2))
+                .thenReturn(new EnrollmentQueryResult(3, List.of(7L, 9L), 9L));
+
+        mockMvc.perform(get("/api/students/by-courses")
+                        .param("all", "101,102")
+                        .param("none", "103")
+                        .param("after", "5")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count", is(3)))
+                .andExpect(jsonPath("$.studentIds", hasSize(2)))
+                .andExpect(jsonPath("$.nextCursor", is(9)));
+    }
+
+    @Test
+    void findStudentsByCourses_shouldReturnBadRequest_whenNoCourseGiven() throws Exception {
+        when(studentService.findStudentsByCourses(null, null, Set.of(103L), null, 100))
+                .thenThrow(new IllegalArgumentException("At least one course id must be given in 'all' or 'any'."));
+
+        mockMvc.perform(get("/api/students/by-courses").param("none", "103"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void countCourseMates_shouldReturnCount() throws Exception {
+        when(studentService.countCourseMates(1L)).thenReturn(new CourseMateCount(1L, 42));
+
+        mockMvc.perform(get("/api/students/{id}/course-mates/count", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.studentId", is(1)))
+                .andExpect(jsonPath("$.count", is(42)));
+    }
+}
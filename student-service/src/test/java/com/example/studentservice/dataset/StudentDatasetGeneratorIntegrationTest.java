@@ -0,0 +1,90 @@
+package com.example.studentservice.dataset;
+
+import com.example.studentservice.model.Student;
+import com.example.studentservice.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Loads a generated dataset into the in-memory database and checks its shape and that JPA keeps working on top
+@SpringBootTest
+public class StudentDatasetGeneratorIntegrationTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        // Much faster than deleteAll() for thousands of rows, and keeps the other tests' data small
+        jdbcTemplate.update("delete from student_course_enrollments");
+        jdbcTemplate.update("delete from students");
+    }
+
+    @Test
+    void generate_shouldInsertStudentsWithSkewedEnrollments() {
+        StudentDatasetProperties spec = spec(20_000, 100);
+
+        StudentDataset dataset = new StudentDatasetGenerator(dataSource).generate(spec);
+
+        assertThat(dataset.getStudents()).isEqualTo(20_000);
+        assertThat(count("select count(*) from students")).isEqualTo(20_000);
+        assertThat(count("select count(*) from student_course_enrollments")).isEqualTo(dataset.getEnrollments());
+        assertThat(count("select min(c) from (select count(*) c from student_course_enrollments group by student_id) t")).isEqualTo(1);
+        assertThat(count("select max(c) from (select count(*) c from student_course_enrollments group by student_id) t")).isEqualTo(6);
+        assertThat(count("select count(distinct course_id) from student_course_enrollments")).isEqualTo(100);
+
+        // Zipf: the most popular course has many times the enrollments of the median one
+        List<Long> perCourse = jdbcTemplate.queryForList(
+                "select count(*) from student_course_enrollments group by course_id order by count(*) desc", Long.class);
+        assertThat(perCourse.get(0)).isGreaterThan(5 * perCourse.get(perCourse.size() / 2));
+        assertThat(studentRepository.findById(dataset.getFirstId())).get()
+                .satisfies(student -> assertThat(student.getEmail()).isEqualTo(StudentDatasetGenerator.email(dataset.getFirstId())));
+    }
+
+    @Test
+    void generate_shouldLeaveTheIdSequenceAheadOfGeneratedStudents() {
+        StudentDataset first = new StudentDatasetGenerator(dataSource).generate(spec(120, 10));
+        Long saved = studentRepository.save(new Student("After", "Generation", "after@example.com", Set.of(1L))).getId();
+        StudentDataset second = new StudentDatasetGenerator(dataSource).generate(spec(10, 10));
+
+        assertThat(saved).isGreaterThan(first.getLastId());
+        assertThat(second.getFirstId()).isGreaterThan(saved);
+        assertThat(count("select count(*) from students")).isEqualTo(131);
+    }
+
+    @Test
+    void generate_shouldRejectMoreCoursesPerStudentThanCourses() {
+        StudentDatasetProperties spec = spec(10, 3);
+
+        assertThrows(IllegalArgumentException.class, () -> new StudentDatasetGenerator(dataSource).generate(spec));
+    }
+
+    private static StudentDatasetProperties spec(int students, int courses) {
+        StudentDatasetProperties spec = new StudentDatasetProperties();
+        spec.setStudents(students);
+        spec.setCourses(courses);
+        spec.setBatchSize(1_000);
+        return spec;
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
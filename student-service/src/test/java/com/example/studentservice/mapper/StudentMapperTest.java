@@ -0,0 +1,49 @@
+package com.example.studentservice.mapper;
+
+import com.example.studentservice.dto.StudentRequest;
+import com.example.studentservice.dto.StudentResponse;
+import com.example.studentservice.model.Student;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The generated mapper must produce what ModelMapper produced before it
+class StudentMapperTest {
+
+    private final StudentMapper studentMapper = new StudentMapperImpl();
+    private final ModelMapper modelMapper = new ModelMapper();
+
+    @Test
+    void toResponse_shouldMatchModelMapperAndLeaveCoursesToTheCaller() {
+        Student student = new Student(7L, "Alice", "Smith", "alice@example.com", Set.of(101L, 102L));
+
+        StudentResponse response = studentMapper.toResponse(student);
+
+        assertThat(response).isEqualTo(modelMapper.map(student, StudentResponse.class));
+        assertThat(response.getId()).isEqualTo(7L);
+        assertThat(response.getCourses()).isNull();
+        assertThat(response.getCoursesUnavailable()).isNull();
+    }
+
+    @Test
+    void toEntity_shouldMatchModelMapperAndCopyCourseIds() {
+        Set<Long> courseIds = Set.of(101L, 102L);
+        StudentRequest request = new StudentRequest("Alice", "Smith", "alice@example.com", courseIds);
+
+        Student student = studentMapper.toEntity(request);
+
+        assertThat(student).isEqualTo(modelMapper.map(request, Student.class));
+        assertThat(student.getId()).isNull();
+        assertThat(student.getCourseIds()).containsExactlyInAnyOrder(101L, 102L).isNotSameAs(courseIds);
+    }
+
+    @Test
+    void toEntity_shouldKeepEmptyCourseIds_whenRequestHasNone() {
+        Student student = studentMapper.toEntity(new StudentRequest("Alice", "Smith", "alice@example.com", null));
+
+        assertThat(student.getCourseIds()).isEmpty();
+    }
+}
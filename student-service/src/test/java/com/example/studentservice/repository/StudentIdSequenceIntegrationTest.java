@@ -0,0 +1,60 @@
+package com.example.studentservice.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A database that held students before the switch from IDENTITY ids gets a sequence starting at 1
+@SpringBootTest
+public class StudentIdSequenceIntegrationTest {
+
+    // Far beyond any id block Hibernate may already have reserved in this JVM
+    private static final long LEGACY_ID = 1_000_000L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StudentIdSequence studentIdSequence;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from student_course_enrollments");
+        jdbcTemplate.update("delete from students");
+    }
+
+    @Test
+    void startup_shouldMoveASequenceBehindStoredIdsPastThem() {
+        jdbcTemplate.update("insert into students (id, first_name, last_name, email) values (?, ?, ?, ?)",
+                LEGACY_ID, "Legacy", "Student", "legacy@example.com");
+        long nextBeforeTest = studentIdSequence.nextValue();
+        jdbcTemplate.execute("alter sequence students_seq restart with 1");
+        try {
+            studentIdSequence.afterSingletonsInstantiated();
+
+            assertThat(studentIdSequence.nextValue()).isEqualTo(LEGACY_ID + StudentIdSequence.ALLOCATION_SIZE);
+        } finally {
+            // Back next to the id block Hibernate holds in memory, for the tests sharing this context
+            studentIdSequence.movePast(nextBeforeTest - StudentIdSequence.ALLOCATION_SIZE);
+        }
+    }
+
+    @Test
+    void startup_shouldLeaveASequenceAheadOfStoredIdsAlone() {
+        jdbcTemplate.update("insert into students (id, first_name, last_name, email) values (?, ?, ?, ?)",
+                LEGACY_ID, "Legacy", "Student", "legacy@example.com");
+        long nextBeforeTest = studentIdSequence.nextValue();
+        studentIdSequence.movePast(LEGACY_ID + 1_000);
+        try {
+            studentIdSequence.afterSingletonsInstantiated();
+
+            assertThat(studentIdSequence.nextValue()).isEqualTo(LEGACY_ID + 1_000 + StudentIdSequence.ALLOCATION_SIZE);
+        } finally {
+            studentIdSequence.movePast(nextBeforeTest - StudentIdSequence.ALLOCATION_SIZE);
+        }
+    }
+}
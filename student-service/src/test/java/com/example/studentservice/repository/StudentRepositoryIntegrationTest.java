@@ -1,5 +1,7 @@
 package com.example.studentservice.repository;
 
+import com.example.studentservice.dto.StudentResponse;
+import com.example.studentservice.dto.StudentView;
 import com.example.studentservice.model.Student;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -7,6 +9,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.data.domain.Limit;
 import org.springframework.transaction.annotation.Transactional; // Import this
 
 import java.util.List;
@@ -15,7 +20,7 @@ import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 public class StudentRepositoryIntegrationTest {
 
@@ -62,6 +67,7 @@ public class StudentRepositoryIntegrationTest {
         assertThat(savedStudent.getEmail()).isEqualTo("jane.smith@example.com");
         assertThat(savedStudent.getCourseIds()).containsExactly(201L);
 
+        entityManager.flush(); // Sequence ids defer the insert until flush
         entityManager.clear();
         Optional<Student> retrievedStudent = studentRepository.findById(savedStudent.getId());
         assertThat(retrievedStudent).isPresent();
@@ -126,4 +132,121 @@ public class StudentRepositoryIntegrationTest {
         assertThat(students).extracting(Student::getFirstName).containsExactlyInAnyOrder("Alice", "Bob");
         assertThat(students).extracting(Student::getEmail).containsExactlyInAnyOrder("alice@example.com", "bob@example.com");
     }
+
+    @Test
+    void findIdsAfter_shouldReturnNextKeysetPageInIdOrder() {
+        Student student1 = entityManager.persist(new Student("Alice", "A", "alice@example.com", Set.of(401L)));
+        Student student2 = entityManager.persist(new Student("Bob", "B", "bob@example.com", Set.of()));
+        Student student3 = entityManager.persist(new Student("Carol", "C", "carol@example.com", Set.of(402L)));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> firstPage = studentRepository.findIdsAfter(0L, Limit.of(2));
+        assertThat(firstPage).containsExactly(student1.getId(), student2.getId());
+
+        List<Long> secondPage = studentRepository.findIdsAfter(student2.getId(), Limit.of(2));
+        assertThat(secondPage).containsExactly(student3.getId());
+
+        List<StudentResponse> students = studentRepository.findProjections(firstPage, StudentView.DEFAULT);
+        assertThat(students).extracting(StudentResponse::getEmail).containsExactly("alice@example.com", "bob@example.com");
+        assertThat(students.get(0).getCourseIds()).containsExactly(401L);
+    }
+
+    @Test
+    void findStudentIdsByCourse_shouldPageEnrolledStudentsByIdAndCountThem() {
+        Student student1 = entityManager.persist(new Student("Alice", "A", "alice@example.com", Set.of(401L, 402L)));
+        entityManager.persist(new Student("Bob", "B", "bob@example.com", Set.of(402L)));
+        Student student3 = entityManager.persist(new Student("Carol", "C", "carol@example.com", Set.of(401L)));
+        Student student4 = entityManager.persist(new Student("Dave", "D", "dave@example.com", Set.of(401L)));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(studentRepository.findStudentIdsByCourse(401L, 0L, 2)).containsExactly(student1.getId(), student3.getId());
+        assertThat(studentRepository.findStudentIdsByCourse(401L, student3.getId(), 2)).containsExactly(student4.getId());
+        assertThat(studentRepository.findStudentIdsByCourse(999L, 0L, 2)).isEmpty();
+        assertThat(studentRepository.countByCourse(401L)).isEqualTo(3);
+        assertThat(studentRepository.countByCourse(999L)).isZero();
+    }
+
+    // One query for the rows and one for all of their enrollments, whatever the number of students
+    @Test
+    void findProjections_shouldLoadEnrollmentsWithConstantQueryCount() {
+        assertThat(countQueriesLoadingAllStudents(3)).isEqualTo(2);
+        assertThat(countQueriesLoadingAllStudents(50)).isEqualTo(2);
+    }
+
+    // Plus the keyset query for the page's ids
+    @Test
+    void keysetPage_shouldLoadEnrollmentsWithConstantQueryCount() {
+        assertThat(countQueriesLoadingFirstPage(3)).isEqualTo(3);
+        assertThat(countQueriesLoadingFirstPage(50)).isEqualTo(3);
+    }
+
+    @Test
+    void findProjections_shouldSelectOnlyViewFieldsWithoutLoadingEntities() {
+        Statistics statistics = persistStudents(3);
+
+        List<StudentResponse> students = studentRepository.findProjections(null,
+                StudentView.of(Set.of(StudentView.Field.FIRST_NAME), false));
+
+        assertThat(students).extracting(StudentResponse::getFirstName).containsExactly("First0", "First1", "First2");
+        assertThat(students).allSatisfy(student -> {
+            assertThat(student.getId()).isNotNull();
+            assertThat(student.getEmail()).isNull();
+            assertThat(student.getCourseIds()).isNull();
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    @Test
+    void findProjections_shouldReadCourseIdsInOneExtraQuery_andSkipUnknownIds() {
+        Statistics statistics = persistStudents(3);
+        List<Long> ids = studentRepository.findIdsAfter(0L, Limit.of(2));
+        statistics.clear();
+
+        List<StudentResponse> students = studentRepository.findProjections(List.of(ids.get(1), ids.get(0), 999_999L),
+                StudentView.DEFAULT);
+
+        assertThat(students).extracting(StudentResponse::getId).containsExactly(ids.get(0), ids.get(1));
+        assertThat(students.get(1).getEmail()).isEqualTo("student1@example.com");
+        assertThat(students.get(1).getCourseIds()).containsExactlyInAnyOrder(501L, 601L);
+        assertThat(students.get(1).getCourses()).isNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    private long countQueriesLoadingAllStudents(int studentCount) {
+        Statistics statistics = persistStudents(studentCount);
+        List<StudentResponse> students = studentRepository.findProjections(null, StudentView.DEFAULT);
+        students.forEach(student -> assertThat(student.getCourseIds()).hasSize(2));
+        assertThat(students).hasSize(studentCount);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long countQueriesLoadingFirstPage(int studentCount) {
+        Statistics statistics = persistStudents(studentCount);
+        List<StudentResponse> students = studentRepository.findProjections(
+                studentRepository.findIdsAfter(0L, Limit.of(studentCount)), StudentView.DEFAULT);
+        students.forEach(student -> assertThat(student.getCourseIds()).hasSize(2));
+        assertThat(students).hasSize(studentCount);
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Replaces the table contents with the given number of students, each enrolled in two courses,
+    // and returns statistics reset to count only the queries that follow
+    private Statistics persistStudents(int studentCount) {
+        studentRepository.deleteAll();
+        entityManager.flush();
+        for (int i = 0; i < studentCount; i++) {
+            entityManager.persist(new Student("First" + i, "Last" + i, "student" + i + "@example.com", Set.of(500L + i, 600L + i)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
 }
\ No newline at end of file
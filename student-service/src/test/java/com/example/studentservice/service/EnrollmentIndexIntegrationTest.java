@@ -0,0 +1,126 @@
+package com.example.studentservice.service;
+
+import com.example.studentservice.dto.CourseDto;
+import com.example.studentservice.dto.EnrollmentChangeRequest;
+import com.example.studentservice.dto.EnrollmentQueryResult;
+import com.example.studentservice.dto.StudentRequest;
+import com.example.studentservice.model.Student;
+import com.example.studentservice.repository.StudentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+// Builds the enrollment index from the in-memory database and checks it follows service writes
+@SpringBootTest(properties = "student-service.course-client.cache.enabled=false")
+public class EnrollmentIndexIntegrationTest {
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private EnrollmentIndex enrollmentIndex;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    private Long ann;
+    private Long ben;
+    private Long cal;
+
+    @BeforeEach
+    void setUp() {
+        studentRepository.deleteAll();
+        ann = studentRepository.save(new Student("Ann", "Lee", "ann@example.com", Set.of(101L, 102L))).getId();
+        ben = studentRepository.save(new Student("Ben", "Ross", "ben@example.com", Set.of(101L))).getId();
+        cal = studentRepository.save(new Student("Cal", "Moss", "cal@example.com", Set.of(102L, 103L))).getId();
+        // Rows written through the repository bypass the index, so load it the way startup does
+        enrollmentIndex.rebuild();
+
+        when(restTemplate.postForEntity(eq("http://COURSE-SERVICE/api/courses/byIds"), any(HttpEntity.class), eq(CourseDto[].class)))
+                .thenReturn(new ResponseEntity<>(new CourseDto[]{
+                        new CourseDto(101L, "Math Basics", "Introductory math course"),
+                        new CourseDto(102L, "Physics Fun", "Fun with physics"),
+                        new CourseDto(103L, "Chemistry", "Reactions"),
+                        new CourseDto(104L, "Biology", "Cells")}, HttpStatus.OK));
+    }
+
+    @Test
+    void findStudentsByCourses_shouldCombineCoursesFromTheDatabase() {
+        assertThat(studentService.findStudentsByCourses(Set.of(101L, 102L), null, null, null, 10).getStudentIds())
+                .containsExactly(ann);
+        assertThat(studentService.findStudentsByCourses(Set.of(101L), null, Set.of(102L), null, 10).getStudentIds())
+                .containsExactly(ben);
+        assertThat(studentService.findStudentsByCourses(null, Set.of(101L, 103L), null, null, 10).getStudentIds())
+                .containsExactly(ann, ben, cal);
+        assertThat(studentService.findStudentsByCourses(Set.of(101L, 999L), null, null, null, 10).getCount()).isZero();
+    }
+
+    @Test
+    void findStudentsByCourses_shouldPageByStudentId() {
+        EnrollmentQueryResult first = studentService.findStudentsByCourses(null, Set.of(101L, 102L), null, null, 2);
+        assertThat(first.getCount()).isEqualTo(3);
+        assertThat(first.getStudentIds()).containsExactly(ann, ben);
+        assertThat(first.getNextCursor()).isEqualTo(ben);
+
+        EnrollmentQueryResult second = studentService.findStudentsByCourses(null, Set.of(101L, 102L), null, first.getNextCursor(), 2);
+        assertThat(second.getStudentIds()).containsExactly(cal);
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void findStudentsByCourses_shouldRequireAllOrAny() {
+        assertThrows(IllegalArgumentException.class,
+                () -> studentService.findStudentsByCourses(null, null, Set.of(101L), null, 10));
+    }
+
+    @Test
+    void index_shouldFollowCreateUpdateEnrollAndDelete() {
+        Long dan = studentService.createStudent(new StudentRequest("Dan", "Hart", "dan@example.com", Set.of(101L, 104L))).getId();
+        assertThat(studentService.findStudentsByCourses(Set.of(101L, 104L), null, null, null, 10).getStudentIds()).containsExactly(dan);
+
+        studentService.updateStudent(ben, new StudentRequest("Ben", "Ross", "ben@example.com", Set.of(103L)));
+        assertThat(studentService.findStudentsByCourses(Set.of(101L), null, null, null, 10).getStudentIds()).containsExactly(ann, dan);
+        assertThat(studentService.findStudentsByCourses(Set.of(103L), null, null, null, 10).getStudentIds()).containsExactly(ben, cal);
+
+        studentService.updateEnrollments(cal, new EnrollmentChangeRequest(Set.of(104L), Set.of(102L)));
+        assertThat(studentService.findStudentsByCourses(Set.of(104L), null, null, null, 10).getStudentIds()).containsExactly(cal, dan);
+        assertThat(studentService.findStudentsByCourses(Set.of(102L), null, null, null, 10).getStudentIds()).containsExactly(ann);
+
+        studentService.deleteStudent(dan);
+        assertThat(studentService.findStudentsByCourses(null, Set.of(101L, 104L), null, null, 10).getStudentIds()).containsExactly(ann, cal);
+    }
+
+    @Test
+    void countCourseMates_shouldCountOtherStudentsSharingACourse() {
+        assertThat(studentService.countCourseMates(ann).getCount()).isEqualTo(2);
+        assertThat(studentService.countCourseMates(ben).getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void index_shouldReportFootprintThroughMetrics() {
+        assertThat(meterRegistry.get("student.enrollment.index.size").gauge().value()).isPositive();
+        assertThat(meterRegistry.get("student.enrollment.index.courses").gauge().value()).isEqualTo(3);
+        assertThat(meterRegistry.get("student.enrollment.index.enrollments").gauge().value()).isEqualTo(5);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.studentservice.service;
+
+import com.example.studentservice.StudentServiceApplication;
+import com.example.studentservice.dto.CourseDto;
+import com.example.studentservice.dto.StudentRequest;
+import com.example.studentservice.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+// Two Student Service instances over one database: each index picks up the other's writes
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + EnrollmentIndexRefreshIntegrationTest.DATABASE_URL,
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "eureka.client.enabled=false",
+        "student-service.course-client.cache.enabled=false",
+        "student-service.enrollment-index.refresh-interval=100ms"
+})
+public class EnrollmentIndexRefreshIntegrationTest {
+
+    static final String DATABASE_URL = "jdbc:h2:mem:enrollment-index-refresh;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private EnrollmentIndex enrollmentIndex;
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void setUp() {
+        studentRepository.deleteAll();
+        enrollmentIndex.rebuild();
+
+        when(restTemplate.postForEntity(eq("http://COURSE-SERVICE/api/courses/byIds"), any(HttpEntity.class), eq(CourseDto[].class)))
+                .thenReturn(new ResponseEntity<>(new CourseDto[]{
+                        new CourseDto(101L, "Math Basics", "Introductory math course"),
+                        new CourseDto(104L, "Biology", "Cells")}, HttpStatus.OK));
+    }
+
+    @Test
+    void index_shouldPickUpWritesCommittedThroughAnotherInstance() throws Exception {
+        // Command-line arguments, since they take precedence over application.properties
+        try (ConfigurableApplicationContext other = new SpringApplicationBuilder(StudentServiceApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + DATABASE_URL,
+                // The schema belongs to this test's context
+                "--spring.jpa.hibernate.ddl-auto=none",
+                "--eureka.client.enabled=false",
+                "--spring.cloud.config.enabled=false",
+                "--student-service.enrollment-index.refresh-interval=100ms",
+                "--logging.level.root=WARN")) {
+            EnrollmentIndex otherIndex = other.getBean(EnrollmentIndex.class);
+
+            Long dan = studentService.createStudent(
+                    new StudentRequest("Dan", "Hart", "dan@example.com", Set.of(101L, 104L))).getId();
+            assertThat(enrollmentIndex.select(Set.of(104L), null, null).contains(dan)).isTrue();
+            await(() -> otherIndex.select(Set.of(101L, 104L), null, null).contains(dan));
+
+            other.getBean(StudentService.class).deleteStudent(dan);
+            assertThat(otherIndex.select(null, Set.of(101L, 104L), null).isEmpty()).isTrue();
+            await(() -> enrollmentIndex.select(null, Set.of(101L, 104L), null).isEmpty());
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("index caught up within 5 s").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+}
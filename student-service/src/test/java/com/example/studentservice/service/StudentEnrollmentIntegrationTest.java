@@ -0,0 +1,150 @@
+package com.example.studentservice.service;
+
+import com.example.studentservice.dto.CourseDto;
+import com.example.studentservice.dto.EnrollmentChangeRequest;
+import com.example.studentservice.dto.StudentRequest;
+import com.example.studentservice.model.Student;
+import com.example.studentservice.repository.StudentRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+// Checks the SQL Hibernate issues for enrollment changes against the in-memory database
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.studentservice.service.StudentEnrollmentIntegrationTest$SqlRecorder",
+        "student-service.course-client.cache.enabled=false"
+})
+public class StudentEnrollmentIntegrationTest {
+
+    private static final String ENROLLMENTS = "student_course_enrollments";
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    private Long studentId;
+
+    @BeforeEach
+    void setUp() {
+        studentRepository.deleteAll();
+        studentId = studentRepository.save(new Student("John", "Doe", "john@example.com", Set.of(101L, 102L, 103L))).getId();
+        when(restTemplate.postForEntity(eq("http://COURSE-SERVICE/api/courses/byIds"), any(HttpEntity.class), eq(CourseDto[].class)))
+                .thenReturn(new ResponseEntity<>(new CourseDto[]{
+                        new CourseDto(101L, "Math Basics", "Introductory math course"),
+                        new CourseDto(102L, "Physics Fun", "Fun with physics"),
+                        new CourseDto(103L, "Chemistry", "Reactions"),
+                        new CourseDto(104L, "Biology", "Cells")}, HttpStatus.OK));
+        SqlRecorder.STATEMENTS.clear();
+    }
+
+    @Test
+    void enrollInCourse_shouldInsertOneEnrollmentRow() {
+        studentService.enrollInCourse(studentId, 104L);
+
+        assertThat(enrollmentStatements()).containsExactly("insert");
+        assertThat(studentRepository.findById(studentId).get().getCourseIds()).containsExactlyInAnyOrder(101L, 102L, 103L, 104L);
+    }
+
+    @Test
+    void dropCourse_shouldDeleteOneEnrollmentRow() {
+        studentService.dropCourse(studentId, 102L);
+
+        assertThat(enrollmentStatements()).containsExactly("delete");
+        assertThat(studentRepository.findById(studentId).get().getCourseIds()).containsExactlyInAnyOrder(101L, 103L);
+    }
+
+    @Test
+    void updateEnrollments_shouldWriteOnlyChangedRows() {
+        studentService.updateEnrollments(studentId, new EnrollmentChangeRequest(Set.of(103L, 104L), Set.of(101L)));
+
+        assertThat(enrollmentStatements()).containsExactlyInAnyOrder("insert", "delete");
+        assertThat(studentRepository.findById(studentId).get().getCourseIds()).containsExactlyInAnyOrder(102L, 103L, 104L);
+    }
+
+    @Test
+    void enrollInCourse_shouldWriteNothing_whenAlreadyEnrolled() {
+        studentService.enrollInCourse(studentId, 101L);
+
+        assertThat(enrollmentStatements()).isEmpty();
+    }
+
+    @Test
+    void updateStudent_shouldWriteOnlyChangedRows() {
+        studentService.updateStudent(studentId, new StudentRequest("John", "Doe", "john@example.com", Set.of(101L, 102L, 104L)));
+
+        assertThat(enrollmentStatements()).containsExactlyInAnyOrder("insert", "delete");
+    }
+
+    @Test
+    void concurrentUpdatesOfOneStudent_shouldAllSucceed() throws Exception {
+        List<Set<Long>> enrollments = List.of(Set.of(101L, 102L), Set.of(103L, 104L));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> updates = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                Set<Long> courseIds = enrollments.get(i % 2);
+                updates.add(executor.submit(() -> {
+                    start.await();
+                    return studentService.updateStudent(studentId, new StudentRequest("John", "Doe", "john@example.com", courseIds));
+                }));
+            }
+            start.countDown();
+            // Without the row lock, two updates delete the same enrollment row and one fails
+            for (Future<?> update : updates) {
+                update.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(enrollments).contains(studentRepository.findById(studentId).get().getCourseIds());
+    }
+
+    // Write statements (insert/update/delete) that touched the enrollment table, by kind
+    private static List<String> enrollmentStatements() {
+        return SqlRecorder.STATEMENTS.stream()
+                .map(sql -> sql.toLowerCase(Locale.ROOT))
+                .filter(sql -> sql.contains(ENROLLMENTS) && !sql.startsWith("select"))
+                .map(sql -> sql.substring(0, sql.indexOf(' ')))
+                .toList();
+    }
+
+    public static class SqlRecorder implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.trim());
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.studentservice.service;
+
+import com.example.studentservice.dto.BulkImportResult;
+import com.example.studentservice.dto.BulkImportRowResult;
+import com.example.studentservice.dto.CourseDto;
+import com.example.studentservice.exception.CourseServiceUnavailableException;
+import com.example.studentservice.model.Student;
+import com.example.studentservice.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// Runs against the in-memory database with Course Service stubbed at the RestTemplate
+@SpringBootTest(properties = {
+        "student-service.bulk-import.chunk-size=2",
+        "student-service.course-client.cache.enabled=false"
+})
+public class StudentImportServiceIntegrationTest {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
+    @Autowired
+    private StudentImportService studentImportService;
+
+    @SpyBean
+    private StudentRepository studentRepository;
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void setUp() {
+        studentRepository.deleteAll();
+        when(restTemplate.postForEntity(eq("http://COURSE-SERVICE/api/courses/byIds"), any(HttpEntity.class), eq(CourseDto[].class)))
+                .thenReturn(new ResponseEntity<>(new CourseDto[]{
+                        new CourseDto(101L, "Math Basics", "Introductory math course"),
+                        new CourseDto(102L, "Physics Fun", "Fun with physics")}, HttpStatus.OK));
+    }
+
+    @Test
+    void importStudents_shouldCreateValidRowsAndReportEachFailure() throws Exception {
+        studentRepository.save(new Student("Existing", "Student", "existing@example.com", Set.of()));
+        String body = String.join("\n",
+                "{\"firstName\":\"Alice\",\"lastName\":\"Smith\",\"email\":\"alice@example.com\",\"courseIds\":[101]}",
+                "{\"firstName\":\"Bob\",\"lastName\":\"Jones\",\"email\":\"bob@example.com\",\"courseIds\":[101,102]}",
+                "{\"firstName\":\"Carol\",\"lastName\":\"King\",\"email\":\"carol@example.com\"}",
+                "",
+                "{\"firstName\":\"Dup\",\"lastName\":\"Alice\",\"email\":\"ALICE@example.com\"}",
+                "{\"firstName\":\"Old\",\"lastName\":\"Timer\",\"email\":\"existing@example.com\"}",
+                "{\"firstName\":\"Eve\",\"lastName\":\"Adams\",\"email\":\"eve@example.com\",\"courseIds\":[999]}",
+                "{\"firstName\":\"F\",\"lastName\":\"Short\",\"email\":\"not-an-email\"}",
+                "{not json");
+
+        BulkImportResult result = importNdjson(body);
+
+        assertThat(result.getTotal()).isEqualTo(8);
+        assertThat(result.getCreated()).isEqualTo(3);
+        assertThat(result.getFailed()).isEqualTo(5);
+        assertThat(result.getRows()).extracting(BulkImportRowResult::getLine).containsExactly(1, 2, 3, 5, 6, 7, 8, 9);
+        assertThat(result.getRows()).extracting(BulkImportRowResult::getStatus).containsExactly(
+                BulkImportRowResult.Status.CREATED, BulkImportRowResult.Status.CREATED, BulkImportRowResult.Status.CREATED,
+                BulkImportRowResult.Status.FAILED, BulkImportRowResult.Status.FAILED, BulkImportRowResult.Status.FAILED,
+                BulkImportRowResult.Status.FAILED, BulkImportRowResult.Status.FAILED);
+        assertThat(result.getRows().get(3).getError()).isEqualTo("Duplicate email ALICE@example.com in import.");
+        assertThat(result.getRows().get(4).getError()).isEqualTo("Student with email existing@example.com already exists.");
+        assertThat(result.getRows().get(5).getError()).isEqualTo("One or more courses with IDs [999] do not exist.");
+        assertThat(result.getRows().get(6).getError()).contains("email: Email should be valid", "firstName: First name must be between 2 and 50 characters");
+        assertThat(result.getRows().get(7).getError()).startsWith("Malformed JSON");
+
+        // Rows were inserted across two chunks and all got ids
+        assertThat(studentRepository.findById(result.getRows().get(1).getId())).get()
+                .satisfies(bob -> assertThat(bob.getCourseIds()).containsExactlyInAnyOrder(101L, 102L));
+        assertThat(result.getRows().subList(0, 3)).allSatisfy(row -> assertThat(row.getId()).isNotNull());
+        assertThat(studentRepository.count()).isEqualTo(4);
+
+        // All course ids referenced by the file were resolved with a single lookup
+        verify(restTemplate, times(1)).postForEntity(eq("http://COURSE-SERVICE/api/courses/byIds"), any(HttpEntity.class), eq(CourseDto[].class));
+    }
+
+    @Test
+    void importStudents_shouldOnlyFailTheConflictingRow_whenItsChunkCannotBeInserted() throws Exception {
+        // Created after the duplicate check ran, as by a concurrent request
+        studentRepository.save(new Student("Late", "Comer", "late@example.com", Set.of()));
+        doReturn(List.of()).when(studentRepository).findExistingEmails(any());
+        String body = String.join("\n",
+                "{\"firstName\":\"Alice\",\"lastName\":\"Smith\",\"email\":\"alice@example.com\",\"courseIds\":[101]}",
+                "{\"firstName\":\"Late\",\"lastName\":\"Comer\",\"email\":\"late@example.com\"}",
+                "{\"firstName\":\"Bob\",\"lastName\":\"Jones\",\"email\":\"bob@example.com\"}");
+
+        BulkImportResult result = importNdjson(body);
+
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getRows()).extracting(BulkImportRowResult::getStatus).containsExactly(
+                BulkImportRowResult.Status.CREATED, BulkImportRowResult.Status.FAILED, BulkImportRowResult.Status.CREATED);
+        assertThat(result.getRows().get(1).getError()).startsWith("Insert failed: ");
+        assertThat(studentRepository.findById(result.getRows().get(0).getId())).get()
+                .satisfies(alice -> assertThat(alice.getCourseIds()).containsExactly(101L));
+        assertThat(studentRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void importStudents_shouldParseCsvWithHeaderAndQuotedFields() throws Exception {
+        String body = String.join("\n",
+                "email,firstName,lastName,courseIds",
+                "ann@example.com,Ann,\"O'Neil, Jr\",101;102",
+                "ben@example.com,Ben,Brown,",
+                "cal@example.com,Cal,Cole,abc",
+                "dan@example.com,Dan");
+
+        BulkImportResult result = studentImportService.importStudents(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), CSV);
+
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getRows()).extracting(BulkImportRowResult::getLine).containsExactly(2, 3, 4, 5);
+        assertThat(studentRepository.findById(result.getRows().get(0).getId())).get()
+                .satisfies(ann -> {
+                    assertThat(ann.getLastName()).isEqualTo("O'Neil, Jr");
+                    assertThat(ann.getCourseIds()).containsExactlyInAnyOrder(101L, 102L);
+                });
+        assertThat(result.getRows().get(2).getError()).isEqualTo("Invalid course id 'abc'.");
+        assertThat(result.getRows().get(3).getError()).isEqualTo("Expected 4 columns but found 2.");
+    }
+
+    @Test
+    void importStudents_shouldRejectCsvWithoutRequiredColumns() {
+        assertThrows(IllegalArgumentException.class, () -> studentImportService.importStudents(
+                new ByteArrayInputStream("name,email\nAnn,ann@example.com".getBytes(StandardCharsets.UTF_8)), CSV));
+    }
+
+    @Test
+    void importStudents_shouldFailWithoutInserting_whenCoursesCannotBeValidated() {
+        when(restTemplate.postForEntity(eq("http://COURSE-SERVICE/api/courses/byIds"), any(HttpEntity.class), eq(CourseDto[].class)))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        assertThrows(CourseServiceUnavailableException.class, () -> importNdjson(
+                "{\"firstName\":\"Alice\",\"lastName\":\"Smith\",\"email\":\"alice@example.com\",\"courseIds\":[101]}"));
+        assertThat(studentRepository.count()).isZero();
+    }
+
+    private BulkImportResult importNdjson(String body) throws Exception {
+        return studentImportService.importStudents(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), NDJSON);
+    }
+}
@@ -1,27 +1,54 @@
 // src/test/java/com/example/studentservice/service/StudentServiceInterServiceTest.java
 package com.example.studentservice.service;
 
+import com.example.studentservice.client.CourseCatalogReplica;
+import com.example.studentservice.client.CourseClientProperties;
+import com.example.studentservice.client.CourseLookup;
+import com.example.studentservice.client.CourseServiceClient;
 import com.example.studentservice.dto.CourseDto;
+import com.example.studentservice.dto.CourseValidationRequest;
+import com.example.studentservice.dto.EnrollmentChangeRequest;
+import com.example.studentservice.dto.StudentBatch;
+import com.example.studentservice.dto.StudentPage;
 import com.example.studentservice.dto.StudentRequest;
 import com.example.studentservice.dto.StudentResponse;
+import com.example.studentservice.dto.StudentView;
+import com.example.studentservice.exception.CourseServiceUnavailableException;
 import com.example.studentservice.exception.ResourceNotFoundException;
+import com.example.studentservice.mapper.StudentMapper;
 import com.example.studentservice.model.Student;
 import com.example.studentservice.repository.StudentRepository;
 import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
-import org.modelmapper.ModelMapper;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -45,27 +72,52 @@ public class StudentServiceInterServiceTest {
     private RestTemplate restTemplate;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private StudentMapper studentMapper;
+
+    private static final StudentView EXPANDED = StudentView.parse(null, Set.of("courses"));
 
     private StudentServiceImpl studentService;
 
+    private CourseClientProperties courseClientProperties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private BulkheadRegistry bulkheadRegistry;
+
     @BeforeEach
     void setUp() {
-        studentService = new StudentServiceImpl(studentRepository, modelMapper, restTemplate);
+        courseClientProperties = new CourseClientProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        // Small window so a couple of failures open the breaker
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+        bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        studentService = new StudentServiceImpl(studentRepository, studentMapper,
+                new CourseServiceClient(restTemplate, courseClientProperties,
+                        new CourseCatalogReplica(meterRegistry), meterRegistry,
+                        circuitBreakerRegistry, bulkheadRegistry),
+                mock(PlatformTransactionManager.class), mock(EnrollmentIndex.class), mock(ApplicationEventPublisher.class));
     }
 
     @Test
     void getStudentById_shouldFetchCourses_whenCourseIdsExist() throws Exception {
         Long studentId = 1L;
         Set<Long> courseIds = Set.of(101L, 102L);
-        Student student = new Student(studentId, "John", "Doe", "john@example.com", courseIds);
+        givenStudent(studentId, "John", "john@example.com", courseIds);
 
         CourseDto course101 = new CourseDto(101L, "Math Basics", "Introductory math course");
         CourseDto course102 = new CourseDto(102L, "Physics Fun", "Fun with physics");
         List<CourseDto> mockCourses = Arrays.asList(course101, course102);
 
-        when(studentRepository.findById(studentId)).thenReturn(Optional.of(student));
-
         // CORRECTED: Mock postForEntity for fetchCoursesByIds
         when(restTemplate.postForEntity(
                 eq("http://COURSE-SERVICE/api/courses/byIds"),
@@ -73,7 +125,7 @@ public class StudentServiceInterServiceTest {
                 eq(CourseDto[].class)
         )).thenReturn(new ResponseEntity<>(mockCourses.toArray(new CourseDto[0]), HttpStatus.OK));
 
-        StudentResponse response = studentService.getStudentById(studentId);
+        StudentResponse response = studentService.getStudentById(studentId, EXPANDED);
 
         assertThat(response).isNotNull();
         assertThat(response.getId()).isEqualTo(studentId);
@@ -85,7 +137,173 @@ public class StudentServiceInterServiceTest {
                 any(HttpEntity.class), // Changed to any(HttpEntity.class)
                 eq(CourseDto[].class)
         );
-        verify(studentRepository, times(1)).findById(studentId);
+        verify(studentRepository, times(1)).findProjections(List.of(studentId), EXPANDED);
+    }
+
+    @Test
+    void getStudentById_withView_shouldSkipCourseService_whenCoursesNotExpanded() {
+        StudentResponse projected = new StudentResponse();
+        projected.setId(1L);
+        projected.setFirstName("John");
+        projected.setCourseIds(Set.of(101L, 102L));
+        StudentView view = StudentView.parse(List.of("firstName", "courseIds"), null);
+        when(studentRepository.findProjections(List.of(1L), view)).thenReturn(List.of(projected));
+
+        StudentResponse response = studentService.getStudentById(1L, view);
+
+        assertThat(response.getCourseIds()).containsExactlyInAnyOrder(101L, 102L);
+        assertThat(response.getCourses()).isNull();
+        verifyNoInteractions(restTemplate);
+        verify(studentRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void getAllStudents_withView_shouldExpandCoursesInOneLookup_andDropUnselectedCourseIds() {
+        StudentResponse first = new StudentResponse();
+        first.setId(1L);
+        first.setCourseIds(Set.of(101L));
+        StudentResponse second = new StudentResponse();
+        second.setId(2L);
+        second.setCourseIds(Set.of(101L, 102L));
+        StudentView view = StudentView.parse(List.of("email"), List.of("courses"));
+        when(studentRepository.findIdsAfter(0L, Limit.of(StudentServiceImpl.MAX_PAGE_SIZE + 1))).thenReturn(List.of(1L, 2L));
+        when(studentRepository.findProjections(List.of(1L, 2L), view)).thenReturn(List.of(first, second));
+        CourseDto course101 = new CourseDto(101L, "Math Basics", "Introductory math course");
+        CourseDto course102 = new CourseDto(102L, "Physics Fun", "Fun with physics");
+        when(restTemplate.postForEntity(eq("http://COURSE-SERVICE/api/courses/byIds"), any(HttpEntity.class), eq(CourseDto[].class)))
+                .thenReturn(new ResponseEntity<>(new CourseDto[]{course101, course102}, HttpStatus.OK));
+
+        List<StudentResponse> responses = studentService.getAllStudents(view);
+
+        assertThat(responses.get(0).getCourses()).containsExactly(course101);
+        assertThat(responses.get(1).getCourses()).containsExactlyInAnyOrder(course101, course102);
+        assertThat(responses).allSatisfy(response -> assertThat(response.getCourseIds()).isNull());
+        verify(restTemplate, times(1)).postForEntity(eq("http://COURSE-SERVICE/api/courses/byIds"), any(HttpEntity.class), eq(CourseDto[].class));
+    }
+
+    @Test
+    void getAllStudents_withView_shouldLookUpEachPagesNewCoursesOnce() {
+        StudentView view = StudentView.parse(null, List.of("courses"));
+        List<Long> firstPageIds = new ArrayList<>();
+        List<StudentResponse> firstPage = new ArrayList<>();
+        for (long id = 1; id <= StudentServiceImpl.MAX_PAGE_SIZE; id++) {
+            firstPageIds.add(id);
+            firstPage.add(new StudentResponse(id, "First" + id, "Last" + id, "s" + id + "@example.com", Set.of(101L), null, null));
+        }
+        long lastId = StudentServiceImpl.MAX_PAGE_SIZE + 1;
+        StudentResponse last = new StudentResponse(lastId, "Last", "Student", "last@example.com", Set.of(101L, 102L), null, null);
+        when(studentRepository.findIdsAfter(0L, Limit.of(StudentServiceImpl.MAX_PAGE_SIZE + 1))).thenReturn(withNext(firstPageIds, lastId));
+        when(studentRepository.findProjections(firstPageIds, view)).thenReturn(firstPage);
+        when(studentRepository.findIdsAfter((long) StudentServiceImpl.MAX_PAGE_SIZE, Limit.of(StudentServiceImpl.MAX_PAGE_SIZE + 1))).thenReturn(List.of(lastId));
+        when(studentRepository.findProjections(List.of(lastId), view)).thenReturn(List.of(last));
+        CourseDto course101 = new CourseDto(101L, "Math Basics", "Introductory math course");
+        CourseDto course102 = new CourseDto(102L, "Physics Fun", "Fun with physics");
+        when(restTemplate.postForEntity(eq("http://COURSE-SERVICE/api/courses/byIds"), any(HttpEntity.class), eq(CourseDto[].class)))
+                .thenAnswer(invocation -> {
+                    HttpEntity<CourseValidationRequest> request = invocation.getArgument(1);
+                    return new ResponseEntity<>(Stream.of(course101, course102)
+                            .filter(course -> request.getBody().getCourseIds().contains(course.getId()))
+                            .toArray(CourseDto[]::new), HttpStatus.OK);
+                });
+
+        List<StudentResponse> responses = studentService.getAllStudents(view);
+
+        assertThat(responses).hasSize(StudentServiceImpl.MAX_PAGE_SIZE + 1);
+        assertThat(responses.get(0).getCourses()).containsExactly(course101);
+        assertThat(responses.get(StudentServiceImpl.MAX_PAGE_SIZE).getCourses()).containsExactlyInAnyOrder(course101, course102);
+        // 101 was requested for the first page while the second was read, so the second only asks for 102
+        // (both lookups may also share one request, see CourseBatchLoader)
+        ArgumentCaptor<HttpEntity<CourseValidationRequest>> requests = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate, atMost(2)).postForEntity(eq("http://COURSE-SERVICE/api/courses/byIds"), requests.capture(), eq(CourseDto[].class));
+        assertThat(requests.getAllValues()).flatExtracting(request -> request.getBody().getCourseIds())
+                .containsExactlyInAnyOrder(101L, 102L);
+    }
+
+    @Test
+    void getAllStudents_withView_shouldKeepPaging_whenAStudentIsDeletedBetweenIdAndRowReads() {
+        List<Long> firstPageIds = new ArrayList<>();
+        List<StudentResponse> firstPage = new ArrayList<>();
+        for (long id = 1; id <= StudentServiceImpl.MAX_PAGE_SIZE; id++) {
+            firstPageIds.add(id);
+            // Student 500 is deleted after its id was read, so its row is missing
+            if (id != 500) {
+                firstPage.add(projected(id, "First" + id, "s" + id + "@example.com", Set.of(101L)));
+            }
+        }
+        long lastId = StudentServiceImpl.MAX_PAGE_SIZE + 1;
+        when(studentRepository.findIdsAfter(0L, Limit.of(StudentServiceImpl.MAX_PAGE_SIZE + 1))).thenReturn(withNext(firstPageIds, lastId));
+        when(studentRepository.findProjections(firstPageIds, EXPANDED)).thenReturn(firstPage);
+        when(studentRepository.findIdsAfter((long) StudentServiceImpl.MAX_PAGE_SIZE, Limit.of(StudentServiceImpl.MAX_PAGE_SIZE + 1))).thenReturn(List.of(lastId));
+        when(studentRepository.findProjections(List.of(lastId), EXPANDED))
+                .thenReturn(List.of(projected(lastId, "Last", "last@example.com", Set.of(101L))));
+        when(restTemplate.postForEntity(eq("http://COURSE-SERVICE/api/courses/byIds"), any(HttpEntity.class), eq(CourseDto[].class)))
+                .thenReturn(new ResponseEntity<>(new CourseDto[0], HttpStatus.OK));
+
+        List<StudentResponse> responses = studentService.getAllStudents(EXPANDED);
+
+        assertThat(responses).hasSize(StudentServiceImpl.MAX_PAGE_SIZE);
+        assertThat(responses.get(responses.size() - 1).getId()).isEqualTo(lastId);
+    }
+
+    @Test
+    void getAllStudents_withView_shouldRethrow_whenALaterPageReadFails() {
+        StudentView view = StudentView.parse(null, List.of("courses"));
+        List<Long> firstPageIds = new ArrayList<>();
+        List<StudentResponse> firstPage = new ArrayList<>();
+        for (long id = 1; id <= StudentServiceImpl.MAX_PAGE_SIZE; id++) {
+            firstPageIds.add(id);
+            firstPage.add(new StudentResponse(id, "First" + id, "Last" + id, "s" + id + "@example.com", Set.of(101L), null, null));
+        }
+        when(studentRepository.findIdsAfter(0L, Limit.of(StudentServiceImpl.MAX_PAGE_SIZE + 1)))
+                .thenReturn(withNext(firstPageIds, StudentServiceImpl.MAX_PAGE_SIZE + 1L));
+        when(studentRepository.findProjections(firstPageIds, view)).thenReturn(firstPage);
+        when(studentRepository.findIdsAfter((long) StudentServiceImpl.MAX_PAGE_SIZE, Limit.of(StudentServiceImpl.MAX_PAGE_SIZE + 1)))
+                .thenThrow(new IllegalStateException("connection lost"));
+        when(restTemplate.postForEntity(eq("http://COURSE-SERVICE/api/courses/byIds"), any(HttpEntity.class), eq(CourseDto[].class)))
+                .thenReturn(new ResponseEntity<>(new CourseDto[0], HttpStatus.OK));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> studentService.getAllStudents(view));
+
+        assertThat(e).hasMessage("connection lost");
+    }
+
+    @Test
+    void getStudentsByIds_shouldKeepRequestedOrder_reportMissingIds_andExpandInOneLookup() {
+        StudentResponse first = new StudentResponse(1L, "Alice", "A", "alice@example.com", Set.of(101L, 102L), null, null);
+        StudentResponse third = new StudentResponse(3L, "Carol", "C", "carol@example.com", Set.of(102L), null, null);
+        StudentView view = StudentView.parse(null, List.of("courses"));
+        when(studentRepository.findProjections(new LinkedHashSet<>(List.of(3L, 7L, 1L)), view)).thenReturn(List.of(first, third));
+        CourseDto course101 = new CourseDto(101L, "Math Basics", "Introductory math course");
+        CourseDto course102 = new CourseDto(102L, "Physics Fun", "Fun with physics");
+        when(restTemplate.postForEntity(eq("http://COURSE-SERVICE/api/courses/byIds"), any(HttpEntity.class), eq(CourseDto[].class)))
+                .thenReturn(new ResponseEntity<>(new CourseDto[]{course101, course102}, HttpStatus.OK));
+
+        StudentBatch batch = studentService.getStudentsByIds(List.of(3L, 7L, 1L, 3L), view);
+
+        assertThat(batch.getStudents()).extracting(StudentResponse::getId).containsExactly(3L, 1L);
+        assertThat(batch.getStudents().get(1).getCourses()).containsExactlyInAnyOrder(course101, course102);
+        assertThat(batch.getMissingIds()).containsExactly(7L);
+        ArgumentCaptor<HttpEntity<CourseValidationRequest>> requests = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate, times(1)).postForEntity(eq("http://COURSE-SERVICE/api/courses/byIds"), requests.capture(), eq(CourseDto[].class));
+        assertThat(requests.getValue().getBody().getCourseIds()).containsExactlyInAnyOrder(101L, 102L);
+    }
+
+    @Test
+    void getStudentsByIds_shouldRejectMoreThanMaxPageSizeIds() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= StudentServiceImpl.MAX_PAGE_SIZE + 1; id++) {
+            ids.add(id);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> studentService.getStudentsByIds(ids, StudentView.DEFAULT));
+        verifyNoInteractions(studentRepository);
+    }
+
+    @Test
+    void getStudentById_withView_shouldThrowNotFound_whenNoRowMatches() {
+        when(studentRepository.findProjections(List.of(9L), StudentView.DEFAULT)).thenReturn(List.of());
+
+        assertThrows(ResourceNotFoundException.class, () -> studentService.getStudentById(9L, StudentView.DEFAULT));
     }
 
     @Test
@@ -115,8 +333,8 @@ public class StudentServiceInterServiceTest {
         assertThat(response.getId()).isEqualTo(2L);
         assertThat(response.getCourses()).containsExactlyInAnyOrderElementsOf(mockCourses);
 
-        // Verify postForEntity is called twice (once for validation, once for fetching)
-        verify(restTemplate, times(2)).postForEntity(
+        // The validation response is reused to build the student response
+        verify(restTemplate, times(1)).postForEntity(
                 eq("http://COURSE-SERVICE/api/courses/byIds"),
                 any(HttpEntity.class),
                 eq(CourseDto[].class)
@@ -158,12 +376,68 @@ public class StudentServiceInterServiceTest {
     }
 
     @Test
-    void getStudentById_shouldHandleCourseServiceDown() throws Exception {
+    void getStudentById_shouldServeRepeatedLookupsFromCourseCache() {
         Long studentId = 1L;
-        Set<Long> courseIds = Set.of(101L);
-        Student student = new Student(studentId, "John", "Doe", "john@example.com", courseIds);
+        givenStudent(studentId, "John", "john@example.com", Set.of(101L, 102L));
+        givenStudent(2L, "Jane", "jane@example.com", Set.of(102L, 103L));
+        CourseDto course101 = new CourseDto(101L, "Math Basics", "Introductory math course");
+        CourseDto course102 = new CourseDto(102L, "Physics Fun", "Fun with physics");
+        CourseDto course103 = new CourseDto(103L, "Chemistry", "Basic Chemistry");
+        when(restTemplate.postForEntity(
+                eq("http://COURSE-SERVICE/api/courses/byIds"),
+                any(HttpEntity.class),
+                eq(CourseDto[].class)
+        )).thenReturn(new ResponseEntity<>(new CourseDto[]{course101, course102}, HttpStatus.OK))
+                .thenReturn(new ResponseEntity<>(new CourseDto[]{course103}, HttpStatus.OK));
+
+        studentService.getStudentById(studentId, EXPANDED);
+        StudentResponse cached = studentService.getStudentById(studentId, EXPANDED);
+        StudentResponse partiallyCached = studentService.getStudentById(2L, EXPANDED);
 
-        when(studentRepository.findById(studentId)).thenReturn(Optional.of(student));
+        assertThat(cached.getCourses()).containsExactlyInAnyOrder(course101, course102);
+        assertThat(partiallyCached.getCourses()).containsExactlyInAnyOrder(course102, course103);
+
+        // First lookup misses, the second is a full hit, the third only sends the missing id 103
+        ArgumentCaptor<HttpEntity<CourseValidationRequest>> requests = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate, times(2)).postForEntity(
+                eq("http://COURSE-SERVICE/api/courses/byIds"),
+                requests.capture(),
+                eq(CourseDto[].class)
+        );
+        assertThat(requests.getAllValues().get(1).getBody().getCourseIds()).containsExactly(103L);
+    }
+
+    @Test
+    void createStudent_shouldValidateAgainstCourseService_evenWhenCoursesAreCached() {
+        givenStudent(1L, "John", "john@example.com", Set.of(101L, 102L));
+        CourseDto course101 = new CourseDto(101L, "Math Basics", "Introductory math course");
+        CourseDto course102 = new CourseDto(102L, "Physics Fun", "Fun with physics");
+        when(studentRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+        // Course 102 is deleted after the first lookup cached it
+        when(restTemplate.postForEntity(
+                eq("http://COURSE-SERVICE/api/courses/byIds"),
+                any(HttpEntity.class),
+                eq(CourseDto[].class)
+        )).thenReturn(new ResponseEntity<>(new CourseDto[]{course101, course102}, HttpStatus.OK))
+                .thenReturn(new ResponseEntity<>(new CourseDto[0], HttpStatus.OK));
+
+        studentService.getStudentById(1L, EXPANDED);
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () ->
+                studentService.createStudent(new StudentRequest("Jane", "Doe", "jane@example.com", Set.of(102L))));
+
+        assertThat(thrown.getMessage()).contains("[102]");
+        verify(studentRepository, never()).save(any(Student.class));
+        verify(restTemplate, times(2)).postForEntity(
+                eq("http://COURSE-SERVICE/api/courses/byIds"),
+                any(HttpEntity.class),
+                eq(CourseDto[].class)
+        );
+    }
+
+    @Test
+    void getStudentById_shouldHandleCourseServiceDown() throws Exception {
+        Long studentId = 1L;
+        givenStudent(studentId, "John", "john@example.com", Set.of(101L));
 
         // Simulate the Course Service throwing an exception (e.g., connection refused, 500 error)
         // CORRECTED: Mock postForEntity
@@ -173,19 +447,20 @@ public class StudentServiceInterServiceTest {
                 eq(CourseDto[].class)
         )).thenThrow(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "Simulated 500 from Course Service"));
 
-        StudentResponse response = studentService.getStudentById(studentId);
+        StudentResponse response = studentService.getStudentById(studentId, EXPANDED);
 
         assertThat(response).isNotNull();
         assertThat(response.getId()).isEqualTo(studentId);
         // Assert that courses are empty because the service handled the external API error gracefully
         assertThat(response.getCourses()).isEmpty();
+        assertThat(response.getCoursesUnavailable()).isTrue();
 
         verify(restTemplate, times(1)).postForEntity( // Changed to postForEntity
                 eq("http://COURSE-SERVICE/api/courses/byIds"),
                 any(HttpEntity.class), // Changed to any(HttpEntity.class)
                 eq(CourseDto[].class)
         );
-        verify(studentRepository, times(1)).findById(studentId);
+        verify(studentRepository, times(1)).findProjections(List.of(studentId), EXPANDED);
     }
 
     @Test
@@ -214,6 +489,7 @@ public class StudentServiceInterServiceTest {
         List<CourseDto> mockValidCourses = Arrays.asList(course102, course103);
 
         when(studentRepository.findById(studentId)).thenReturn(Optional.of(existingStudent));
+        when(studentRepository.findByIdForUpdate(studentId)).thenReturn(Optional.of(existingStudent));
         when(studentRepository.findByEmail(updateRequest.getEmail())).thenReturn(Optional.empty());
         when(studentRepository.save(any(Student.class))).thenReturn(updatedStudent);
 
@@ -232,16 +508,92 @@ public class StudentServiceInterServiceTest {
         assertThat(response.getEmail()).isEqualTo("new@example.com");
         assertThat(response.getCourses()).containsExactlyInAnyOrderElementsOf(mockValidCourses);
 
+        // Once before validating, then locked in the write transaction that starts after it
         verify(studentRepository, times(1)).findById(studentId);
+        verify(studentRepository, times(1)).findByIdForUpdate(studentId);
         verify(studentRepository, times(1)).findByEmail(updateRequest.getEmail());
         verify(studentRepository, times(1)).save(any(Student.class));
-        verify(restTemplate, times(2)).postForEntity( // Changed to postForEntity, and expecting 2 calls
+        verify(restTemplate, times(1)).postForEntity( // One lookup both validates and enriches
+                eq("http://COURSE-SERVICE/api/courses/byIds"),
+                any(HttpEntity.class),
+                eq(CourseDto[].class)
+        );
+    }
+
+    @Test
+    void updateStudent_shouldOnlyValidateNewlyAddedCourses() {
+        Long studentId = 1L;
+        Student existingStudent = new Student(studentId, "Old", "Name", "old@example.com", Set.of(101L, 102L));
+        StudentRequest updateRequest = new StudentRequest("Old", "Name", "old@example.com", Set.of(101L, 102L, 104L));
+        Student updatedStudent = new Student(studentId, "Old", "Name", "old@example.com", Set.of(101L, 102L, 104L));
+
+        // Course 101 has since been deleted from Course Service; that must not block the update
+        CourseDto course102 = new CourseDto(102L, "Physics Fun", "Fun with physics");
+        CourseDto course104 = new CourseDto(104L, "Biology", "Introduction to Biology");
+
+        when(studentRepository.findById(studentId)).thenReturn(Optional.of(existingStudent));
+        when(studentRepository.findByIdForUpdate(studentId)).thenReturn(Optional.of(existingStudent));
+        when(studentRepository.save(any(Student.class))).thenReturn(updatedStudent);
+        when(restTemplate.postForEntity(
+                eq("http://COURSE-SERVICE/api/courses/byIds"),
+                any(HttpEntity.class),
+                eq(CourseDto[].class)
+        )).thenReturn(new ResponseEntity<>(new CourseDto[]{course102, course104}, HttpStatus.OK));
+
+        StudentResponse response = studentService.updateStudent(studentId, updateRequest);
+
+        assertThat(response.getCourses()).containsExactlyInAnyOrder(course102, course104);
+        verify(restTemplate, times(1)).postForEntity(
                 eq("http://COURSE-SERVICE/api/courses/byIds"),
                 any(HttpEntity.class),
                 eq(CourseDto[].class)
         );
     }
 
+    @Test
+    void updateStudent_shouldRejectUnknownAddedCourse() {
+        Long studentId = 1L;
+        Student existingStudent = new Student(studentId, "Old", "Name", "old@example.com", Set.of(101L));
+        StudentRequest updateRequest = new StudentRequest("Old", "Name", "old@example.com", Set.of(101L, 999L));
+
+        when(studentRepository.findById(studentId)).thenReturn(Optional.of(existingStudent));
+        when(restTemplate.postForEntity(
+                eq("http://COURSE-SERVICE/api/courses/byIds"),
+                any(HttpEntity.class),
+                eq(CourseDto[].class)
+        )).thenReturn(new ResponseEntity<>(new CourseDto[]{new CourseDto(101L, "Math Basics", "Intro")}, HttpStatus.OK));
+
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () ->
+                studentService.updateStudent(studentId, updateRequest));
+
+        assertThat(thrown.getMessage()).contains("[999]");
+        verify(studentRepository, never()).save(any(Student.class));
+    }
+
+    @Test
+    void updateStudent_shouldNotFailOnCourseServiceOutage_whenEnrollmentsAreOnlyRemoved() {
+        Long studentId = 1L;
+        Student existingStudent = new Student(studentId, "Old", "Name", "old@example.com", Set.of(101L, 102L));
+        StudentRequest updateRequest = new StudentRequest("Old", "Name", "old@example.com", Set.of(102L));
+        Student updatedStudent = new Student(studentId, "Old", "Name", "old@example.com", Set.of(102L));
+
+        when(studentRepository.findById(studentId)).thenReturn(Optional.of(existingStudent));
+        when(studentRepository.findByIdForUpdate(studentId)).thenReturn(Optional.of(existingStudent));
+        when(studentRepository.save(any(Student.class))).thenReturn(updatedStudent);
+        when(restTemplate.postForEntity(
+                eq("http://COURSE-SERVICE/api/courses/byIds"),
+                any(HttpEntity.class),
+                eq(CourseDto[].class)
+        )).thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+
+        StudentResponse response = studentService.updateStudent(studentId, updateRequest);
+
+        // Nothing new to validate: the update goes through and only enrichment is degraded
+        assertThat(response.getId()).isEqualTo(studentId);
+        assertThat(response.getCourses()).isEmpty();
+        verify(studentRepository, times(1)).save(any(Student.class));
+    }
+
     @Test
     void updateStudent_shouldThrowException_whenStudentNotFound() {
         Long nonExistentId = 99L;
@@ -279,4 +631,329 @@ public class StudentServiceInterServiceTest {
         verify(studentRepository, never()).deleteById(anyLong());
         verify(studentRepository, times(1)).existsById(nonExistentId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllStudents_shouldResolveCoursesForAllStudentsInOneCall() {
+        givenAllStudents(projected(1L, "Alice", "alice@example.com", Set.of(101L, 102L)),
+                projected(2L, "Bob", "bob@example.com", Set.of(102L, 103L)),
+                projected(3L, "Carol", "carol@example.com", Set.of()));
+
+        CourseDto course101 = new CourseDto(101L, "Math Basics", "Introductory math course");
+        CourseDto course102 = new CourseDto(102L, "Physics Fun", "Fun with physics");
+        CourseDto course103 = new CourseDto(103L, "Chemistry", "Basic Chemistry");
+        when(restTemplate.postForEntity(
+                eq("http://COURSE-SERVICE/api/courses/byIds"),
+                any(HttpEntity.class),
+                eq(CourseDto[].class)
+        )).thenReturn(new ResponseEntity<>(new CourseDto[]{course101, course102, course103}, HttpStatus.OK));
+
+        List<StudentResponse> responses = studentService.getAllStudents(EXPANDED);
+
+        assertThat(responses).hasSize(3);
+        assertThat(responses.get(0).getCourses()).containsExactlyInAnyOrder(course101, course102);
+        assertThat(responses.get(1).getCourses()).containsExactlyInAnyOrder(course102, course103);
+        assertThat(responses.get(2).getCourses()).isEmpty();
+
+        verify(restTemplate, times(1)).postForEntity(
+                eq("http://COURSE-SERVICE/api/courses/byIds"),
+                any(HttpEntity.class),
+                eq(CourseDto[].class)
+        );
+    }
+
+    @Test
+    void getAllStudents_shouldSplitLargeCourseLookupsIntoBatches() {
+        courseClientProperties.setBatchSize(2);
+        givenAllStudents(projected(1L, "Alice", "alice@example.com", Set.of(101L, 102L, 103L)),
+                projected(2L, "Bob", "bob@example.com", Set.of(103L, 104L, 105L)));
+        when(restTemplate.postForEntity(
+                eq("http://COURSE-SERVICE/api/courses/byIds"),
+                any(HttpEntity.class),
+                eq(CourseDto[].class)
+        )).thenReturn(new ResponseEntity<>(new CourseDto[0], HttpStatus.OK));
+
+        studentService.getAllStudents(EXPANDED);
+
+        // 5 distinct course ids in batches of 2 -> 3 calls, independent of the number of students
+        verify(restTemplate, times(3)).postForEntity(
+                eq("http://COURSE-SERVICE/api/courses/byIds"),
+                any(HttpEntity.class),
+                eq(CourseDto[].class)
+        );
+    }
+
+    @Test
+    void getStudentsPage_shouldEnrichPageAndReturnNextCursor() {
+        CourseDto course101 = new CourseDto(101L, "Math Basics", "Introductory math course");
+        CourseDto course102 = new CourseDto(102L, "Physics Fun", "Fun with physics");
+
+        when(studentRepository.findIdsAfter(0L, Limit.of(3))).thenReturn(List.of(1L, 2L, 3L));
+        when(studentRepository.findProjections(List.of(1L, 2L), EXPANDED)).thenReturn(List.of(
+                projected(1L, "Alice", "alice@example.com", Set.of(101L)),
+                projected(2L, "Bob", "bob@example.com", Set.of(102L))));
+        when(restTemplate.postForEntity(
+                eq("http://COURSE-SERVICE/api/courses/byIds"),
+                any(HttpEntity.class),
+                eq(CourseDto[].class)
+        )).thenReturn(new ResponseEntity<>(new CourseDto[]{course101, course102}, HttpStatus.OK));
+
+        StudentPage page = studentService.getStudentsPage(null, 2, EXPANDED);
+
+        assertThat(page.getContent()).extracting(StudentResponse::getId).containsExactly(1L, 2L);
+        assertThat(page.getContent().get(1).getCourses()).containsExactly(course102);
+        assertThat(page.getNextCursor()).isEqualTo(2L);
+        verify(restTemplate, times(1)).postForEntity(
+                eq("http://COURSE-SERVICE/api/courses/byIds"),
+                any(HttpEntity.class),
+                eq(CourseDto[].class)
+        );
+    }
+
+    @Test
+    void getStudentsPage_shouldReturnNoCursor_onLastPage() {
+        when(studentRepository.findIdsAfter(2L, Limit.of(3))).thenReturn(List.of(3L));
+        when(studentRepository.findProjections(List.of(3L), EXPANDED))
+                .thenReturn(List.of(projected(3L, "Carol", "carol@example.com", Set.of())));
+
+        StudentPage page = studentService.getStudentsPage(2L, 2, EXPANDED);
+
+        assertThat(page.getContent()).extracting(StudentResponse::getId).containsExactly(3L);
+        assertThat(page.getNextCursor()).isNull();
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void getStudentsByCourse_shouldReturnEnrolledStudentsWithNextCursor() {
+        StudentResponse alice = new StudentResponse(1L, "Alice", "A", "alice@example.com", Set.of(101L), null, null);
+        StudentResponse carol = new StudentResponse(3L, "Carol", "C", "carol@example.com", Set.of(101L), null, null);
+        when(studentRepository.findStudentIdsByCourse(101L, 0L, 3)).thenReturn(List.of(1L, 3L, 7L));
+        when(studentRepository.findProjections(List.of(1L, 3L), StudentView.DEFAULT)).thenReturn(List.of(alice, carol));
+
+        StudentPage page = studentService.getStudentsByCourse(101L, null, 2, StudentView.DEFAULT);
+
+        assertThat(page.getContent()).extracting(StudentResponse::getId).containsExactly(1L, 3L);
+        assertThat(page.getNextCursor()).isEqualTo(3L);
+        // Course details are opt-in here too
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void getStudentsByCourse_shouldExpandCoursesInOneLookup_whenRequested() {
+        StudentView expanded = StudentView.parse(null, Set.of("courses"));
+        CourseDto course101 = new CourseDto(101L, "Math Basics", "Introductory math course");
+        CourseDto course102 = new CourseDto(102L, "Physics Fun", "Fun with physics");
+        when(studentRepository.findStudentIdsByCourse(101L, 0L, 3)).thenReturn(List.of(1L, 3L));
+        when(studentRepository.findProjections(List.of(1L, 3L), expanded)).thenReturn(List.of(
+                new StudentResponse(1L, "Alice", "A", "alice@example.com", Set.of(101L), null, null),
+                new StudentResponse(3L, "Carol", "C", "carol@example.com", Set.of(101L, 102L), null, null)));
+        when(restTemplate.postForEntity(eq("http://COURSE-SERVICE/api/courses/byIds"), any(HttpEntity.class), eq(CourseDto[].class)))
+                .thenReturn(new ResponseEntity<>(new CourseDto[]{course101, course102}, HttpStatus.OK));
+
+        StudentPage page = studentService.getStudentsByCourse(101L, null, 2, expanded);
+
+        assertThat(page.getContent().get(1).getCourses()).containsExactlyInAnyOrder(course101, course102);
+        assertThat(page.getNextCursor()).isNull();
+        verify(restTemplate, times(1)).postForEntity(eq("http://COURSE-SERVICE/api/courses/byIds"), any(HttpEntity.class), eq(CourseDto[].class));
+    }
+
+    @Test
+    void getStudentsPage_shouldRejectLimitOutsideBounds() {
+        assertThrows(IllegalArgumentException.class, () -> studentService.getStudentsPage(null, 0, StudentView.DEFAULT));
+        assertThrows(IllegalArgumentException.class, () -> studentService.getStudentsPage(null, 1001, StudentView.DEFAULT));
+        verifyNoInteractions(studentRepository);
+    }
+
+    @Test
+    void getStudentById_shouldDegradeWithoutCallingCourseService_whenCircuitIsOpen() {
+        givenStudent(1L, "John", "john@example.com", Set.of(101L));
+        when(restTemplate.postForEntity(eq("http://COURSE-SERVICE/api/courses/byIds"), any(HttpEntity.class), eq(CourseDto[].class)))
+                .thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+
+        // Two failures fill the window and open the breaker
+        studentService.getStudentById(1L, EXPANDED);
+        studentService.getStudentById(1L, EXPANDED);
+        assertThat(circuitBreakerRegistry.circuitBreaker("courseService").getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        StudentResponse response = studentService.getStudentById(1L, EXPANDED);
+
+        assertThat(response.getCourses()).isEmpty();
+        assertThat(response.getCoursesUnavailable()).isTrue();
+        verify(restTemplate, times(2)).postForEntity(anyString(), any(HttpEntity.class), eq(CourseDto[].class));
+        assertThat(meterRegistry.get("course.client.rejected.calls").tag("reason", "circuit_open").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void getStudentById_shouldServeCachedCoursesWithoutFlag_whenCircuitIsOpen() {
+        CourseDto course101 = new CourseDto(101L, "Math Basics", "Introductory math course");
+        givenStudent(1L, "John", "john@example.com", Set.of(101L));
+        when(restTemplate.postForEntity(eq("http://COURSE-SERVICE/api/courses/byIds"), any(HttpEntity.class), eq(CourseDto[].class)))
+                .thenReturn(new ResponseEntity<>(new CourseDto[]{course101}, HttpStatus.OK));
+        studentService.getStudentById(1L, EXPANDED);
+
+        circuitBreakerRegistry.circuitBreaker("courseService").transitionToOpenState();
+        StudentResponse response = studentService.getStudentById(1L, EXPANDED);
+
+        assertThat(response.getCourses()).containsExactly(course101);
+        assertThat(response.getCoursesUnavailable()).isNull();
+    }
+
+    @Test
+    void getAllStudents_shouldDegradeWithoutCallingCourseService_whenBulkheadIsFull() {
+        givenAllStudents(projected(1L, "John", "john@example.com", Set.of(101L)));
+
+        // Hold the only permit, as a concurrent slow call would
+        assertThat(bulkheadRegistry.bulkhead("courseService").tryAcquirePermission()).isTrue();
+        List<StudentResponse> responses = studentService.getAllStudents(EXPANDED);
+
+        assertThat(responses).singleElement().satisfies(response -> {
+            assertThat(response.getCourses()).isEmpty();
+            assertThat(response.getCoursesUnavailable()).isTrue();
+        });
+        verifyNoInteractions(restTemplate);
+        assertThat(meterRegistry.get("course.client.rejected.calls").tag("reason", "bulkhead_full").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void createStudent_shouldFailFastWithServiceUnavailable_whenCircuitIsOpen() {
+        StudentRequest studentRequest = new StudentRequest("Jane", "Doe", "jane@example.com", Set.of(101L));
+        when(studentRepository.findByEmail("jane@example.com")).thenReturn(Optional.empty());
+        circuitBreakerRegistry.circuitBreaker("courseService").transitionToOpenState();
+
+        assertThrows(CourseServiceUnavailableException.class, () -> studentService.createStudent(studentRequest));
+
+        verifyNoInteractions(restTemplate);
+        verify(studentRepository, never()).save(any(Student.class));
+    }
+
+    @Test
+    void enrollInCourse_shouldValidateOnlyTheAddedCourse() {
+        CourseDto course101 = new CourseDto(101L, "Math Basics", "Introductory math course");
+        CourseDto course102 = new CourseDto(102L, "Physics Fun", "Fun with physics");
+        Student student = new Student(1L, "John", "Doe", "john@example.com", Set.of(101L));
+        when(studentRepository.findById(1L)).thenReturn(Optional.of(student));
+        when(studentRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(student));
+        when(restTemplate.postForEntity(eq("http://COURSE-SERVICE/api/courses/byIds"), any(HttpEntity.class), eq(CourseDto[].class)))
+                .thenReturn(new ResponseEntity<>(new CourseDto[]{course102}, HttpStatus.OK))
+                .thenReturn(new ResponseEntity<>(new CourseDto[]{course101}, HttpStatus.OK));
+
+        StudentResponse response = studentService.enrollInCourse(1L, 102L);
+
+        assertThat(student.getCourseIds()).containsExactlyInAnyOrder(101L, 102L);
+        assertThat(response.getCourses()).containsExactlyInAnyOrder(course101, course102);
+        ArgumentCaptor<HttpEntity<CourseValidationRequest>> requests = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate, times(2)).postForEntity(eq("http://COURSE-SERVICE/api/courses/byIds"), requests.capture(), eq(CourseDto[].class));
+        assertThat(requests.getAllValues().get(0).getBody().getCourseIds()).containsExactly(102L);
+        verify(studentRepository, never()).save(any(Student.class));
+    }
+
+    @Test
+    void enrollInCourse_shouldRejectUnknownCourseWithoutChangingEnrollments() {
+        Student student = new Student(1L, "John", "Doe", "john@example.com", Set.of(101L));
+        when(studentRepository.findById(1L)).thenReturn(Optional.of(student));
+        when(restTemplate.postForEntity(eq("http://COURSE-SERVICE/api/courses/byIds"), any(HttpEntity.class), eq(CourseDto[].class)))
+                .thenReturn(new ResponseEntity<>(new CourseDto[0], HttpStatus.OK));
+
+        assertThrows(IllegalArgumentException.class, () -> studentService.enrollInCourse(1L, 999L));
+
+        assertThat(student.getCourseIds()).containsExactly(101L);
+    }
+
+    @Test
+    void dropCourse_shouldNotValidate_whenOnlyRemoving() {
+        Student student = new Student(1L, "John", "Doe", "john@example.com", Set.of(101L, 102L));
+        when(studentRepository.findById(1L)).thenReturn(Optional.of(student));
+        when(studentRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(student));
+        when(restTemplate.postForEntity(eq("http://COURSE-SERVICE/api/courses/byIds"), any(HttpEntity.class), eq(CourseDto[].class)))
+                .thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+
+        StudentResponse response = studentService.dropCourse(1L, 102L);
+
+        assertThat(student.getCourseIds()).containsExactly(101L);
+        assertThat(response.getCoursesUnavailable()).isTrue();
+    }
+
+    @Test
+    void updateEnrollments_shouldRejectCourseBothAddedAndRemoved() {
+        assertThrows(IllegalArgumentException.class, () ->
+                studentService.updateEnrollments(1L, new EnrollmentChangeRequest(Set.of(101L, 102L), Set.of(102L))));
+        verifyNoInteractions(studentRepository, restTemplate);
+    }
+
+    @Test
+    void enrollInCourse_shouldThrowException_whenStudentNotFound() {
+        when(studentRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> studentService.enrollInCourse(1L, 101L));
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void fetchCoursesAsync_shouldFail_whenTheLookupPoolIsShutDown() {
+        CourseServiceClient client = new CourseServiceClient(restTemplate, courseClientProperties,
+                new CourseCatalogReplica(meterRegistry), meterRegistry, circuitBreakerRegistry, bulkheadRegistry);
+        client.destroy();
+
+        CompletableFuture<CourseLookup> lookup = client.fetchCoursesAsync(Set.of(101L));
+
+        ExecutionException thrown = assertThrows(ExecutionException.class, () -> lookup.get(1, TimeUnit.SECONDS));
+        assertThat(thrown.getCause()).isInstanceOf(RejectedExecutionException.class);
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void fetchCoursesAsync_shouldNotFailLookupsSharingItsBatch_whenCancelled() throws Exception {
+        courseClientProperties.getBatching().setWindow(Duration.ofSeconds(1));
+        CourseServiceClient client = new CourseServiceClient(restTemplate, courseClientProperties,
+                new CourseCatalogReplica(meterRegistry), meterRegistry, circuitBreakerRegistry, bulkheadRegistry);
+        CourseDto course101 = new CourseDto(101L, "Math Basics", "Introductory math course");
+        CourseDto course102 = new CourseDto(102L, "Physics Fun", "Fun with physics");
+        // Like the pooled HttpClient, which cannot lease a connection on an interrupted thread
+        when(restTemplate.postForEntity(eq("http://COURSE-SERVICE/api/courses/byIds"), any(HttpEntity.class), eq(CourseDto[].class)))
+                .thenAnswer(invocation -> {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new ResourceAccessException("Connection lease interrupted");
+                    }
+                    return new ResponseEntity<>(new CourseDto[]{course101, course102}, HttpStatus.OK);
+                });
+
+        // The first lookup opens the batching window and sends the batch the second one joins
+        CompletableFuture<CourseLookup> cancelled = client.fetchCoursesAsync(Set.of(101L));
+        Thread.sleep(200);
+        CompletableFuture<CourseLookup> other = client.fetchCoursesAsync(Set.of(101L, 102L));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("course.client.collapsed.ids").counter().count() < 1) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+        cancelled.cancel(true);
+
+        CourseLookup lookup = other.get(5, TimeUnit.SECONDS);
+        assertThat(lookup.isUnavailable()).isFalse();
+        assertThat(lookup.getCourses()).containsOnlyKeys(101L, 102L);
+        verify(restTemplate, times(1)).postForEntity(eq("http://COURSE-SERVICE/api/courses/byIds"), any(HttpEntity.class), eq(CourseDto[].class));
+    }
+
+    // Every field, as GET /api/students/{id}?expand=courses asks for them
+    private static StudentResponse projected(Long id, String firstName, String email, Set<Long> courseIds) {
+        return new StudentResponse(id, firstName, "Doe", email, courseIds, null, null);
+    }
+
+    // A fresh projection per read, as the repository returns
+    private void givenStudent(Long id, String firstName, String email, Set<Long> courseIds) {
+        when(studentRepository.findProjections(List.of(id), EXPANDED))
+                .thenAnswer(invocation -> List.of(projected(id, firstName, email, courseIds)));
+    }
+
+    // A listing that fits in one page
+    private void givenAllStudents(StudentResponse... students) {
+        List<Long> ids = Arrays.stream(students).map(StudentResponse::getId).toList();
+        when(studentRepository.findIdsAfter(0L, Limit.of(StudentServiceImpl.MAX_PAGE_SIZE + 1))).thenReturn(ids);
+        when(studentRepository.findProjections(ids, EXPANDED)).thenReturn(List.of(students));
+    }
+
+    private static List<Long> withNext(List<Long> pageIds, long nextId) {
+        List<Long> ids = new ArrayList<>(pageIds);
+        ids.add(nextId);
+        return ids;
+    }
+}